@@ -0,0 +1,43 @@
+package com.acs.finance.bench;
+
+import com.acs.finance.service.AutoCategorizerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AutoCategorizerService#categorize(String)} over bank-statement-like descriptions
+ * with the default rule set plus {@code extraRules} synthetic merchant keywords.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategorizerBenchmark {
+
+    @Param({"0", "1000", "5000"})
+    public int extraRules;
+
+    private AutoCategorizerService categorizer;
+    private String[] descriptions;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        categorizer = new AutoCategorizerService();
+        List<String> keywords = SyntheticData.keywords(extraRules, 42);
+        for (int i = 0; i < keywords.size(); i++) {
+            categorizer.addRule(keywords.get(i), SyntheticData.CATEGORIES[i % SyntheticData.CATEGORIES.length]);
+        }
+        descriptions = SyntheticData.descriptions(1024, 7);
+    }
+
+    @Benchmark
+    public String categorize() {
+        String d = descriptions[cursor++ & (descriptions.length - 1)];
+        return categorizer.categorize(d);
+    }
+}
@@ -0,0 +1,59 @@
+package com.acs.finance.bench;
+
+import com.acs.finance.service.CurrencyService;
+import com.acs.finance.service.rates.RatesSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CurrencyService#convert} and {@link CurrencyService#convertAll} against a warm latest-rates
+ * snapshot (no network, no date).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyConvertBenchmark {
+
+    private static final String[][] PAIRS = {
+            {"USD", "MDL"}, {"MDL", "EUR"}, {"eur", "usd"}, {"RUB", "EUR"}
+    };
+
+    private static final int BATCH = 4096;
+
+    private CurrencyService currencyService;
+    private int cursor;
+    private double[] batch;
+
+    @Setup
+    public void setup() {
+        RatesSnapshot rates = RatesSnapshot.of(
+                Map.of("USD", 0.057, "EUR", 0.053, "RUB", 5.2), System.currentTimeMillis());
+        currencyService = new CurrencyService(null, null, new SimpleMeterRegistry(), "USD,EUR,RUB", null, null, null) {
+            @Override
+            public RatesSnapshot snapshot() {
+                return rates;
+            }
+        };
+        batch = new double[BATCH];
+    }
+
+    @Benchmark
+    public double convert() {
+        String[] pair = PAIRS[cursor++ & (PAIRS.length - 1)];
+        return currencyService.convert(pair[0], pair[1], 1234.56, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] convertBatch() {
+        for (int i = 0; i < BATCH; i++) batch[i] = 1234.56 + i;
+        currencyService.convertAll("USD", "EUR", null, batch);
+        return batch;
+    }
+}
@@ -0,0 +1,148 @@
+package com.acs.finance.bench;
+
+import com.acs.finance.config.SessionFilter;
+import com.acs.finance.controller.GroupController;
+import com.acs.finance.entity.Budget;
+import com.acs.finance.entity.User;
+import com.acs.finance.model.GroupBudgetItem;
+import com.acs.finance.model.PeerTotal;
+import com.acs.finance.service.AuthService;
+import com.acs.finance.service.DataVersionService;
+import com.acs.finance.service.FinanceService;
+import com.acs.finance.service.GroupBudgetService;
+import com.acs.finance.service.GroupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller-side cost of {@link GroupController#budget} and {@link GroupController#peers}: request
+ * handling, ETag check and response mapping for a group of {@code members}. Both aggregates are
+ * computed in SQL, which this benchmark does not run: the services are stubs returning
+ * precomputed totals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupControllerBenchmark {
+
+    private static final String SID = "bench-session";
+    private static final String GROUP_ID = "bench-group";
+
+    @Param({"4", "20"})
+    public int members;
+
+    private GroupController controller;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(11);
+        Map<String, User> users = new LinkedHashMap<>();
+        Map<String, Double> shares = new LinkedHashMap<>();
+        Map<String, List<Budget>> budgets = new HashMap<>();
+        List<PeerTotal> peerTotals = new ArrayList<>();
+
+        for (int i = 0; i < members; i++) {
+            String id = "user-" + i;
+            users.put(id, new User(id, "member" + i, "hash", null, 1.0));
+            shares.put(id, 1.0 / members);
+            budgets.put(id, SyntheticData.budgets(id, rnd));
+            peerTotals.add(new PeerTotal(id, "member" + i,
+                    rnd.nextInt(500_000) / 100.0, rnd.nextInt(500_000) / 100.0));
+        }
+        User self = users.values().iterator().next();
+
+        AuthService authService = new AuthService(null, null, new SimpleMeterRegistry(), Duration.ofDays(30), Duration.ofMinutes(5), 1000, 1000, 1000, Duration.ofMinutes(10)) {
+            @Override
+            public User getUserBySession(String sid) {
+                return SID.equals(sid) ? self : null;
+            }
+
+            @Override
+            public User getUserById(String userId) {
+                return users.get(userId);
+            }
+        };
+        GroupService groupService = new GroupService(null, null, null) {
+            @Override
+            public String userGroupId(String userId) {
+                return GROUP_ID;
+            }
+
+            @Override
+            public Map<String, Double> members(String groupId) {
+                return shares;
+            }
+        };
+        FinanceService financeService = new FinanceService(null, null, null, null, null, null, null, null, null, null, null) {
+            @Override
+            public List<Budget> getBudgets(String userId) {
+                return budgets.get(userId);
+            }
+
+            @Override
+            public List<PeerTotal> groupPeerTotals(String groupId, LocalDate from, LocalDate to) {
+                return peerTotals;
+            }
+        };
+
+        // Budget totals come from one SQL aggregate; the benchmark measures the cached path
+        DataVersionService dataVersions = new DataVersionService();
+        List<GroupBudgetItem> groupBudget = foldBudgets(budgets, shares);
+        GroupBudgetService groupBudgetService = new GroupBudgetService(null, null, dataVersions, null, new SimpleMeterRegistry(), 1) {
+            @Override
+            public List<GroupBudgetItem> budget(String groupId) {
+                return groupBudget;
+            }
+        };
+
+        controller = new GroupController(authService, groupService, financeService, groupBudgetService,
+                dataVersions);
+        // What SessionFilter would have resolved from the SID cookie
+        request = new MockHttpServletRequest("GET", "/api/group/budget");
+        request.setAttribute(SessionFilter.SESSION_ID_ATTRIBUTE, SID);
+        request.setAttribute(SessionFilter.USER_ATTRIBUTE, self);
+    }
+
+    private static List<GroupBudgetItem> foldBudgets(Map<String, List<Budget>> budgets, Map<String, Double> shares) {
+        Map<String, double[]> agg = new TreeMap<>();
+        for (Map.Entry<String, Double> member : shares.entrySet()) {
+            for (Budget b : budgets.get(member.getKey())) {
+                double[] arr = agg.computeIfAbsent(b.getCategory(), k -> new double[2]);
+                arr[0] += b.getLimitAsDouble() * member.getValue();
+                arr[1] += b.getSpentAsDouble() * member.getValue();
+            }
+        }
+        List<GroupBudgetItem> items = new ArrayList<>();
+        agg.forEach((category, arr) -> items.add(new GroupBudgetItem(category, arr[0], arr[1])));
+        return items;
+    }
+
+    @Benchmark
+    public ResponseEntity<?> budget() {
+        return controller.budget(request, new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> peers() {
+        return controller.peers(null, null, request);
+    }
+}
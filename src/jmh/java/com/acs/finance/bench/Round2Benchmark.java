@@ -0,0 +1,40 @@
+package com.acs.finance.bench;
+
+import com.acs.finance.service.FinanceService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FinanceService#round2(double)} over a batch of typical amounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(Round2Benchmark.BATCH)
+public class Round2Benchmark {
+
+    static final int BATCH = 1024;
+
+    private final double[] amounts = new double[BATCH];
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < BATCH; i++) {
+            amounts[i] = (rnd.nextDouble() - 0.8) * 10_000;
+        }
+    }
+
+    @Benchmark
+    public void round2(Blackhole bh) {
+        for (double a : amounts) {
+            bh.consume(FinanceService.round2(a));
+        }
+    }
+}
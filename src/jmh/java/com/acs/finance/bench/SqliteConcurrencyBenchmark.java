@@ -0,0 +1,139 @@
+package com.acs.finance.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput on the transactions table while a writer keeps inserting, in the default
+ * rollback-journal mode versus WAL with the pragmas from {@code DataSourceConfig}.
+ * Three reader threads and one writer thread share the same database file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqliteConcurrencyBenchmark {
+
+    private static final int USERS = 50;
+    private static final int SEED_ROWS = 50_000;
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        @Param({"DELETE", "WAL"})
+        public String journalMode;
+
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            file = Files.createTempFile("fintrack-bench", ".db");
+            try (Connection c = open(this);
+                 Statement st = c.createStatement()) {
+                st.execute("CREATE TABLE transactions (id VARCHAR(36) PRIMARY KEY, user_id VARCHAR(36) NOT NULL, "
+                        + "date_epoch_day BIGINT NOT NULL, category VARCHAR(255), description VARCHAR(255), "
+                        + "amount NUMERIC(14,2) NOT NULL)");
+                st.execute("CREATE INDEX idx_transactions_user_date ON transactions (user_id, date_epoch_day, id)");
+                c.setAutoCommit(false);
+                Random rnd = new Random(3);
+                try (PreparedStatement ps = c.prepareStatement(INSERT)) {
+                    for (int i = 0; i < SEED_ROWS; i++) {
+                        bindRow(ps, rnd);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                c.commit();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Path.of(file + "-wal"));
+            Files.deleteIfExists(Path.of(file + "-shm"));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement read;
+        PreparedStatement insert;
+        final Random rnd = new Random();
+
+        @Setup(Level.Trial)
+        public void setup(Database db) throws SQLException {
+            connection = open(db);
+            read = connection.prepareStatement("SELECT id, date_epoch_day, category, description, amount "
+                    + "FROM transactions WHERE user_id = ? AND date_epoch_day >= ? ORDER BY date_epoch_day LIMIT 100");
+            insert = connection.prepareStatement(INSERT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    private static final String INSERT = "INSERT INTO transactions (id, user_id, date_epoch_day, category, "
+            + "description, amount) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public double read(Session s) throws SQLException {
+        s.read.setString(1, "user-" + s.rnd.nextInt(USERS));
+        s.read.setLong(2, 19_000 + s.rnd.nextInt(700));
+        double sum = 0;
+        try (ResultSet rs = s.read.executeQuery()) {
+            while (rs.next()) {
+                sum += rs.getDouble(5);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public int write(Session s) throws SQLException {
+        bindRow(s.insert, s.rnd);
+        return s.insert.executeUpdate();
+    }
+
+    static Connection open(Database db) throws SQLException {
+        Properties p = new Properties();
+        p.setProperty("journal_mode", db.journalMode);
+        p.setProperty("busy_timeout", "30000");
+        if ("WAL".equals(db.journalMode)) {
+            p.setProperty("synchronous", "NORMAL");
+            p.setProperty("cache_size", "-20000");
+            p.setProperty("mmap_size", "268435456");
+        }
+        return DriverManager.getConnection("jdbc:sqlite:" + db.file, p);
+    }
+
+    private static void bindRow(PreparedStatement ps, Random rnd) throws SQLException {
+        ps.setString(1, UUID.randomUUID().toString());
+        ps.setString(2, "user-" + rnd.nextInt(USERS));
+        ps.setLong(3, 19_000 + rnd.nextInt(730));
+        ps.setString(4, SyntheticData.CATEGORIES[rnd.nextInt(SyntheticData.CATEGORIES.length)]);
+        ps.setString(5, "bench");
+        ps.setDouble(6, -(1 + rnd.nextInt(100_000) / 100.0));
+    }
+}
@@ -0,0 +1,92 @@
+package com.acs.finance.bench;
+
+import com.acs.finance.entity.Budget;
+import com.acs.finance.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic inputs shared by the benchmarks.
+ */
+final class SyntheticData {
+
+    static final String[] CATEGORIES = {
+            "Питание", "Транспорт", "Жильё", "Здоровье", "Доход", "Связь",
+            "Одежда", "Развлечения", "Образование", "Подарки", "Спорт", "Прочее"
+    };
+
+    private static final String[] MERCHANT_WORDS = {
+            "Linella", "Nr1", "Fidesco", "Kaufland", "supermarket", "market", "alimentara",
+            "кафе", "ресторан", "Andy's Pizza", "такси", "Yandex Go", "bus", "transport",
+            "аптека", "pharmacy", "Farmacia Familiei", "аренда", "квартира", "rent",
+            "зарплата", "salary", "Orange", "Moldcell", "Starnet", "cinema", "fitness"
+    };
+
+    private SyntheticData() {
+    }
+
+    static String[] descriptions(int count, long seed) {
+        Random rnd = new Random(seed);
+        String[] out = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("POS ").append(1000 + rnd.nextInt(9000)).append(' ');
+            int words = 1 + rnd.nextInt(4);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) sb.append(' ');
+                sb.append(MERCHANT_WORDS[rnd.nextInt(MERCHANT_WORDS.length)]);
+            }
+            sb.append(" Chisinau MD");
+            out[i] = sb.toString();
+        }
+        return out;
+    }
+
+    static List<String> keywords(int count, long seed) {
+        Random rnd = new Random(seed);
+        List<String> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int len = 4 + rnd.nextInt(8);
+            StringBuilder sb = new StringBuilder(len);
+            for (int c = 0; c < len; c++) {
+                sb.append((char) ('a' + rnd.nextInt(26)));
+            }
+            out.add(sb.toString());
+        }
+        return out;
+    }
+
+    static List<Budget> budgets(String userId, Random rnd) {
+        List<Budget> out = new ArrayList<>(CATEGORIES.length);
+        for (String category : CATEGORIES) {
+            Budget b = new Budget(userId, category, 500 + rnd.nextInt(5000));
+            b.addSpent(rnd.nextInt(4000));
+            out.add(b);
+        }
+        return out;
+    }
+
+    static List<Transaction> transactions(String userId, int count, Random rnd) {
+        long start = LocalDate.of(2023, 1, 1).toEpochDay();
+        List<Transaction> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double amount = rnd.nextInt(10) == 0
+                    ? 1000 + rnd.nextInt(20000)
+                    : -(1 + rnd.nextInt(150000) / 100.0);
+            out.add(Transaction.builder()
+                    .id(UUID.randomUUID().toString())
+                    .userId(userId)
+                    .dateEpochDay(start + rnd.nextInt(730))
+                    .category(CATEGORIES[rnd.nextInt(CATEGORIES.length)])
+                    .description("tx " + i)
+                    .amount(BigDecimal.valueOf(amount))
+                    .build());
+        }
+        return out;
+    }
+}
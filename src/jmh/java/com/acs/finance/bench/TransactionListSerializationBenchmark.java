@@ -0,0 +1,65 @@
+package com.acs.finance.bench;
+
+import com.acs.finance.entity.Transaction;
+import com.acs.finance.model.api.TransactionListResponse;
+import com.acs.finance.service.FinanceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a {@code GET /api/transactions} page: the former per-row {@code HashMap} payload against
+ * {@link TransactionListResponse}. Run with {@code -prof gc}; {@code gc.alloc.rate.norm} is bytes
+ * allocated per transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(TransactionListSerializationBenchmark.ROWS)
+public class TransactionListSerializationBenchmark {
+
+    static final int ROWS = 1000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<Transaction> rows;
+
+    @Setup
+    public void setup() {
+        rows = SyntheticData.transactions("u", ROWS, new Random(1));
+    }
+
+    @Benchmark
+    public void maps() throws IOException {
+        List<Map<String, Object>> items = rows.stream().map(tx -> {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", tx.getId());
+            item.put("date", LocalDate.ofEpochDay(tx.getDateEpochDay()).toString());
+            item.put("category", tx.getCategory());
+            item.put("description", tx.getDescription());
+            item.put("amount", FinanceService.round2(tx.getAmountAsDouble()));
+            item.put("currency", tx.getCurrency());
+            return item;
+        }).toList();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("items", items);
+        body.put("nextCursor", null);
+        mapper.writeValue(OutputStream.nullOutputStream(), body);
+    }
+
+    @Benchmark
+    public void records() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), TransactionListResponse.of(rows, null, null));
+    }
+}
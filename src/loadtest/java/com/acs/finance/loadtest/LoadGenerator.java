@@ -0,0 +1,303 @@
+package com.acs.finance.loadtest;
+
+import com.acs.finance.FinanceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load of simulated FinTrack users. {@code --users} accounts are registered, logged in
+ * and put into groups of {@code --group-size}; each opens {@code /api/events}. Requests then start
+ * at a fixed {@code --rate} per second regardless of how fast the server answers, picked from
+ * {@code --mix} ({@code endpoint:weight,...}), for {@code --duration} seconds after
+ * {@code --warmup}. Latency is measured from the scheduled start, so a slow server shows up as
+ * latency rather than as a lower request rate; at most {@code --max-in-flight} requests are
+ * outstanding and the rest are counted as dropped.
+ * <p>
+ * Without {@code --target} the application is started in this JVM on a random port with a fresh
+ * database, its exchange-rate API pointed at a local {@link StubRatesServer}. With
+ * {@code --target=http://host:port} an already running instance is driven instead (start it with
+ * {@code --fintrack.rates.base-url} set to the stub URL printed at startup). Throughput and
+ * p50/p95/p99 per endpoint are printed and written as JSON to {@code --out}.
+ */
+public final class LoadGenerator {
+
+    enum Endpoint {
+        ADD("POST /api/transaction/add"),
+        LIST("GET /api/transactions"),
+        PEERS("GET /api/group/peers"),
+        CONVERT("GET /api/currency/convert"),
+        REMINDER_ADD("POST /api/reminder/add"),
+        REMINDERS("GET /api/reminders");
+
+        final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+
+        static Endpoint of(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    record Options(String target, int users, int sse, int groupSize, double rate, int maxInFlight,
+                   int warmupSeconds, int durationSeconds, Map<Endpoint, Integer> mix, long stubDelayMillis,
+                   long seed, Path out) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = LoadSupport.parseArgs(args);
+            int users = Integer.parseInt(values.getOrDefault("users", "100"));
+            Map<Endpoint, Integer> mix = new LinkedHashMap<>();
+            for (String part : values.getOrDefault("mix",
+                    "add:20,list:35,peers:10,convert:15,reminder-add:5,reminders:15").split(",")) {
+                String[] kv = part.split(":");
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("Expected endpoint:weight in --mix, got: " + part);
+                }
+                int weight = Integer.parseInt(kv[1].trim());
+                if (weight > 0) {
+                    mix.put(Endpoint.of(kv[0]), weight);
+                }
+            }
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("--mix has no endpoint with a positive weight");
+            }
+            return new Options(
+                    values.get("target"),
+                    users,
+                    Integer.parseInt(values.getOrDefault("sse", String.valueOf(users))),
+                    Integer.parseInt(values.getOrDefault("group-size", "5")),
+                    Double.parseDouble(values.getOrDefault("rate", "200")),
+                    Integer.parseInt(values.getOrDefault("max-in-flight", "1000")),
+                    Integer.parseInt(values.getOrDefault("warmup", "10")),
+                    Integer.parseInt(values.getOrDefault("duration", "60")),
+                    mix,
+                    Long.parseLong(values.getOrDefault("stub-delay-ms", "50")),
+                    Long.parseLong(values.getOrDefault("seed", "1")),
+                    Path.of(values.getOrDefault("out", "target/loadtest/load.json")));
+        }
+    }
+
+    /** Latencies per endpoint, filled from HttpClient completion threads. */
+    private static final class Stats {
+        final Recorder recorder = new Recorder();
+        final LongAdder dropped = new LongAdder();
+
+        synchronized void record(long latency, boolean ok) {
+            recorder.record(latency, ok);
+        }
+
+        synchronized Map<String, Object> summary(int durationSeconds) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("throughput", recorder.count() / (double) durationSeconds);
+            s.putAll(recorder.summary());
+            s.put("dropped", dropped.sum());
+            return s;
+        }
+    }
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options o = Options.parse(args);
+        try (StubRatesServer stub = new StubRatesServer(o.stubDelayMillis())) {
+            System.out.println("Exchange-rate stub: " + stub.baseUrl());
+            ConfigurableApplicationContext context = o.target() == null ? start(o, stub) : null;
+            try {
+                String base = o.target() != null ? o.target()
+                        : "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+                Map<String, Object> report = run(base, o);
+                report.put("stubRequests", stub.requests());
+
+                Map<String, Object> all = castMap(report.get("all"));
+                System.out.printf("%n%-26s %9s %9s %9s %9s %9s %8s %8s%n",
+                        "endpoint", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "dropped");
+                castMap(report.get("endpoints")).forEach((name, value) -> print(name, castMap(value)));
+                print("all", all);
+
+                LoadSupport.writeReport(o.out(), report);
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+        // Open SSE streams keep HttpClient threads alive
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext start(Options o, StubRatesServer stub) throws Exception {
+        Path dir = Files.createTempDirectory("fintrack-load");
+        return new SpringApplicationBuilder(FinanceApplication.class).run(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:sqlite:" + dir.resolve("fintrack.db"),
+                "--server.tomcat.max-connections=" + (o.sse() + o.maxInFlight() + 1000),
+                "--fintrack.rates.base-url=" + stub.baseUrl(),
+                "--logging.level.com.acs.finance=WARN");
+    }
+
+    private static Map<String, Object> run(String base, Options o) throws Exception {
+        HttpClient api = LoadSupport.apiClient();
+        String[] sids = LoadSupport.login(api, base, o.users());
+        joinGroups(api, base, sids, o.groupSize());
+
+        LongAdder hello = new LongAdder();
+        LongAdder sseEvents = new LongAdder();
+        LongAdder sseErrors = new LongAdder();
+        LoadSupport.openStreams(base, sids, o.sse(), hello, sseEvents, sseErrors);
+
+        Map<Endpoint, Stats> stats = new LinkedHashMap<>();
+        List<Endpoint> picks = new ArrayList<>();
+        o.mix().forEach((endpoint, weight) -> {
+            stats.put(endpoint, new Stats());
+            for (int i = 0; i < weight; i++) picks.add(endpoint);
+        });
+
+        Semaphore inFlight = new Semaphore(o.maxInFlight());
+        Random rnd = new Random(o.seed());
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / o.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(o.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(o.durationSeconds());
+        long sseAtStart = -1;
+        System.out.printf("Driving %s at %.0f req/s: %ds warmup, %ds measured%n",
+                base, o.rate(), o.warmupSeconds(), o.durationSeconds());
+
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = scheduled >= measureFrom;
+            if (measured && sseAtStart < 0) {
+                sseAtStart = sseEvents.sum();
+            }
+            Endpoint endpoint = picks.get(rnd.nextInt(picks.size()));
+            Stats s = stats.get(endpoint);
+            if (!inFlight.tryAcquire()) {
+                if (measured) s.dropped.increment();
+                continue;
+            }
+            long startedAt = scheduled;
+            api.sendAsync(request(endpoint, base, sids[rnd.nextInt(sids.length)], rnd),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - startedAt;
+                        inFlight.release();
+                        if (measured) {
+                            int status = response != null ? response.statusCode() : 0;
+                            s.record(latency, error == null && status >= 200 && status < 300);
+                        }
+                    });
+        }
+        // Let the tail finish so slow requests are counted, not lost
+        if (!inFlight.tryAcquire(o.maxInFlight(), 60, TimeUnit.SECONDS)) {
+            System.out.println("Some requests were still running after 60s; they are not in the report");
+        }
+
+        Recorder all = new Recorder();
+        long dropped = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<Endpoint, Stats> e : stats.entrySet()) {
+            endpoints.put(e.getKey().label, e.getValue().summary(o.durationSeconds()));
+            synchronized (e.getValue()) {
+                all.addAll(e.getValue().recorder);
+            }
+            dropped += e.getValue().dropped.sum();
+        }
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("throughput", all.count() / (double) o.durationSeconds());
+        total.putAll(all.summary());
+        total.put("dropped", dropped);
+
+        Map<String, Object> options = new LinkedHashMap<>();
+        options.put("users", o.users());
+        options.put("sse", o.sse());
+        options.put("groupSize", o.groupSize());
+        options.put("rate", o.rate());
+        options.put("maxInFlight", o.maxInFlight());
+        options.put("warmupSeconds", o.warmupSeconds());
+        options.put("durationSeconds", o.durationSeconds());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        o.mix().forEach((endpoint, weight) -> mix.put(endpoint.label, weight));
+        options.put("mix", mix);
+        options.put("stubDelayMs", o.stubDelayMillis());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("jdk", Runtime.version().toString());
+        report.put("target", o.target() != null ? o.target() : "in-process");
+        report.put("options", options);
+        report.put("all", total);
+        report.put("endpoints", endpoints);
+        report.put("sseConnected", hello.sum());
+        report.put("sseEvents", sseEvents.sum() - Math.max(0, sseAtStart));
+        report.put("sseErrors", sseErrors.sum());
+        return report;
+    }
+
+    /** Every {@code groupSize} consecutive users share a group created by the first of them. */
+    private static void joinGroups(HttpClient client, String base, String[] sids, int groupSize) throws Exception {
+        if (groupSize < 2) return;
+        ObjectMapper mapper = new ObjectMapper();
+        String groupId = null;
+        for (int i = 0; i < sids.length; i++) {
+            if (i % groupSize == 0) {
+                HttpResponse<String> created = client.send(
+                        LoadSupport.post(base + "/api/group/create?name=load" + i, sids[i]),
+                        HttpResponse.BodyHandlers.ofString());
+                JsonNode body = mapper.readTree(created.body());
+                groupId = body.path("groupId").asText(null);
+            } else if (groupId != null) {
+                LoadSupport.send(client, LoadSupport.post(base + "/api/group/join?groupId=" + groupId
+                        + "&share=" + (1.0 / groupSize), sids[i]));
+            }
+        }
+    }
+
+    private static HttpRequest request(Endpoint endpoint, String base, String sid, Random rnd) {
+        return switch (endpoint) {
+            case ADD -> LoadSupport.post(base + LoadSupport.addQuery(rnd), sid);
+            case LIST -> LoadSupport.get(base + "/api/transactions?limit=50", sid);
+            case PEERS -> LoadSupport.get(base + "/api/group/peers?from=" + LocalDate.now().withDayOfMonth(1), sid);
+            case CONVERT -> LoadSupport.get(base + "/api/currency/convert?from=USD&to=EUR&amount="
+                    + (1 + rnd.nextInt(1000)), sid);
+            case REMINDER_ADD -> LoadSupport.post(base + "/api/reminder/add?dueDate="
+                    + LocalDate.now().plusDays(1 + rnd.nextInt(30)) + "&message=load&amount=" + rnd.nextInt(500), sid);
+            case REMINDERS -> LoadSupport.get(base + "/api/reminders", sid);
+        };
+    }
+
+    private static void print(String name, Map<String, Object> s) {
+        System.out.printf("%-26s %9.1f %9.2f %9.2f %9.2f %9.2f %8d %8d%n",
+                name, s.get("throughput"), s.get("p50"), s.get("p95"), s.get("p99"), s.get("max"),
+                s.get("errors"), s.get("dropped"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
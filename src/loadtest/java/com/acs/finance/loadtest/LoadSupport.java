@@ -0,0 +1,144 @@
+package com.acs.finance.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client side shared by the load tools: argument parsing, user sessions, SSE streams and the
+ * request shapes the frontend sends.
+ */
+final class LoadSupport {
+
+    private static final String[] CATEGORIES = {"food", "transport", "rent", "fun", null};
+
+    private LoadSupport() {
+    }
+
+    /** {@code --name=value} arguments, in order. */
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return values;
+    }
+
+    static HttpClient apiClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /** Registers (if needed) and logs in {@code load0..load<users-1>}; returns their SIDs. */
+    static String[] login(HttpClient client, String base, int users) throws Exception {
+        String[] sids = new String[users];
+        for (int i = 0; i < users; i++) {
+            String credentials = "?username=load" + i + "&password=load" + i;
+            send(client, post(base + "/api/register" + credentials, null));
+            HttpResponse<Void> response = send(client, post(base + "/api/login" + credentials, null));
+            sids[i] = response.headers().allValues("set-cookie").stream()
+                    .filter(c -> c.startsWith("SID="))
+                    .map(c -> c.substring(4, c.indexOf(';') > 0 ? c.indexOf(';') : c.length()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No SID cookie for user " + response.uri()));
+        }
+        return sids;
+    }
+
+    /**
+     * Opens {@code count} {@code /api/events} streams round-robin over the sessions and waits (up
+     * to a minute) until each has received its hello event.
+     */
+    static void openStreams(String base, String[] sids, int count, LongAdder hello, LongAdder events,
+                            LongAdder errors) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        for (int i = 0; i < count; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/events"))
+                    .header("Cookie", "SID=" + sids[i % sids.length])
+                    .header("Accept", "text/event-stream")
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new Flow.Subscriber<String>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(String line) {
+                    if (line.startsWith("data:")) {
+                        if (line.contains("\"hello\"")) hello.increment();
+                        else events.increment();
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    errors.increment();
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            }));
+        }
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (hello.sum() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        System.out.println("SSE streams open: " + hello.sum() + "/" + count);
+    }
+
+    static String addQuery(Random rnd) {
+        String category = CATEGORIES[rnd.nextInt(CATEGORIES.length)];
+        return "/api/transaction/add?date=" + LocalDate.now().minusDays(rnd.nextInt(365))
+                + "&amount=" + (rnd.nextInt(20) == 0 ? 500 + rnd.nextInt(2000) : -(1 + rnd.nextInt(300)))
+                + (category != null ? "&category=" + category : "&description=load+test");
+    }
+
+    static HttpRequest get(String url, String sid) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Cookie", "SID=" + sid)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    static HttpRequest post(String url, String sid) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(30));
+        if (sid != null) {
+            builder.header("Cookie", "SID=" + sid);
+        }
+        return builder.build();
+    }
+
+    static HttpResponse<Void> send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    static void writeReport(Path out, Object report) throws IOException {
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+        System.out.println("Report written to " + out.toAbsolutePath());
+    }
+}
@@ -0,0 +1,59 @@
+package com.acs.finance.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Latencies of one client or endpoint (or merged), in nanoseconds. Not thread-safe. */
+final class Recorder {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long latency, boolean ok) {
+        if (!ok) {
+            errors++;
+        }
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latency;
+    }
+
+    void addAll(Recorder other) {
+        if (count + other.count > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+        }
+        System.arraycopy(other.nanos, 0, nanos, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    Map<String, Object> summary() {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("count", count);
+        s.put("errors", errors);
+        s.put("p50", millis(sorted, 0.50));
+        s.put("p95", millis(sorted, 0.95));
+        s.put("p99", millis(sorted, 0.99));
+        s.put("max", count > 0 ? sorted[count - 1] / 1e6 : 0.0);
+        return s;
+    }
+
+    private static double millis(long[] sorted, double p) {
+        if (sorted.length == 0) return 0.0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
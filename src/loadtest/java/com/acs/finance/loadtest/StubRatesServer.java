@@ -0,0 +1,110 @@
+package com.acs.finance.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the exchange-rate API ({@code fintrack.rates.base-url}): answers
+ * {@code /latest} and {@code /timeseries} in the same JSON shape with fixed MDL-based rates after
+ * an optional delay, so rate refreshes and history prefetches cost a realistic round trip without
+ * leaving the machine.
+ */
+final class StubRatesServer implements AutoCloseable {
+
+    private static final Map<String, Double> RATES = Map.of(
+            "USD", 0.057, "EUR", 0.053, "RUB", 5.2, "GBP", 0.045, "UAH", 2.35, "RON", 0.26);
+
+    private final HttpServer server;
+    private final long delayMillis;
+    private final LongAdder requests = new LongAdder();
+
+    StubRatesServer(long delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/latest", exchange -> respond(exchange, latest()));
+        server.createContext("/timeseries", exchange -> respond(exchange, timeseries(query(exchange))));
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, String json) throws IOException {
+        requests.increment();
+        try {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String latest() {
+        return "{\"base\":\"MDL\",\"rates\":" + rates(1.0) + "}";
+    }
+
+    /** One entry per day of the range, drifting slightly so converted sums differ by date. */
+    private static String timeseries(Map<String, String> query) {
+        LocalDate from = LocalDate.parse(query.getOrDefault("start_date", LocalDate.now().toString()));
+        LocalDate to = LocalDate.parse(query.getOrDefault("end_date", from.toString()));
+        StringBuilder sb = new StringBuilder("{\"base\":\"MDL\",\"rates\":{");
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (day.isAfter(from)) sb.append(',');
+            sb.append('"').append(day).append("\":").append(rates(1.0 + (day.getDayOfYear() % 10) / 1000.0));
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static String rates(double factor) {
+        StringBuilder sb = new StringBuilder("{");
+        RATES.forEach((code, rate) -> {
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(code).append("\":").append(rate * factor);
+        });
+        return sb.append('}').toString();
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> values = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return values;
+        for (String part : raw.split("&")) {
+            int eq = part.indexOf('=');
+            if (eq > 0) {
+                values.put(part.substring(0, eq), part.substring(eq + 1));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,241 @@
+package com.acs.finance.loadtest;
+
+import com.acs.finance.FinanceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Platform vs virtual threads under the same load. For every mode the application is started on a
+ * random port with a fresh database, then driven by {@code --sse} open event streams spread over
+ * {@code --users} sessions plus {@code --clients} API clients looping over a read-heavy endpoint mix
+ * (adds also fan out SSE events). Latencies are recorded for {@code --duration} seconds after
+ * {@code --warmup}; throughput and p50/p95/p99 per mode are printed and written to {@code --out}.
+ * <p>
+ * Client and server share one JVM, so absolute numbers are pessimistic; compare the modes.
+ * The virtual mode is skipped on JDKs before 21.
+ */
+public final class ThreadModeComparison {
+
+    enum Op {
+        LIST(40), ADD(20), MONTHLY(20), BUDGETS(10), CONVERT(10);
+
+        final int weight;
+
+        Op(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    record Options(int users, int sse, int clients, int seedPerUser, int warmupSeconds, int durationSeconds,
+                   List<String> modes, Path out) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = LoadSupport.parseArgs(args);
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("users", "50")),
+                    Integer.parseInt(values.getOrDefault("sse", "2000")),
+                    Integer.parseInt(values.getOrDefault("clients", "200")),
+                    Integer.parseInt(values.getOrDefault("seed", "100")),
+                    Integer.parseInt(values.getOrDefault("warmup", "10")),
+                    Integer.parseInt(values.getOrDefault("duration", "30")),
+                    Arrays.asList(values.getOrDefault("modes", "platform,virtual").split(",")),
+                    Path.of(values.getOrDefault("out", "target/loadtest/thread-modes.json")));
+        }
+    }
+
+    private ThreadModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String name : options.modes()) {
+            String mode = name.trim();
+            if ("virtual".equals(mode) && Runtime.version().feature() < 21) {
+                System.out.println("Skipping virtual mode: JDK 21+ required (running " + Runtime.version() + ")");
+                continue;
+            }
+            results.add(run(mode, options));
+        }
+
+        System.out.printf("%n%-9s %10s %9s %9s %9s %9s %8s %10s %8s%n",
+                "mode", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "sse events", "threads");
+        for (Map<String, Object> r : results) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> all = (Map<String, Object>) r.get("latency");
+            System.out.printf("%-9s %10.1f %9.2f %9.2f %9.2f %9.2f %8d %10d %8d%n",
+                    r.get("mode"), r.get("throughput"), all.get("p50"), all.get("p95"), all.get("p99"),
+                    all.get("max"), r.get("errors"), r.get("sseEvents"), r.get("peakPlatformThreads"));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jdk", Runtime.version().toString());
+        report.put("options", Map.of(
+                "users", options.users(), "sse", options.sse(), "clients", options.clients(),
+                "seedPerUser", options.seedPerUser(), "warmupSeconds", options.warmupSeconds(),
+                "durationSeconds", options.durationSeconds()));
+        report.put("results", results);
+        LoadSupport.writeReport(options.out(), report);
+
+        // Open SSE streams keep HttpClient threads alive
+        System.exit(0);
+    }
+
+    private static Map<String, Object> run(String mode, Options o) throws Exception {
+        System.out.println("=== " + mode + " threads ===");
+        Path dir = Files.createTempDirectory("fintrack-load-" + mode);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FinanceApplication.class).run(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--spring.datasource.url=jdbc:sqlite:" + dir.resolve("fintrack.db"),
+                "--server.tomcat.max-connections=" + (o.sse() + o.clients() + 1000),
+                // Unreachable on purpose: the fallback rates are served and nothing waits on the network
+                "--fintrack.rates.base-url=http://127.0.0.1:9",
+                "--logging.level.com.acs.finance=WARN");
+        ExecutorService workers = Executors.newFixedThreadPool(o.clients());
+        try {
+            boolean virtual = Threading.VIRTUAL.isActive(context.getEnvironment());
+            String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient api = LoadSupport.apiClient();
+
+            String[] sids = LoadSupport.login(api, base, o.users());
+            seed(api, base, sids, o.seedPerUser(), workers);
+
+            LongAdder hello = new LongAdder();
+            LongAdder sseEvents = new LongAdder();
+            LongAdder sseErrors = new LongAdder();
+            LoadSupport.openStreams(base, sids, o.sse(), hello, sseEvents, sseErrors);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(o.warmupSeconds());
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(o.durationSeconds());
+
+            List<Future<Recorder[]>> futures = new ArrayList<>();
+            for (int c = 0; c < o.clients(); c++) {
+                int clientNo = c;
+                futures.add(workers.submit(() -> drive(api, base, sids[clientNo % sids.length], clientNo,
+                        measureFrom, end)));
+            }
+            Thread.sleep(Math.max(0, TimeUnit.NANOSECONDS.toMillis(measureFrom - System.nanoTime())));
+            long sseAtStart = sseEvents.sum();
+            long sseErrorsAtStart = sseErrors.sum();
+
+            Recorder all = new Recorder();
+            Map<Op, Recorder> perOp = new LinkedHashMap<>();
+            for (Future<Recorder[]> f : futures) {
+                Recorder[] byOp = f.get();
+                for (Op op : Op.values()) {
+                    perOp.computeIfAbsent(op, k -> new Recorder()).addAll(byOp[op.ordinal()]);
+                    all.addAll(byOp[op.ordinal()]);
+                }
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("mode", mode);
+            result.put("virtualThreadsActive", virtual);
+            result.put("requests", all.count());
+            result.put("errors", all.errors());
+            result.put("throughput", all.count() / (double) o.durationSeconds());
+            result.put("latency", all.summary());
+            Map<String, Object> ops = new LinkedHashMap<>();
+            perOp.forEach((op, r) -> ops.put(op.name().toLowerCase(), r.summary()));
+            result.put("endpoints", ops);
+            result.put("sseConnected", hello.sum());
+            result.put("sseEvents", sseEvents.sum() - sseAtStart);
+            result.put("sseErrors", sseErrors.sum() - sseErrorsAtStart);
+            result.put("peakPlatformThreads", threads.getPeakThreadCount());
+            result.put("heapUsedMb", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20);
+            return result;
+        } finally {
+            workers.shutdownNow();
+            context.close();
+        }
+    }
+
+    private static void seed(HttpClient client, String base, String[] sids, int perUser,
+                             ExecutorService workers) throws Exception {
+        List<Future<?>> pending = new ArrayList<>();
+        for (int u = 0; u < sids.length; u++) {
+            String sid = sids[u];
+            Random rnd = new Random(u);
+            pending.add(workers.submit(() -> {
+                for (int i = 0; i < perUser; i++) {
+                    LoadSupport.send(client, LoadSupport.post(base + LoadSupport.addQuery(rnd), sid));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : pending) {
+            f.get();
+        }
+    }
+
+    private static Recorder[] drive(HttpClient client, String base, String sid, int clientNo,
+                                    long measureFrom, long end) {
+        Recorder[] byOp = new Recorder[Op.values().length];
+        for (Op op : Op.values()) {
+            byOp[op.ordinal()] = new Recorder();
+        }
+        Random rnd = new Random(clientNo);
+        int totalWeight = Arrays.stream(Op.values()).mapToInt(op -> op.weight).sum();
+        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+            int pick = rnd.nextInt(totalWeight);
+            Op op = Op.values()[0];
+            for (Op candidate : Op.values()) {
+                if (pick < candidate.weight) {
+                    op = candidate;
+                    break;
+                }
+                pick -= candidate.weight;
+            }
+            HttpRequest request = switch (op) {
+                case LIST -> LoadSupport.get(base + "/api/transactions?limit=50", sid);
+                case ADD -> LoadSupport.post(base + LoadSupport.addQuery(rnd), sid);
+                case MONTHLY -> LoadSupport.get(base + "/api/summary/monthly", sid);
+                case BUDGETS -> LoadSupport.get(base + "/api/budget", sid);
+                case CONVERT -> LoadSupport.get(base + "/api/currency/convert?from=USD&to=EUR&amount="
+                        + rnd.nextInt(1000), sid);
+            };
+
+            long t0 = System.nanoTime();
+            boolean ok;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok = status >= 200 && status < 300;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long t1 = System.nanoTime();
+            if (t0 >= measureFrom && t1 <= end) {
+                byOp[op.ordinal()].record(t1 - t0, ok);
+            }
+        }
+        return byOp;
+    }
+}
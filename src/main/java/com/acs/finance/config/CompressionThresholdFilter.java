@@ -0,0 +1,99 @@
+package com.acs.finance.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Makes {@code server.compression.min-response-size} apply to JSON API responses.
+ * <p>
+ * Spring flushes after writing every message body, which commits the response before Tomcat
+ * knows its length, and Tomcat compresses any response of unknown length, so even
+ * {@code {"ok":true}} got gzipped. Flushes of JSON bodies are ignored here: a body that fits
+ * Tomcat's output buffer gets a {@code Content-Length} on completion and is compressed only above
+ * the threshold; larger bodies overflow the buffer and are compressed as they stream. Other content
+ * types, SSE in particular, flush as usual.
+ */
+@Component
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, new JsonResponse(response));
+    }
+
+    private static final class JsonResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream out;
+
+        JsonResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (out == null) {
+                out = new DeferredFlushStream(super.getOutputStream(), this);
+            }
+            return out;
+        }
+    }
+
+    private static final class DeferredFlushStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final HttpServletResponse response;
+
+        DeferredFlushStream(ServletOutputStream delegate, HttpServletResponse response) {
+            this.delegate = delegate;
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            String type = response.getContentType();
+            if (type == null || !type.startsWith("application/json")) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.acs.finance.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * SQLite in WAL mode with one writer connection and a separate pool of read-only connections.
+ * <p>
+ * SQLite allows a single writer at a time; funnelling all mutations through one pooled connection
+ * turns {@code SQLITE_BUSY} errors into an ordered wait in the pool. In WAL mode readers see the
+ * last committed snapshot and are not blocked by the writer.
+ * <p>
+ * With write-behind ({@code fintrack.write-behind.enabled}) the writer runs with
+ * {@code synchronous=FULL} whatever {@code fintrack.sqlite.synchronous} says: group commit
+ * promises callers a durable commit, and in WAL mode {@code NORMAL} does not fsync on commit.
+ * One fsync per batch instead of per request is the point of that mode.
+ */
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    @Value("${fintrack.sqlite.journal-mode:WAL}")
+    private String journalMode;
+
+    @Value("${fintrack.sqlite.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${fintrack.sqlite.cache-size:-20000}")
+    private long cacheSize;
+
+    @Value("${fintrack.sqlite.mmap-size:268435456}")
+    private long mmapSize;
+
+    @Value("${fintrack.sqlite.busy-timeout:5000}")
+    private int busyTimeout;
+
+    @Value("${fintrack.write-behind.enabled:false}")
+    private boolean writeBehind;
+
+    @Bean
+    @FlywayDataSource
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("sqlite-writer");
+        ds.setMaximumPoolSize(1);
+        ds.setMinimumIdle(1);
+        String writerSynchronous = writeBehind ? "FULL" : synchronous;
+        ds.setDataSourceProperties(pragmas(writerSynchronous));
+        log.info("SQLite writer: journal_mode={}, synchronous={}", journalMode, writerSynchronous);
+        return ds;
+    }
+
+    @Bean
+    public HikariDataSource readDataSource(DataSourceProperties properties,
+                                           @Value("${fintrack.datasource.read-pool-size:4}") int readPoolSize) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("sqlite-reader");
+        ds.setMaximumPoolSize(readPoolSize);
+        ds.setMinimumIdle(1);
+        ds.setDataSourceProperties(pragmas(synchronous));
+        // Guard against writes slipping into a read-only route
+        ds.setConnectionInitSql("PRAGMA query_only = ON");
+        return ds;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+                                 @Qualifier("readDataSource") DataSource readDataSource) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.<Object, Object>of(
+                ReadWriteRoutingDataSource.Route.WRITE, writeDataSource,
+                ReadWriteRoutingDataSource.Route.READ, readDataSource));
+        routing.setDefaultTargetDataSource(writeDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Passed to the sqlite-jdbc driver, which applies them as PRAGMAs on every new connection
+    private Properties pragmas(String synchronous) {
+        Properties p = new Properties();
+        p.setProperty("journal_mode", journalMode);
+        p.setProperty("synchronous", synchronous);
+        p.setProperty("cache_size", Long.toString(cacheSize));
+        p.setProperty("mmap_size", Long.toString(mmapSize));
+        p.setProperty("busy_timeout", Integer.toString(busyTimeout));
+        p.setProperty("temp_store", "MEMORY");
+        return p;
+    }
+}
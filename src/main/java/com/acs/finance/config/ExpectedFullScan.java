@@ -0,0 +1,15 @@
+package com.acs.finance.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a JDBC repository SQL constant that reads a whole table on purpose (e.g. a full rebuild).
+ * {@link QueryPlanAuditConfig} still explains it, but its scans are not reported as violations.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpectedFullScan {
+}
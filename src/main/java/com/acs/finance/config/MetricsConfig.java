@@ -0,0 +1,23 @@
+package com.acs.finance.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics not covered by auto-configuration. Controller endpoints ({@code http.server.requests})
+ * and Spring Data repositories ({@code spring.data.repository.invocations}) are timed by Spring
+ * Boot; the JDBC repositories are timed through {@code @Timed} on the class, which needs
+ * {@link TimedAspect}. Everything is scraped from {@code /actuator/prometheus} on the management port.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String REPOSITORY_TIMER = "fintrack.repository.invocations";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
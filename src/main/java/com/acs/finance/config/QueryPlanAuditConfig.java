@@ -0,0 +1,157 @@
+package com.acs.finance.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Enables {@link QueryPlanAuditor} when {@code fintrack.db.plan-audit.enabled=true}.
+ * <p>
+ * At startup every repository method annotated with {@link Query} is invoked once with placeholder
+ * arguments inside a rolled-back transaction, so each query's SQL passes through the auditor
+ * before the application takes traffic. JDBC repositories bypass Hibernate, so their
+ * {@code static final String} SQL constants are explained directly; constants marked
+ * {@link ExpectedFullScan} may scan, but must still explain.
+ */
+@Configuration
+@ConditionalOnProperty(name = "fintrack.db.plan-audit.enabled", havingValue = "true")
+@Slf4j
+public class QueryPlanAuditConfig {
+
+    private static final String REPOSITORY_PACKAGE = "com.acs.finance.repository";
+
+    @Bean
+    public QueryPlanAuditor queryPlanAuditor(
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${fintrack.db.plan-audit.fail-on-scan:true}") boolean failOnScan) {
+        return new QueryPlanAuditor(jdbcUrl, failOnScan);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryPlanAuditCustomizer(QueryPlanAuditor auditor) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, auditor);
+    }
+
+    @Bean
+    public ApplicationRunner repositoryQueryPlanAudit(ApplicationContext context,
+                                                      PlatformTransactionManager transactionManager,
+                                                      QueryPlanAuditor auditor,
+                                                      @Value("${fintrack.db.plan-audit.fail-on-scan:true}") boolean failOnScan) {
+        return args -> {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            int invoked = 0;
+
+            for (Repository<?, ?> repository : context.getBeansOfType(Repository.class).values()) {
+                for (Class<?> iface : AopProxyUtils.proxiedUserInterfaces(repository)) {
+                    if (!iface.getPackageName().equals(REPOSITORY_PACKAGE)) continue;
+
+                    for (Method method : iface.getDeclaredMethods()) {
+                        if (!method.isAnnotationPresent(Query.class)) continue;
+                        invoked++;
+                        tx.executeWithoutResult(status -> {
+                            status.setRollbackOnly();
+                            try {
+                                method.invoke(repository, placeholderArgs(method));
+                            } catch (InvocationTargetException e) {
+                                // The SQL has already been inspected by the time execution fails
+                                log.warn("Plan audit: {}.{} failed to execute: {}",
+                                        iface.getSimpleName(), method.getName(), e.getTargetException().getMessage());
+                            } catch (IllegalAccessException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        });
+                    }
+                }
+            }
+
+            int constants = 0;
+            for (Object repository : context.getBeansWithAnnotation(
+                    org.springframework.stereotype.Repository.class).values()) {
+                Class<?> type = ClassUtils.getUserClass(repository);
+                if (!type.getPackageName().equals(REPOSITORY_PACKAGE)) continue;
+
+                for (Field field : sqlConstants(type)) {
+                    constants++;
+                    String sql = constantValue(field);
+                    if (field.isAnnotationPresent(ExpectedFullScan.class)) {
+                        auditor.inspectExpectingFullScan(sql);
+                    } else {
+                        auditor.inspect(sql);
+                    }
+                }
+            }
+
+            log.info("Plan audit: {} repository queries exercised, {} JDBC constants checked, "
+                            + "{} distinct statements explained, {} violations",
+                    invoked, constants, auditor.auditedStatements(), auditor.violations().size());
+            if (failOnScan && !auditor.violations().isEmpty()) {
+                throw new IllegalStateException("Query plan audit failed: " + auditor.violations());
+            }
+            auditor.enforce();
+        };
+    }
+
+    // Non-SQL constants (e.g. "") are skipped by the auditor itself
+    private static List<Field> sqlConstants(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (field.getType() == String.class && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static String constantValue(Field field) {
+        try {
+            field.setAccessible(true);
+            return (String) field.get(null);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object[] placeholderArgs(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            args[i] = placeholder(types[i]);
+        }
+        return args;
+    }
+
+    private static Object placeholder(Class<?> type) {
+        if (type == String.class) return "";
+        if (type == long.class || type == Long.class) return 0L;
+        if (type == int.class || type == Integer.class) return 0;
+        if (type == double.class || type == Double.class) return 0.0;
+        if (type == boolean.class || type == Boolean.class) return false;
+        if (type == BigDecimal.class) return BigDecimal.ZERO;
+        if (type == Limit.class) return Limit.of(1);
+        if (Collection.class.isAssignableFrom(type)) return List.of("");
+        return null;
+    }
+}
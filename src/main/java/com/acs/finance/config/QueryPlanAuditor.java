@@ -0,0 +1,144 @@
+package com.acs.finance.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs {@code EXPLAIN QUERY PLAN} for every distinct statement Hibernate prepares (and every SQL
+ * constant of the JDBC repositories, see {@link QueryPlanAuditConfig}) and records full table
+ * and index scans. A statement that cannot be explained is recorded too: its plan is unknown.
+ * Uses its own JDBC connection so it never competes with the application pool.
+ */
+@Slf4j
+public class QueryPlanAuditor implements StatementInspector {
+
+    public record Violation(String sql, List<String> plan) {
+    }
+
+    private final String jdbcUrl;
+    private final boolean failOnScan;
+    // Off during the startup sweep so that all violations are reported together
+    private volatile boolean enforcing;
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final List<Violation> violations = new CopyOnWriteArrayList<>();
+    // Not synchronized: a virtual thread blocked on JDBC inside a monitor would pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private Connection connection;
+
+    public QueryPlanAuditor(String jdbcUrl, boolean failOnScan) {
+        this.jdbcUrl = jdbcUrl;
+        this.failOnScan = failOnScan;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sql != null && isAuditable(sql) && seen.add(sql)) {
+            Violation v = audit(sql, false);
+            if (v != null && failOnScan && enforcing) {
+                throw new IllegalStateException("Query plan audit failed: " + v.plan() + " for: " + sql);
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Explains a statement that scans a whole table by design ({@link ExpectedFullScan}): only a
+     * failure to explain it is recorded.
+     */
+    public void inspectExpectingFullScan(String sql) {
+        if (isAuditable(sql) && seen.add(sql)) {
+            audit(sql, true);
+        }
+    }
+
+    /**
+     * From now on a statement whose plan contains a full scan fails (if fail-on-scan is set).
+     */
+    public void enforce() {
+        this.enforcing = true;
+    }
+
+    public List<Violation> violations() {
+        return List.copyOf(violations);
+    }
+
+    public int auditedStatements() {
+        return seen.size();
+    }
+
+    Violation audit(String sql, boolean scanExpected) {
+        List<String> plan = new ArrayList<>();
+        lock.lock();
+        try {
+            if (connection == null || connection.isClosed()) {
+                connection = DriverManager.getConnection(jdbcUrl);
+            }
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+                // Bound values do not affect the plan shape, NULL is enough
+                int params = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= params; i++) {
+                    ps.setNull(i, Types.NULL);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.add(rs.getString("detail"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // Broken SQL or a missing table would otherwise pass the audit unnoticed
+            Violation v = new Violation(sql, List.of("EXPLAIN failed: " + e.getMessage()));
+            violations.add(v);
+            log.error("Could not explain statement: {} ({})", sql, e.getMessage());
+            return v;
+        } finally {
+            lock.unlock();
+        }
+
+        if (scanExpected) {
+            log.info("Query plan (full scan expected): {} -> {}", sql, plan);
+            return null;
+        }
+        for (String step : plan) {
+            if (isFullScan(step)) {
+                Violation v = new Violation(sql, plan);
+                violations.add(v);
+                log.error("Query plan uses a full table scan: {}\n  plan: {}", sql, plan);
+                return v;
+            }
+        }
+        log.debug("Query plan OK: {} -> {}", sql, plan);
+        return null;
+    }
+
+    private static boolean isAuditable(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("update") || head.startsWith("delete")
+                || head.startsWith("with")
+                // INSERT ... SELECT reads like a query; INSERT ... VALUES has no plan worth checking
+                || head.startsWith("insert") && head.contains(" select ");
+    }
+
+    // Only SEARCH steps look rows up. "SCAN t1_0 USING INDEX i" and "... USING COVERING INDEX i" still
+    // walk every entry of the index, so any SCAN counts except a rowid lookup and a constant row
+    private static boolean isFullScan(String step) {
+        return step != null
+                && step.startsWith("SCAN ")
+                && !step.contains(" USING INTEGER PRIMARY KEY")
+                && !step.equals("SCAN CONSTANT ROW");
+    }
+}
@@ -0,0 +1,67 @@
+package com.acs.finance.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Hands static files to Tomcat's sendfile instead of copying them through the servlet stream, so
+ * the kernel moves file pages straight to the socket. Headers are written as usual; only the body
+ * copy is skipped.
+ * <p>
+ * Tomcat disables its own compression for sendfile responses, so only bodies that are already
+ * encoded (a {@code .br}/{@code .gz} variant) or not worth compressing (images, fonts) go this way;
+ * plain text still streams and can be compressed on the fly.
+ */
+class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    private static final String SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final long minSize;
+
+    SendfileResourceHttpMessageConverter(long minSize) {
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+        HttpServletRequest request = currentRequest();
+        if (request != null && Boolean.TRUE.equals(request.getAttribute(SUPPORT_ATTR)) && resource.isFile()
+                && !compressible(outputMessage.getHeaders())) {
+            File file = resource.getFile();
+            long length = file.length();
+            if (length >= minSize) {
+                request.setAttribute(FILENAME_ATTR, file.getCanonicalPath());
+                request.setAttribute(START_ATTR, 0L);
+                request.setAttribute(END_ATTR, length);
+                return;
+            }
+        }
+        super.writeContent(resource, outputMessage);
+    }
+
+    private static boolean compressible(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) return false;
+        MediaType type = headers.getContentType();
+        if (type == null) return false;
+        String subtype = type.getSubtype();
+        return "text".equals(type.getType()) || subtype.contains("javascript") || subtype.contains("json")
+                || subtype.contains("xml");
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest() : null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.acs.finance.config;
+
+import com.acs.finance.entity.User;
+import com.acs.finance.service.AuthService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resolves the {@code SID} cookie to its user once per {@code /api} request and stores both as
+ * request attributes, read by {@code BaseController}. It never rejects a request: endpoints that
+ * need a user still answer 401 themselves.
+ */
+@Component
+public class SessionFilter extends OncePerRequestFilter {
+
+    public static final String SESSION_ID_ATTRIBUTE = SessionFilter.class.getName() + ".sid";
+    public static final String USER_ATTRIBUTE = SessionFilter.class.getName() + ".user";
+
+    private final AuthService authService;
+
+    public SessionFilter(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String sid = sessionId(request);
+        if (sid != null) {
+            request.setAttribute(SESSION_ID_ATTRIBUTE, sid);
+            User user = authService.getUserBySession(sid);
+            if (user != null) {
+                request.setAttribute(USER_ATTRIBUTE, user);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String sessionId(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+
+        for (Cookie cookie : cookies) {
+            if ("SID".equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -1,19 +1,41 @@
 package com.acs.finance.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.time.Duration;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private static final String[] LOCATIONS = {"file:web/public/", "classpath:/static/"};
+    private static final String[] ASSET_LOCATIONS = {"file:web/public/assets/", "classpath:/static/assets/"};
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serve static files from web/public directory
+        // Vite output: file names carry a content hash, so a URL never changes content. The build
+        // also writes .br/.gz next to each file (web/scripts/precompress.mjs); the resolver picks
+        // the variant matching Accept-Encoding and adds Vary
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations(ASSET_LOCATIONS)
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+
+        // index.html, sw.js, styles.css keep their names: revalidated against Last-Modified on each use
         registry.addResourceHandler("/**")
-                .addResourceLocations("file:web/public/", "classpath:/static/")
-                .setCachePeriod(0);
+                .addResourceLocations(LOCATIONS)
+                .setCacheControl(CacheControl.noCache());
     }
 
     @Override
@@ -24,4 +46,27 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    /**
+     * Static resource handlers are built by the registry, not as beans; this swaps their body
+     * writer for one that uses Tomcat sendfile.
+     */
+    @Bean
+    public static BeanPostProcessor sendfileResourceHandlers(
+            @Value("${fintrack.static.sendfile-min-size:48KB}") DataSize minSize) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractUrlHandlerMapping mapping) {
+                    for (Object handler : mapping.getHandlerMap().values()) {
+                        if (handler instanceof ResourceHttpRequestHandler resources) {
+                            resources.setResourceHttpMessageConverter(
+                                    new SendfileResourceHttpMessageConverter(minSize.toBytes()));
+                        }
+                    }
+                }
+                return bean;
+            }
+        };
+    }
 }
@@ -1,6 +1,9 @@
 package com.acs.finance.controller;
 
 import com.acs.finance.entity.User;
+import com.acs.finance.model.api.ErrorResponse;
+import com.acs.finance.model.api.OkResponse;
+import com.acs.finance.model.api.UserResponse;
 import com.acs.finance.service.AuthService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,8 +12,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
-
 @RestController
 @RequestMapping("/api")
 @Slf4j
@@ -26,10 +27,10 @@ public class AuthController extends BaseController {
         if (user == null) {
             log.warn("Registration failed for username: {}", username);
             return ResponseEntity.badRequest()
-                    .body(Map.of("ok", false, "error", "user_exists_or_bad"));
+                    .body(ErrorResponse.of("user_exists_or_bad"));
         }
         log.info("User registered: {} (id: {})", username, user.getId());
-        return ResponseEntity.ok(Map.of("ok", true));
+        return ResponseEntity.ok(OkResponse.OK);
     }
 
     @PostMapping("/login")
@@ -42,7 +43,7 @@ public class AuthController extends BaseController {
         if (user == null) {
             log.warn("Login failed for username: {}", username);
             return ResponseEntity.badRequest()
-                    .body(Map.of("ok", false, "error", "bad_credentials"));
+                    .body(ErrorResponse.of("bad_credentials"));
         }
         
         String sid = authService.createSession(user.getUsername());
@@ -54,13 +55,7 @@ public class AuthController extends BaseController {
         
         log.info("User logged in: {} (id: {})", username, user.getId());
         
-        return ResponseEntity.ok(Map.of(
-                "ok", true,
-                "user", Map.of(
-                        "id", user.getId(),
-                        "username", user.getUsername()
-                )
-        ));
+        return ResponseEntity.ok(UserResponse.of(user));
     }
 
     @PostMapping("/logout")
@@ -79,22 +74,16 @@ public class AuthController extends BaseController {
             log.info("User logged out: {}", user.getUsername());
         }
         
-        return ResponseEntity.ok(Map.of("ok", true));
+        return ResponseEntity.ok(OkResponse.OK);
     }
 
     @GetMapping("/me")
     public ResponseEntity<?> me(HttpServletRequest request) {
         User user = getUser(request);
         if (user == null) {
-            return ResponseEntity.ok(Map.of("ok", false));
+            return ResponseEntity.ok(OkResponse.NOT_OK);
         }
         
-        return ResponseEntity.ok(Map.of(
-                "ok", true,
-                "user", Map.of(
-                        "id", user.getId(),
-                        "username", user.getUsername()
-                )
-        ));
+        return ResponseEntity.ok(UserResponse.of(user));
     }
 }
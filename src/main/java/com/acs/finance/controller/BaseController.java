@@ -1,33 +1,31 @@
 package com.acs.finance.controller;
 
+import com.acs.finance.config.SessionFilter;
 import com.acs.finance.entity.User;
 import com.acs.finance.exception.UnauthorizedException;
 import com.acs.finance.service.AuthService;
-import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 
 @RequiredArgsConstructor
 public abstract class BaseController {
 
+    /**
+     * For responses with a {@code DataVersionService} ETag: the browser keeps them but revalidates
+     * with {@code If-None-Match} on every use.
+     */
+    protected static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     protected final AuthService authService;
 
+    // Both resolved once per request by SessionFilter
     protected String getSessionId(HttpServletRequest request) {
-        Cookie[] cookies = request.getCookies();
-        if (cookies == null) return null;
-        
-        for (Cookie cookie : cookies) {
-            if ("SID".equals(cookie.getName())) {
-                return cookie.getValue();
-            }
-        }
-        return null;
+        return (String) request.getAttribute(SessionFilter.SESSION_ID_ATTRIBUTE);
     }
 
     protected User getUser(HttpServletRequest request) {
-        String sid = getSessionId(request);
-        if (sid == null) return null;
-        return authService.getUserBySession(sid);
+        return (User) request.getAttribute(SessionFilter.USER_ATTRIBUTE);
     }
 
     protected User requireAuth(HttpServletRequest request) {
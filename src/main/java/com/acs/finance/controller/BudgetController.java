@@ -1,18 +1,27 @@
 package com.acs.finance.controller;
 
 import com.acs.finance.entity.Budget;
+import com.acs.finance.entity.BudgetPeriod;
 import com.acs.finance.entity.User;
+import com.acs.finance.model.api.BudgetItem;
+import com.acs.finance.model.api.BudgetSetResponse;
+import com.acs.finance.model.api.ErrorResponse;
+import com.acs.finance.model.api.ItemsResponse;
+import com.acs.finance.model.api.MappedList;
+import com.acs.finance.model.api.OkResponse;
 import com.acs.finance.service.AuthService;
 import com.acs.finance.service.FinanceService;
+import com.acs.finance.service.DataVersionService;
 import com.acs.finance.service.SseService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -21,44 +30,44 @@ public class BudgetController extends BaseController {
 
     private final FinanceService financeService;
     private final SseService sseService;
+    private final DataVersionService dataVersions;
 
-    public BudgetController(AuthService authService, FinanceService financeService, SseService sseService) {
+    public BudgetController(AuthService authService, FinanceService financeService, SseService sseService,
+                            DataVersionService dataVersions) {
         super(authService);
         this.financeService = financeService;
         this.sseService = sseService;
+        this.dataVersions = dataVersions;
     }
 
     @PostMapping("/budget/set")
     public ResponseEntity<?> set(
             @RequestParam String category,
             @RequestParam(defaultValue = "0") double limit,
+            @RequestParam(required = false) String period,
             HttpServletRequest request) {
         
         User user = requireAuth(request);
-        Budget budget = financeService.setBudget(user.getId(), category, limit);
+        Budget budget = financeService.setBudget(user.getId(), category, limit, BudgetPeriod.parse(period));
         
-        sseService.send(getSessionId(request), "{\"type\":\"budget-update\"}");
+        sseService.refresh(getSessionId(request), EnumSet.of(SseService.Refresh.BUDGETS));
         
-        return ResponseEntity.ok(Map.of(
-                "ok", true,
-                "category", category,
-                "limit", budget.getLimitAsDouble()
-        ));
+        return ResponseEntity.ok(new BudgetSetResponse(true, category, budget.getLimitAsDouble(),
+                budget.getPeriod().name(), FinanceService.round2(budget.getSpentAsDouble())));
     }
 
     @GetMapping("/budget")
-    public ResponseEntity<?> get(HttpServletRequest request) {
+    public ResponseEntity<?> get(HttpServletRequest request, WebRequest webRequest) {
         User user = requireAuth(request);
+        // Spent is for the current period, so the tag also changes with the day
+        if (webRequest.checkNotModified(dataVersions.userTag(user.getId(), LocalDate.now()))) {
+            return null;
+        }
         List<Budget> budgets = financeService.getBudgets(user.getId());
         
-        List<Map<String, Object>> items = budgets.stream()
-                .map(b -> Map.<String, Object>of(
-                        "category", b.getCategory(),
-                        "limit", FinanceService.round2(b.getLimitAsDouble()),
-                        "spent", FinanceService.round2(b.getSpentAsDouble())))
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(Map.of("items", items));
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(new ItemsResponse<>(MappedList.of(budgets, BudgetItem::of)));
     }
 
     @PostMapping("/budget/delete")
@@ -66,12 +75,12 @@ public class BudgetController extends BaseController {
         User user = requireAuth(request);
         
         if (category == null || category.isBlank()) {
-            return ResponseEntity.badRequest().body(Map.of("ok", false, "error", "no_category"));
+            return ResponseEntity.badRequest().body(ErrorResponse.of("no_category"));
         }
         
         financeService.deleteBudget(user.getId(), category);
-        sseService.send(getSessionId(request), "{\"type\":\"budget-update\"}");
+        sseService.refresh(getSessionId(request), EnumSet.of(SseService.Refresh.BUDGETS));
         
-        return ResponseEntity.ok(Map.of("ok", true));
+        return ResponseEntity.ok(OkResponse.OK);
     }
 }
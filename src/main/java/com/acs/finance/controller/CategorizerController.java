@@ -1,5 +1,6 @@
 package com.acs.finance.controller;
 
+import com.acs.finance.model.api.CategorySuggestion;
 import com.acs.finance.service.AuthService;
 import com.acs.finance.service.AutoCategorizerService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,9 +8,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 @RestController
 @RequestMapping("/api")
 @Slf4j
@@ -30,8 +28,6 @@ public class CategorizerController extends BaseController {
         requireAuth(request);
         String category = categorizer.categorize(desc);
         
-        Map<String, Object> response = new LinkedHashMap<>();
-        response.put("category", category); // null will be serialized as JSON null
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new CategorySuggestion(category));
     }
 }
@@ -1,9 +1,14 @@
 package com.acs.finance.controller;
 
-import com.acs.finance.model.CurrencyRates;
+import com.acs.finance.model.ConvertBatchRequest;
+import com.acs.finance.model.api.ConvertBatchResponse;
+import com.acs.finance.model.api.ConvertResponse;
+import com.acs.finance.model.api.ErrorResponse;
+import com.acs.finance.model.api.RatesResponse;
 import com.acs.finance.service.CurrencyService;
 import com.acs.finance.service.FinanceService;
-import lombok.RequiredArgsConstructor;
+import com.acs.finance.service.rates.RatesSnapshot;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,41 +16,40 @@ import java.util.*;
 
 @RestController
 @RequestMapping("/api")
-@RequiredArgsConstructor
 public class CurrencyController {
 
+    private static final List<String> DEFAULT_SYMBOLS = List.of("USD", "EUR", "RUB", "MDL");
+
     private final CurrencyService currencyService;
+    private final int batchMaxSize;
+
+    public CurrencyController(CurrencyService currencyService,
+                              @Value("${fintrack.currency.batch-max-size:10000}") int batchMaxSize) {
+        this.currencyService = currencyService;
+        this.batchMaxSize = batchMaxSize;
+    }
 
     @GetMapping("/currency")
     public ResponseEntity<?> rates(
             @RequestParam(defaultValue = "MDL") String base,
             @RequestParam(required = false) String symbols) {
         
-        CurrencyRates rates = currencyService.getRates();
-        
-        Map<String, Double> mdlMap = new HashMap<>(rates.getRates());
-        mdlMap.put("MDL", 1.0);
+        RatesSnapshot rates = currencyService.snapshot();
+        int baseSlot = rates.slot(base);
         
         List<String> symbolList = (symbols == null || symbols.isBlank()) 
-                ? List.of("USD", "EUR", "RUB", "MDL")
+                ? DEFAULT_SYMBOLS
                 : Arrays.asList(symbols.split(","));
         
         Map<String, Double> result = new LinkedHashMap<>();
         for (String sym : symbolList) {
-            if (!mdlMap.containsKey(sym)) continue;
-            
-            double rate;
-            if (base.equals("MDL")) {
-                rate = mdlMap.get(sym);
-            } else {
-                Double b = mdlMap.get(base);
-                if (b == null || b == 0.0) continue;
-                rate = mdlMap.get(sym) / b;
-            }
-            result.put(sym, FinanceService.round2(rate));
+            int slot = rates.slot(sym);
+            double rate = rates.rate(baseSlot, slot);
+            if (Double.isNaN(rate)) continue;
+            result.put(rates.code(slot), FinanceService.round2(rate));
         }
         
-        return ResponseEntity.ok(Map.of("base", base, "rates", result));
+        return ResponseEntity.ok(new RatesResponse(base, result, !currencyService.isFresh(rates)));
     }
 
     @GetMapping("/currency/convert")
@@ -59,15 +63,32 @@ public class CurrencyController {
         
         if (Double.isNaN(result)) {
             return ResponseEntity.badRequest()
-                    .body(Map.of("ok", false, "error", "bad_currency"));
+                    .body(ErrorResponse.of("bad_currency"));
+        }
+        
+        return ResponseEntity.ok(new ConvertResponse(true, from.toUpperCase(), to.toUpperCase(),
+                FinanceService.round2(amount), FinanceService.round2(result)));
+    }
+
+    /**
+     * Converts many amounts of one currency pair with a single rate lookup. Results are written
+     * back into the request's {@code double[]}, in the same order.
+     */
+    @PostMapping("/currency/convert/batch")
+    public ResponseEntity<?> convertBatch(@RequestBody ConvertBatchRequest body) {
+        String from = body.from() != null ? body.from() : "USD";
+        String to = body.to() != null ? body.to() : "MDL";
+        double[] amounts = body.amounts() != null ? body.amounts() : new double[0];
+        
+        if (amounts.length > batchMaxSize) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorResponse.tooLarge("batch_too_large", batchMaxSize));
+        }
+        if (!currencyService.convertAll(from, to, body.date(), amounts)) {
+            return ResponseEntity.badRequest()
+                    .body(ErrorResponse.of("bad_currency"));
         }
         
-        return ResponseEntity.ok(Map.of(
-                "ok", true,
-                "from", from.toUpperCase(),
-                "to", to.toUpperCase(),
-                "amount", FinanceService.round2(amount),
-                "result", FinanceService.round2(result)
-        ));
+        return ResponseEntity.ok(new ConvertBatchResponse(true, from.toUpperCase(), to.toUpperCase(), amounts));
     }
 }
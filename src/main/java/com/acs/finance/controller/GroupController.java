@@ -1,22 +1,30 @@
 package com.acs.finance.controller;
 
-import com.acs.finance.entity.Budget;
 import com.acs.finance.entity.Group;
-import com.acs.finance.entity.Transaction;
 import com.acs.finance.entity.User;
+import com.acs.finance.model.PeerTotal;
+import com.acs.finance.model.api.ErrorResponse;
+import com.acs.finance.model.api.GroupCreatedResponse;
+import com.acs.finance.model.api.GroupMembershipResponse;
+import com.acs.finance.model.api.ItemsResponse;
+import com.acs.finance.model.api.OkResponse;
+import com.acs.finance.model.api.PeerItem;
 import com.acs.finance.service.AuthService;
+import com.acs.finance.service.DataVersionService;
 import com.acs.finance.service.FinanceService;
+import com.acs.finance.service.GroupBudgetService;
 import com.acs.finance.service.GroupService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/group")
@@ -25,11 +33,16 @@ public class GroupController extends BaseController {
 
     private final GroupService groupService;
     private final FinanceService financeService;
+    private final GroupBudgetService groupBudgetService;
+    private final DataVersionService dataVersions;
 
-    public GroupController(AuthService authService, GroupService groupService, FinanceService financeService) {
+    public GroupController(AuthService authService, GroupService groupService, FinanceService financeService,
+                           GroupBudgetService groupBudgetService, DataVersionService dataVersions) {
         super(authService);
         this.groupService = groupService;
         this.financeService = financeService;
+        this.groupBudgetService = groupBudgetService;
+        this.dataVersions = dataVersions;
     }
 
     @PostMapping("/create")
@@ -41,11 +54,7 @@ public class GroupController extends BaseController {
         Group group = groupService.create(name);
         groupService.join(user.getId(), group.getId(), 1.0);
         
-        return ResponseEntity.ok(Map.of(
-                "ok", true,
-                "groupId", group.getId(),
-                "name", group.getName()
-        ));
+        return ResponseEntity.ok(new GroupCreatedResponse(true, group.getId(), group.getName()));
     }
 
     @PostMapping("/join")
@@ -58,49 +67,37 @@ public class GroupController extends BaseController {
         String normalizedGroupId = normalizeGroupId(groupId);
         if (normalizedGroupId == null || normalizedGroupId.isBlank()) {
             return ResponseEntity.badRequest()
-                    .body(Map.of("ok", false, "error", "no_group"));
+                    .body(ErrorResponse.of("no_group"));
         }
         Group group = groupService.join(user.getId(), normalizedGroupId, share);
         
         if (group == null) {
             return ResponseEntity.badRequest()
-                    .body(Map.of("ok", false, "error", "no_group"));
+                    .body(ErrorResponse.of("no_group"));
         }
         
-        return ResponseEntity.ok(Map.of("ok", true));
+        return ResponseEntity.ok(OkResponse.OK);
     }
 
     @GetMapping("/budget")
-    public ResponseEntity<?> budget(HttpServletRequest request) {
+    public ResponseEntity<?> budget(HttpServletRequest request, WebRequest webRequest) {
         User user = requireAuth(request);
-        String groupId = groupService.userGroupId(user.getId());
-        
+        // Members of an already loaded group are resolved in memory, others need the lookup
+        String groupId = groupBudgetService.knownGroupOf(user.getId());
         if (groupId == null) {
-            return ResponseEntity.ok(Map.of("items", List.of()));
+            groupId = groupService.userGroupId(user.getId());
         }
         
-        Map<String, Double> members = groupService.members(groupId);
-        Map<String, double[]> agg = new HashMap<>();
-        
-        for (Map.Entry<String, Double> entry : members.entrySet()) {
-            String memberId = entry.getKey();
-            double share = entry.getValue();
-            
-            for (Budget b : financeService.getBudgets(memberId)) {
-                double[] arr = agg.computeIfAbsent(b.getCategory(), k -> new double[]{0, 0});
-                arr[0] += b.getLimitAsDouble() * share;
-                arr[1] += b.getSpentAsDouble() * share;
-            }
+        if (groupId == null) {
+            return ResponseEntity.ok(ItemsResponse.empty());
+        }
+        if (webRequest.checkNotModified(dataVersions.groupTag(groupId, LocalDate.now()))) {
+            return null;
         }
         
-        List<Map<String, Object>> items = agg.entrySet().stream()
-                .map(e -> Map.<String, Object>of(
-                        "category", e.getKey(),
-                        "limit", FinanceService.round2(e.getValue()[0]),
-                        "spent", FinanceService.round2(e.getValue()[1])))
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(Map.of("items", items));
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(new ItemsResponse<>(groupBudgetService.budget(groupId)));
     }
 
     @GetMapping("/peers")
@@ -113,68 +110,41 @@ public class GroupController extends BaseController {
         String groupId = groupService.userGroupId(user.getId());
         
         if (groupId == null) {
-            return ResponseEntity.ok(Map.of("items", List.of()));
+            return ResponseEntity.ok(ItemsResponse.empty());
         }
         
         LocalDate fromDate = (from != null && !from.isBlank()) ? LocalDate.parse(from) : null;
         LocalDate toDate = (to != null && !to.isBlank()) ? LocalDate.parse(to) : null;
         
-        Map<String, Double> members = groupService.members(groupId);
-        if (members == null || members.isEmpty()) {
-            return ResponseEntity.ok(Map.of("items", List.of()));
-        }
+        List<PeerItem> items = new ArrayList<>();
         
-        List<Map<String, Object>> items = new ArrayList<>();
-        
-        for (Map.Entry<String, Double> e : members.entrySet()) {
-            String memberId = e.getKey();
+        for (PeerTotal peer : financeService.groupPeerTotals(groupId, fromDate, toDate)) {
+            String memberId = peer.userId();
             if (memberId == null || memberId.trim().isEmpty()) continue;
             
-            try {
-                List<Transaction> list = financeService.listTransactions(memberId, fromDate, toDate, null);
-                double income = 0.0, expense = 0.0;
-                
-                for (Transaction t : list) {
-                    if (t.getAmountAsDouble() > 0) {
-                        income += t.getAmountAsDouble();
-                    } else {
-                        expense += -t.getAmountAsDouble();
-                    }
-                }
-                
-                User memberUser = authService.getUserById(memberId);
-                String username;
-                if (memberUser != null) {
-                    username = memberUser.getUsername();
-                } else {
-                    log.warn("User not found in cache for memberId: {}", memberId);
-                    username = memberId.length() > 8 ? memberId.substring(0, 8) + "..." : memberId;
-                }
-                
-                if (username == null || username.isEmpty()) {
-                    username = "Пользователь";
-                }
-                
-                Map<String, Object> item = new LinkedHashMap<>();
-                item.put("userId", memberId);
-                item.put("username", username);
-                item.put("income", FinanceService.round2(income));
-                item.put("expense", FinanceService.round2(expense));
-                items.add(item);
-                
-            } catch (Exception err) {
-                log.warn("Error processing member {}: {}", memberId, err.getMessage());
+            String username = peer.username();
+            if (username == null) {
+                log.warn("User not found for memberId: {}", memberId);
+                username = memberId.length() > 8 ? memberId.substring(0, 8) + "..." : memberId;
+            }
+            
+            if (username.isEmpty()) {
+                username = "Пользователь";
             }
+            
+            items.add(new PeerItem(memberId, username,
+                    FinanceService.round2(peer.income()),
+                    FinanceService.round2(peer.expense())));
         }
         
-        return ResponseEntity.ok(Map.of("items", items));
+        return ResponseEntity.ok(new ItemsResponse<>(items));
     }
 
     @PostMapping("/leave")
     public ResponseEntity<?> leave(HttpServletRequest request) {
         User user = requireAuth(request);
         groupService.leave(user.getId());
-        return ResponseEntity.ok(Map.of("ok", true));
+        return ResponseEntity.ok(OkResponse.OK);
     }
 
     @GetMapping("/me")
@@ -183,19 +153,15 @@ public class GroupController extends BaseController {
         String groupId = groupService.userGroupId(user.getId());
         
         if (groupId == null) {
-            return ResponseEntity.ok(Map.of("ok", false));
+            return ResponseEntity.ok(OkResponse.NOT_OK);
         }
         
         Double share = groupService.myShare(user.getId());
         String groupName = groupService.getName(groupId);
         if (groupName == null) groupName = "Группа";
         
-        return ResponseEntity.ok(Map.of(
-                "ok", true,
-                "groupId", groupId,
-                "groupName", groupName,
-                "share", share != null ? FinanceService.round2(share) : 0.0
-        ));
+        return ResponseEntity.ok(new GroupMembershipResponse(true, groupId, groupName,
+                share != null ? FinanceService.round2(share) : 0.0));
     }
 
     private String normalizeGroupId(String groupId) {
@@ -2,18 +2,21 @@ package com.acs.finance.controller;
 
 import com.acs.finance.entity.Reminder;
 import com.acs.finance.entity.User;
+import com.acs.finance.model.api.ItemsResponse;
+import com.acs.finance.model.api.MappedList;
+import com.acs.finance.model.api.OkResponse;
+import com.acs.finance.model.api.ReminderItem;
 import com.acs.finance.service.AuthService;
+import com.acs.finance.service.DataVersionService;
 import com.acs.finance.service.FinanceService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -21,10 +24,13 @@ import java.util.stream.Collectors;
 public class ReminderController extends BaseController {
 
     private final FinanceService financeService;
+    private final DataVersionService dataVersions;
 
-    public ReminderController(AuthService authService, FinanceService financeService) {
+    public ReminderController(AuthService authService, FinanceService financeService,
+                              DataVersionService dataVersions) {
         super(authService);
         this.financeService = financeService;
+        this.dataVersions = dataVersions;
     }
 
     @PostMapping("/reminder/add")
@@ -39,26 +45,19 @@ public class ReminderController extends BaseController {
         
         financeService.addReminder(user.getId(), due, message, amount);
         
-        return ResponseEntity.ok(Map.of("ok", true));
+        return ResponseEntity.ok(OkResponse.OK);
     }
 
     @GetMapping("/reminders")
-    public ResponseEntity<?> list(HttpServletRequest request) {
+    public ResponseEntity<?> list(HttpServletRequest request, WebRequest webRequest) {
         User user = requireAuth(request);
+        if (webRequest.checkNotModified(dataVersions.userTag(user.getId()))) {
+            return null;
+        }
         List<Reminder> reminders = financeService.getReminders(user.getId());
         
-        List<Map<String, Object>> items = reminders.stream()
-                .map(r -> {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("id", r.getId());
-                    item.put("date", LocalDate.ofEpochDay(r.getDueEpochDay()).toString());
-                    item.put("message", r.getMessage());
-                    item.put("amount", r.getAmountAsDouble() != null
-                            ? FinanceService.round2(r.getAmountAsDouble()) : null);
-                    return item;
-                })
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(Map.of("items", items));
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(new ItemsResponse<>(MappedList.of(reminders, ReminderItem::of)));
     }
 }
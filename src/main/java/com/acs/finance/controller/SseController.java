@@ -1,6 +1,7 @@
 package com.acs.finance.controller;
 
 import com.acs.finance.entity.User;
+import com.acs.finance.model.api.ErrorResponse;
 import com.acs.finance.service.AuthService;
 import com.acs.finance.service.SseService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,8 +11,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Map;
-
 @RestController
 @RequestMapping("/api")
 @Slf4j
@@ -27,18 +26,18 @@ public class SseController extends BaseController {
     @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Object events(HttpServletRequest request) {
         String sid = getSessionId(request);
-        User user = sid != null ? authService.getUserBySession(sid) : null;
+        User user = getUser(request);
         
         if (sid == null || user == null) {
             log.warn("SSE connection rejected: unauthorized");
             return ResponseEntity.status(401)
                     .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("error", "unauthorized"));
+                    .body(ErrorResponse.of("unauthorized"));
         }
         
         log.info("SSE connection established: user={}, session={}...", 
                 user.getUsername(), sid.substring(0, Math.min(8, sid.length())));
         
-        return sseService.register(sid);
+        return sseService.register(sid, user.getId());
     }
 }
@@ -0,0 +1,75 @@
+package com.acs.finance.controller;
+
+import com.acs.finance.entity.User;
+import com.acs.finance.model.SummaryReport;
+import com.acs.finance.model.SummaryTotal;
+import com.acs.finance.model.api.MappedList;
+import com.acs.finance.model.api.SummaryResponse;
+import com.acs.finance.service.AuthService;
+import com.acs.finance.service.SummaryService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/api/summary")
+@Slf4j
+public class SummaryController extends BaseController {
+
+    private final SummaryService summaryService;
+
+    public SummaryController(AuthService authService, SummaryService summaryService) {
+        super(authService);
+        this.summaryService = summaryService;
+    }
+
+    @GetMapping("/monthly")
+    public ResponseEntity<?> monthly(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String currency,
+            HttpServletRequest request) {
+        
+        User user = requireAuth(request);
+        return respond(summaryService.monthly(user.getId(), parseDate(from), parseDate(to), currency),
+                SummaryResponse.Month::of);
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<?> daily(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String currency,
+            HttpServletRequest request) {
+        
+        User user = requireAuth(request);
+        return respond(summaryService.daily(user.getId(), parseDate(from), parseDate(to), currency),
+                SummaryResponse.Day::of);
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<?> categories(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String currency,
+            HttpServletRequest request) {
+        
+        User user = requireAuth(request);
+        return respond(summaryService.categories(user.getId(), parseDate(from), parseDate(to), currency),
+                SummaryResponse.Category::of);
+    }
+
+    private static <T> ResponseEntity<SummaryResponse<T>> respond(SummaryReport report,
+                                                                  Function<SummaryTotal, T> item) {
+        return ResponseEntity.ok(new SummaryResponse<>(report.currency(), report.exact(),
+                MappedList.of(report.items(), item)));
+    }
+
+    private static LocalDate parseDate(String value) {
+        return (value != null && !value.isBlank()) ? LocalDate.parse(value) : null;
+    }
+}
@@ -1,38 +1,77 @@
 package com.acs.finance.controller;
 
-import com.acs.finance.entity.Budget;
 import com.acs.finance.entity.Transaction;
 import com.acs.finance.entity.User;
+import com.acs.finance.model.BudgetStatus;
+import com.acs.finance.model.ImportResult;
+import com.acs.finance.model.TransactionAdded;
+import com.acs.finance.model.TransactionCursor;
+import com.acs.finance.model.TransactionPage;
+import com.acs.finance.model.api.ErrorResponse;
+import com.acs.finance.model.api.ImportResponse;
+import com.acs.finance.model.api.OkResponse;
+import com.acs.finance.model.api.TransactionCreatedResponse;
+import com.acs.finance.model.api.TransactionListResponse;
 import com.acs.finance.service.AuthService;
 import com.acs.finance.service.AutoCategorizerService;
+import com.acs.finance.service.CurrencyService;
+import com.acs.finance.service.DataVersionService;
 import com.acs.finance.service.FinanceService;
 import com.acs.finance.service.SseService;
+import com.acs.finance.service.StatementImportService;
+import com.acs.finance.service.importer.StatementFormat;
+import com.acs.finance.service.rates.RateConverter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api")
 @Slf4j
 public class TransactionController extends BaseController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final Set<SseService.Refresh> TRANSACTIONS_AND_BUDGETS =
+            EnumSet.of(SseService.Refresh.TRANSACTIONS, SseService.Refresh.BUDGETS);
+
     private final FinanceService financeService;
     private final SseService sseService;
     private final AutoCategorizerService categorizer;
+    private final StatementImportService importService;
+    private final ObjectMapper objectMapper;
+    private final CurrencyService currencyService;
+    private final DataVersionService dataVersions;
 
     public TransactionController(AuthService authService, FinanceService financeService,
-                                  SseService sseService, AutoCategorizerService categorizer) {
+                                  SseService sseService, AutoCategorizerService categorizer,
+                                  StatementImportService importService, ObjectMapper objectMapper,
+                                  CurrencyService currencyService, DataVersionService dataVersions) {
         super(authService);
         this.financeService = financeService;
         this.sseService = sseService;
         this.categorizer = categorizer;
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+        this.currencyService = currencyService;
+        this.dataVersions = dataVersions;
     }
 
     @PostMapping("/transaction/add")
@@ -41,6 +80,7 @@ public class TransactionController extends BaseController {
             @RequestParam(defaultValue = "0") double amount,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String description,
+            @RequestParam(required = false) String currency,
             HttpServletRequest request) {
         
         User user = requireAuth(request);
@@ -53,59 +93,170 @@ public class TransactionController extends BaseController {
             cat = categorizer.categorize(desc);
         }
         
-        Transaction tx = financeService.addTransaction(user.getId(), localDate, cat, desc, amount);
+        TransactionAdded added = financeService.addTransaction(user.getId(), localDate, cat, desc, amount, currency);
         log.info("Transaction added: user={}, amount={}, category={}, date={}", 
                 user.getUsername(), amount, cat, date);
         
-        String sid = getSessionId(request);
-        sseService.send(sid, "{\"type\":\"tx-added\"}");
-        sseService.send(sid, "{\"type\":\"budget-update\"}");
-        
-        // Alert: budget exceed
-        if (cat != null) {
-            for (Budget b : financeService.getBudgets(user.getId())) {
-                if (b.getCategory().equalsIgnoreCase(cat) && b.getLimitAsDouble() > 0 
-                        && b.getSpentAsDouble() > b.getLimitAsDouble()) {
-                    log.warn("Budget exceeded: user={}, category={}, limit={}, spent={}", 
-                            user.getUsername(), cat, b.getLimitAsDouble(), b.getSpentAsDouble());
-                    sseService.send(sid, "{\"type\":\"alert\",\"message\":\"Превышен бюджет по категории '" 
-                            + escapeJson(cat) + "'\"}");
-                    break;
-                }
-            }
+        // Alert: budget exceed (status comes back from the write itself)
+        List<String> alerts = List.of();
+        BudgetStatus budget = added.budget();
+        if (budget != null && budget.exceeded()) {
+            log.warn("Budget exceeded: user={}, category={}, limit={}, spent={}", 
+                    user.getUsername(), budget.category(), budget.limit(), budget.spent());
+            alerts = List.of(budgetExceeded(budget.category()));
+        }
+        sseService.refresh(getSessionId(request), TRANSACTIONS_AND_BUDGETS, alerts);
+        
+        return ResponseEntity.ok(new TransactionCreatedResponse(true, added.transaction().getId()));
+    }
+
+    /**
+     * Imports a CSV or OFX bank statement. Rows without a category are auto-categorised.
+     * Clients get a single refresh when the whole file has been written.
+     */
+    @PostMapping("/transaction/import")
+    public ResponseEntity<?> importStatement(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "UTF-8") String charset,
+            HttpServletRequest request) throws IOException {
+        
+        User user = requireAuth(request);
+        
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(ErrorResponse.of("empty_file"));
+        }
+        StatementFormat fmt = StatementFormat.detect(format, file.getOriginalFilename());
+        
+        ImportResult result;
+        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), Charset.forName(charset)))) {
+            result = importService.importStatement(user.getId(), reader, fmt);
+        }
+        if (result.imported() > 0) {
+            sseService.refresh(getSessionId(request), TRANSACTIONS_AND_BUDGETS,
+                    exceededBudgetAlerts(result.budgets()));
         }
         
-        return ResponseEntity.ok(Map.of("ok", true, "id", tx.getId()));
+        return ResponseEntity.ok(new ImportResponse(true, result.imported(), result.skipped(), result.errors()));
+    }
+
+    /** One alert per category with any exceeded period bucket among those the import touched. */
+    private static List<String> exceededBudgetAlerts(List<BudgetStatus> budgets) {
+        return budgets.stream()
+                .filter(BudgetStatus::exceeded)
+                .map(BudgetStatus::category)
+                .distinct()
+                .map(TransactionController::budgetExceeded)
+                .toList();
+    }
+
+    private static String budgetExceeded(String category) {
+        return "Превышен бюджет по категории '" + category + "'";
     }
 
+    /**
+     * Without paging parameters returns the whole filtered list (legacy behaviour).
+     * With {@code limit} and/or {@code cursor} returns one keyset page plus {@code nextCursor}.
+     * With {@code stream=true} writes every matching row straight from a JDBC cursor.
+     * With {@code currency} every item also gets {@code converted}: the amount in that currency at
+     * the transaction date's rate (rows come in date order, so rates are looked up once per date).
+     */
     @GetMapping("/transactions")
     public ResponseEntity<?> list(
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to,
             @RequestParam(required = false) String category,
-            HttpServletRequest request) {
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestParam(required = false) String currency,
+            HttpServletRequest request,
+            WebRequest webRequest) {
         
         User user = requireAuth(request);
         
         LocalDate fromDate = (from != null && !from.isBlank()) ? LocalDate.parse(from) : null;
         LocalDate toDate = (to != null && !to.isBlank()) ? LocalDate.parse(to) : null;
         String cat = (category != null && !category.isBlank()) ? category : null;
+        RateConverter converter = null;
+        if (currency != null && !currency.isBlank()) {
+            converter = currencyService.converterTo(currency);
+            if (converter == null) {
+                return ResponseEntity.badRequest().body(ErrorResponse.of("bad_currency"));
+            }
+        }
+        
+        // Converted amounts also move with exchange rates, so only unconverted lists are conditional
+        if (converter == null && webRequest.checkNotModified(dataVersions.userTag(user.getId()))) {
+            return null;
+        }
+        
+        if (stream) {
+            return streamList(user.getId(), fromDate, toDate, cat, converter);
+        }
+        RateConverter conv = converter;
+        
+        if (limit != null || cursor != null) {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            TransactionPage page = financeService.listTransactionsPage(user.getId(), fromDate, toDate, cat,
+                    after, limit != null ? limit : DEFAULT_PAGE_SIZE);
+            
+            prefetchRates(page.items(), conv);
+            return ResponseEntity.ok()
+                    .cacheControl(REVALIDATE)
+                    .body(TransactionListResponse.of(page.items(),
+                            page.nextCursor() != null ? page.nextCursor().encode() : null, conv));
+        }
         
         List<Transaction> transactions = financeService.listTransactions(user.getId(), fromDate, toDate, cat);
         
-        List<Map<String, Object>> items = transactions.stream()
-                .map(tx -> {
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("id", tx.getId());
-                    item.put("date", LocalDate.ofEpochDay(tx.getDateEpochDay()).toString());
-                    item.put("category", tx.getCategory());
-                    item.put("description", tx.getDescription());
-                    item.put("amount", FinanceService.round2(tx.getAmountAsDouble()));
-                    return item;
-                })
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(Map.of("items", items));
+        prefetchRates(transactions, conv);
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .body(TransactionListResponse.of(transactions, null, conv));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamList(String userId, LocalDate from, LocalDate to, String cat,
+                                                             RateConverter converter) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                gen.writeStartObject();
+                gen.writeArrayFieldStart("items");
+                financeService.streamTransactions(userId, from, to, cat, (id, day, category, description, amount, cur) -> {
+                    gen.writeStartObject();
+                    gen.writeStringField("id", id);
+                    gen.writeStringField("date", LocalDate.ofEpochDay(day).toString());
+                    gen.writeStringField("category", category);
+                    gen.writeStringField("description", description);
+                    gen.writeNumberField("amount", FinanceService.round2(amount));
+                    gen.writeStringField("currency", cur);
+                    // Same fields as TransactionItem
+                    double rate = converter != null ? converter.rate(day, cur) : Double.NaN;
+                    if (!Double.isNaN(rate)) {
+                        gen.writeNumberField("converted", FinanceService.round2(amount * rate));
+                    }
+                    gen.writeEndObject();
+                });
+                gen.writeEndArray();
+                if (converter != null) {
+                    gen.writeStringField("currency", converter.target());
+                    gen.writeBooleanField("exact", converter.approximated() == 0);
+                }
+                gen.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /** Rows are in date order: one range prefetch covers the whole list. */
+    private void prefetchRates(List<Transaction> rows, RateConverter converter) {
+        if (converter == null || rows.isEmpty()) return;
+        currencyService.prefetchHistory(
+                LocalDate.ofEpochDay(rows.get(0).getDateEpochDay()),
+                LocalDate.ofEpochDay(rows.get(rows.size() - 1).getDateEpochDay()));
     }
 
     @PostMapping("/transaction/delete")
@@ -113,15 +264,15 @@ public class TransactionController extends BaseController {
         User user = requireAuth(request);
         
         if (id == null || id.isBlank()) {
-            return ResponseEntity.badRequest().body(Map.of("ok", false, "error", "no_id"));
+            return ResponseEntity.badRequest().body(ErrorResponse.of("no_id"));
         }
         
         boolean ok = financeService.deleteTransaction(user.getId(), id);
         if (ok) {
-            sseService.send(getSessionId(request), "{\"type\":\"budget-update\"}");
-            return ResponseEntity.ok(Map.of("ok", true));
+            sseService.refresh(getSessionId(request), EnumSet.of(SseService.Refresh.BUDGETS));
+            return ResponseEntity.ok(OkResponse.OK);
         } else {
-            return ResponseEntity.status(404).body(Map.of("ok", false, "error", "not_found"));
+            return ResponseEntity.status(404).body(ErrorResponse.of("not_found"));
         }
     }
 }
@@ -19,13 +19,20 @@ public class Budget {
     @Column(name = "limit_amount", nullable = false, precision = 14, scale = 2)
     private BigDecimal limitAmount;
 
-    @Column(nullable = false, precision = 14, scale = 2)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private BudgetPeriod period = BudgetPeriod.ALL_TIME;
+
+    /** Spent in the current period; loaded from {@code budget_spend}, not stored on the row. */
+    @Transient
     private BigDecimal spent = BigDecimal.ZERO;
 
     // Convenience constructor
     public Budget(String userId, String category, double limit) {
         this.id = new BudgetId(userId, category);
         this.limitAmount = BigDecimal.valueOf(limit);
+        this.period = BudgetPeriod.ALL_TIME;
         this.spent = BigDecimal.ZERO;
     }
 
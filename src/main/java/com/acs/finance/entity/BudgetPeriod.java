@@ -0,0 +1,60 @@
+package com.acs.finance.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Window a budget limit applies to. Spend is bucketed by the epoch day the window starts on.
+ */
+public enum BudgetPeriod {
+    /** One bucket forever (legacy behaviour). */
+    ALL_TIME,
+    /** Calendar month. */
+    MONTHLY,
+    /** ISO week, Monday to Sunday. */
+    WEEKLY;
+
+    /**
+     * SQL equivalent of {@link #startOf(long)} for a period column and an epoch-day expression.
+     */
+    public static String sqlStartOf(String periodExpr, String dayExpr) {
+        return "CASE " + periodExpr
+                + " WHEN 'MONTHLY' THEN CAST(julianday(date(" + dayExpr + " * 86400, 'unixepoch', 'start of month')) - 2440587.5 AS INTEGER)"
+                + " WHEN 'WEEKLY' THEN " + dayExpr + " - ((" + dayExpr + " + 3) % 7)"
+                + " ELSE 0 END";
+    }
+
+    /**
+     * First epoch day of the period containing {@code epochDay}; 0 for {@link #ALL_TIME}.
+     */
+    public long startOf(long epochDay) {
+        LocalDate day = LocalDate.ofEpochDay(epochDay);
+        return switch (this) {
+            case ALL_TIME -> 0;
+            case MONTHLY -> day.withDayOfMonth(1).toEpochDay();
+            case WEEKLY -> day.with(DayOfWeek.MONDAY).toEpochDay();
+        };
+    }
+
+    /**
+     * Last epoch day of the period containing {@code epochDay}.
+     */
+    public long endOf(long epochDay) {
+        LocalDate day = LocalDate.ofEpochDay(epochDay);
+        return switch (this) {
+            case ALL_TIME -> Long.MAX_VALUE;
+            case MONTHLY -> day.withDayOfMonth(day.lengthOfMonth()).toEpochDay();
+            case WEEKLY -> day.with(DayOfWeek.SUNDAY).toEpochDay();
+        };
+    }
+
+    public static BudgetPeriod parse(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("bad_period");
+        }
+    }
+}
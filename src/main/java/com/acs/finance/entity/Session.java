@@ -22,10 +22,17 @@ public class Session {
     @Column(name = "created_at")
     private Instant createdAt;
 
+    /** Last activity, epoch millis; sessions idle longer than the TTL are swept. */
+    @Column(name = "last_seen_at")
+    private Long lastSeenAt;
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
             createdAt = Instant.now();
         }
+        if (lastSeenAt == null) {
+            lastSeenAt = createdAt.toEpochMilli();
+        }
     }
 }
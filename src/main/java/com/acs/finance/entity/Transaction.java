@@ -1,5 +1,6 @@
 package com.acs.finance.entity;
 
+import com.acs.finance.service.rates.CurrencyCodes;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -33,6 +34,11 @@ public class Transaction {
     @Column(nullable = false, precision = 14, scale = 2)
     private BigDecimal amount;
 
+    /** ISO 4217 code of {@code amount}, upper case. */
+    @Column(nullable = false, length = 3)
+    @Builder.Default
+    private String currency = CurrencyCodes.BASE;
+
     @PrePersist
     public void prePersist() {
         if (id == null) {
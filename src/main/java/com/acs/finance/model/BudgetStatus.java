@@ -0,0 +1,12 @@
+package com.acs.finance.model;
+
+/**
+ * Spent and limit of one budget in the period bucket starting on epoch day {@code periodStart}
+ * (0 for ALL_TIME), as returned by the spend update.
+ */
+public record BudgetStatus(String category, long periodStart, double spent, double limit) {
+
+    public boolean exceeded() {
+        return limit > 0 && spent > limit;
+    }
+}
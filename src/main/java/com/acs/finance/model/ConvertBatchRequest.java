@@ -0,0 +1,7 @@
+package com.acs.finance.model;
+
+/**
+ * Body of {@code POST /api/currency/convert/batch}; {@code amounts} binds to a primitive array.
+ */
+public record ConvertBatchRequest(String from, String to, String date, double[] amounts) {
+}
@@ -0,0 +1,7 @@
+package com.acs.finance.model;
+
+/**
+ * Share-weighted budget of one category across a group's members.
+ */
+public record GroupBudgetItem(String category, double limit, double spent) {
+}
@@ -0,0 +1,10 @@
+package com.acs.finance.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a statement import. {@code errors} holds the first few row-level problems only;
+ * {@code budgets} is the final status of every budget period bucket the import added spend to.
+ */
+public record ImportResult(int imported, int skipped, List<String> errors, List<BudgetStatus> budgets) {
+}
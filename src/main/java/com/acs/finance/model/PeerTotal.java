@@ -0,0 +1,7 @@
+package com.acs.finance.model;
+
+/**
+ * Income and expense of one group member over a date range, in the base currency.
+ */
+public record PeerTotal(String userId, String username, double income, double expense) {
+}
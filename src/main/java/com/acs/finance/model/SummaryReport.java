@@ -0,0 +1,10 @@
+package com.acs.finance.model;
+
+import java.util.List;
+
+/**
+ * Summary totals converted into {@code currency}. {@code exact} is false when some days had no
+ * historical rate available yet and were converted at the latest rate instead.
+ */
+public record SummaryReport(String currency, List<SummaryTotal> items, boolean exact) {
+}
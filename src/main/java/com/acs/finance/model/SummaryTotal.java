@@ -0,0 +1,7 @@
+package com.acs.finance.model;
+
+/**
+ * Income and expense (both non-negative) for one summary bucket: a month, a day or a category.
+ */
+public record SummaryTotal(String key, double income, double expense) {
+}
@@ -0,0 +1,9 @@
+package com.acs.finance.model;
+
+import com.acs.finance.entity.Transaction;
+
+/**
+ * Result of adding a transaction; {@code budget} is set when an expense hit a budgeted category.
+ */
+public record TransactionAdded(Transaction transaction, BudgetStatus budget) {
+}
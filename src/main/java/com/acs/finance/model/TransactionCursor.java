@@ -0,0 +1,39 @@
+package com.acs.finance.model;
+
+import com.acs.finance.entity.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a user's transaction list ordered by {@code (date_epoch_day, id)}.
+ * Serialized as an opaque URL-safe token.
+ */
+public record TransactionCursor(long dateEpochDay, String id) {
+
+    public static TransactionCursor after(Transaction tx) {
+        return new TransactionCursor(tx.getDateEpochDay(), tx.getId());
+    }
+
+    public static TransactionCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            if (sep <= 0 || sep == raw.length() - 1) {
+                throw new IllegalArgumentException("bad_cursor");
+            }
+            return new TransactionCursor(Long.parseLong(raw.substring(0, sep)), raw.substring(sep + 1));
+        } catch (IllegalArgumentException e) {
+            // Covers malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("bad_cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = dateEpochDay + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,11 @@
+package com.acs.finance.model;
+
+import com.acs.finance.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * One keyset page of transactions; {@code nextCursor} is null on the last page.
+ */
+public record TransactionPage(List<Transaction> items, TransactionCursor nextCursor) {
+}
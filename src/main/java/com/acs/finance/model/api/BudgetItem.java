@@ -0,0 +1,15 @@
+package com.acs.finance.model.api;
+
+import com.acs.finance.entity.Budget;
+import com.acs.finance.service.FinanceService;
+
+/**
+ * A budget with what has been spent in its current period.
+ */
+public record BudgetItem(String category, double limit, double spent, String period) {
+
+    public static BudgetItem of(Budget b) {
+        return new BudgetItem(b.getCategory(), FinanceService.round2(b.getLimitAsDouble()),
+                FinanceService.round2(b.getSpentAsDouble()), b.getPeriod().name());
+    }
+}
@@ -0,0 +1,4 @@
+package com.acs.finance.model.api;
+
+public record BudgetSetResponse(boolean ok, String category, double limit, String period, double spent) {
+}
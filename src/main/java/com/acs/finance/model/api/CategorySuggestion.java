@@ -0,0 +1,7 @@
+package com.acs.finance.model.api;
+
+/**
+ * {@code GET /api/categorizer/suggest}; {@code category} is null when no rule matched.
+ */
+public record CategorySuggestion(String category) {
+}
@@ -0,0 +1,7 @@
+package com.acs.finance.model.api;
+
+/**
+ * Converted amounts in request order.
+ */
+public record ConvertBatchResponse(boolean ok, String from, String to, double[] results) {
+}
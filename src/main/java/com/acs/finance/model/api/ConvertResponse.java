@@ -0,0 +1,4 @@
+package com.acs.finance.model.api;
+
+public record ConvertResponse(boolean ok, String from, String to, double amount, double result) {
+}
@@ -0,0 +1,18 @@
+package com.acs.finance.model.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Error body: {@code error} is a stable code the frontend switches on; {@code max} is set only
+ * for size-limit errors.
+ */
+public record ErrorResponse(boolean ok, String error, @JsonInclude(JsonInclude.Include.NON_NULL) Integer max) {
+
+    public static ErrorResponse of(String error) {
+        return new ErrorResponse(false, error, null);
+    }
+
+    public static ErrorResponse tooLarge(String error, int max) {
+        return new ErrorResponse(false, error, max);
+    }
+}
@@ -0,0 +1,4 @@
+package com.acs.finance.model.api;
+
+public record GroupCreatedResponse(boolean ok, String groupId, String name) {
+}
@@ -0,0 +1,7 @@
+package com.acs.finance.model.api;
+
+/**
+ * {@code GET /api/group/me} for a member of a group.
+ */
+public record GroupMembershipResponse(boolean ok, String groupId, String groupName, double share) {
+}
@@ -0,0 +1,9 @@
+package com.acs.finance.model.api;
+
+import java.util.List;
+
+/**
+ * {@code POST /api/transaction/import}; {@code errors} holds the first few row-level problems.
+ */
+public record ImportResponse(boolean ok, int imported, int skipped, List<String> errors) {
+}
@@ -0,0 +1,16 @@
+package com.acs.finance.model.api;
+
+import java.util.List;
+
+/**
+ * {@code {"items": [...]}}.
+ */
+public record ItemsResponse<T>(List<T> items) {
+
+    private static final ItemsResponse<?> EMPTY = new ItemsResponse<>(List.of());
+
+    @SuppressWarnings("unchecked")
+    public static <T> ItemsResponse<T> empty() {
+        return (ItemsResponse<T>) EMPTY;
+    }
+}
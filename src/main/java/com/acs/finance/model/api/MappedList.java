@@ -0,0 +1,35 @@
+package com.acs.finance.model.api;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Read-only view that maps each element on access. Response records hold one of these instead
+ * of a pre-built list, so rows are converted one at a time while Jackson writes them out.
+ */
+public final class MappedList<S, T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<S> source;
+    private final Function<? super S, ? extends T> mapper;
+
+    private MappedList(List<S> source, Function<? super S, ? extends T> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    public static <S, T> List<T> of(List<S> source, Function<? super S, ? extends T> mapper) {
+        return new MappedList<>(source, mapper);
+    }
+
+    @Override
+    public T get(int index) {
+        return mapper.apply(source.get(index));
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+}
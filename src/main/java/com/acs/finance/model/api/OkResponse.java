@@ -0,0 +1,10 @@
+package com.acs.finance.model.api;
+
+/**
+ * {@code {"ok": true}} / {@code {"ok": false}} without further fields.
+ */
+public record OkResponse(boolean ok) {
+
+    public static final OkResponse OK = new OkResponse(true);
+    public static final OkResponse NOT_OK = new OkResponse(false);
+}
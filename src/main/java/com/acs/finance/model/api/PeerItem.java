@@ -0,0 +1,7 @@
+package com.acs.finance.model.api;
+
+/**
+ * Income and expense of one group member over the requested period.
+ */
+public record PeerItem(String userId, String username, double income, double expense) {
+}
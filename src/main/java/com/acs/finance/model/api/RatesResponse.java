@@ -0,0 +1,10 @@
+package com.acs.finance.model.api;
+
+import java.util.Map;
+
+/**
+ * {@code GET /api/currency}; {@code stale} is true while older rates (or the built-in fallback)
+ * are being served.
+ */
+public record RatesResponse(String base, Map<String, Double> rates, boolean stale) {
+}
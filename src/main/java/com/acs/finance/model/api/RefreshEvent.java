@@ -0,0 +1,14 @@
+package com.acs.finance.model.api;
+
+import java.util.List;
+
+/**
+ * SSE {@code refresh} event: which lists the client reloads, plus notifications to show
+ * (e.g. exceeded budgets). One event may stand for several changes.
+ */
+public record RefreshEvent(String type, boolean transactions, boolean budgets, List<String> alerts) {
+
+    public static RefreshEvent of(boolean transactions, boolean budgets, List<String> alerts) {
+        return new RefreshEvent("refresh", transactions, budgets, alerts);
+    }
+}
@@ -0,0 +1,15 @@
+package com.acs.finance.model.api;
+
+import com.acs.finance.entity.Reminder;
+import com.acs.finance.service.FinanceService;
+
+import java.time.LocalDate;
+
+public record ReminderItem(String id, String date, String message, Double amount) {
+
+    public static ReminderItem of(Reminder r) {
+        Double amount = r.getAmountAsDouble();
+        return new ReminderItem(r.getId(), LocalDate.ofEpochDay(r.getDueEpochDay()).toString(), r.getMessage(),
+                amount != null ? FinanceService.round2(amount) : null);
+    }
+}
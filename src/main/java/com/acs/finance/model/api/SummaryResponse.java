@@ -0,0 +1,31 @@
+package com.acs.finance.model.api;
+
+import com.acs.finance.model.SummaryTotal;
+import com.acs.finance.service.FinanceService;
+
+import java.util.List;
+
+/**
+ * {@code /api/summary/*}: totals converted into {@code currency}; the item type names the key
+ * field after the grouping ({@code month}, {@code date} or {@code category}).
+ */
+public record SummaryResponse<T>(String currency, boolean exact, List<T> items) {
+
+    public record Month(String month, double income, double expense) {
+        public static Month of(SummaryTotal t) {
+            return new Month(t.key(), FinanceService.round2(t.income()), FinanceService.round2(t.expense()));
+        }
+    }
+
+    public record Day(String date, double income, double expense) {
+        public static Day of(SummaryTotal t) {
+            return new Day(t.key(), FinanceService.round2(t.income()), FinanceService.round2(t.expense()));
+        }
+    }
+
+    public record Category(String category, double income, double expense) {
+        public static Category of(SummaryTotal t) {
+            return new Category(t.key(), FinanceService.round2(t.income()), FinanceService.round2(t.expense()));
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.acs.finance.model.api;
+
+public record TransactionCreatedResponse(boolean ok, String id) {
+}
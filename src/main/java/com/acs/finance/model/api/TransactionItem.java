@@ -0,0 +1,27 @@
+package com.acs.finance.model.api;
+
+import com.acs.finance.entity.Transaction;
+import com.acs.finance.service.FinanceService;
+import com.acs.finance.service.rates.RateConverter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+/**
+ * One row of {@code GET /api/transactions}. {@code converted} is the amount in the requested
+ * report currency; it is left out when no currency was requested or no rate is known.
+ */
+public record TransactionItem(String id, String date, String category, String description, double amount,
+                              String currency, @JsonInclude(JsonInclude.Include.NON_NULL) Double converted) {
+
+    public static TransactionItem of(Transaction tx, RateConverter converter) {
+        double amount = tx.getAmountAsDouble();
+        Double converted = null;
+        if (converter != null) {
+            double rate = converter.rate(tx.getDateEpochDay(), tx.getCurrency());
+            converted = Double.isNaN(rate) ? null : FinanceService.round2(amount * rate);
+        }
+        return new TransactionItem(tx.getId(), LocalDate.ofEpochDay(tx.getDateEpochDay()).toString(),
+                tx.getCategory(), tx.getDescription(), FinanceService.round2(amount), tx.getCurrency(), converted);
+    }
+}
@@ -0,0 +1,39 @@
+package com.acs.finance.model.api;
+
+import com.acs.finance.entity.Transaction;
+import com.acs.finance.service.rates.RateConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * {@code GET /api/transactions}. {@code nextCursor} is null on the last page and without paging;
+ * {@code currency}/{@code exact} are present only when amounts were converted.
+ * <p>
+ * Items are converted while Jackson writes them, so {@code exact} is computed on access and
+ * ordered after {@code items}: by then every row has been converted.
+ */
+@JsonPropertyOrder({"items", "nextCursor", "currency", "exact"})
+public record TransactionListResponse(List<TransactionItem> items, String nextCursor,
+                                      @JsonIgnore RateConverter converter) {
+
+    public static TransactionListResponse of(List<Transaction> rows, String nextCursor, RateConverter converter) {
+        return new TransactionListResponse(MappedList.of(rows, tx -> TransactionItem.of(tx, converter)),
+                nextCursor, converter);
+    }
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String currency() {
+        return converter != null ? converter.target() : null;
+    }
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Boolean exact() {
+        return converter != null ? converter.approximated() == 0 : null;
+    }
+}
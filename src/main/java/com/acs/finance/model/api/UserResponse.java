@@ -0,0 +1,16 @@
+package com.acs.finance.model.api;
+
+import com.acs.finance.entity.User;
+
+/**
+ * Signed-in user for {@code /api/login} and {@code /api/me}.
+ */
+public record UserResponse(boolean ok, Profile user) {
+
+    public record Profile(String id, String username) {
+    }
+
+    public static UserResponse of(User user) {
+        return new UserResponse(true, new Profile(user.getId(), user.getUsername()));
+    }
+}
@@ -0,0 +1,175 @@
+package com.acs.finance.repository;
+
+import com.acs.finance.config.MetricsConfig;
+import com.acs.finance.entity.BudgetPeriod;
+import com.acs.finance.model.BudgetStatus;
+import com.acs.finance.model.GroupBudgetItem;
+import com.acs.finance.service.rates.CurrencyCodes;
+import com.acs.finance.service.rates.RateConverter;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code budget_spend}: spent per budget and period, keyed by {@code (user_id, LOWER(category),
+ * period_start)}. A bucket appears on the first spend in its period, so rolling over to a new
+ * period needs no reset job; reads for a period without a bucket see zero.
+ */
+@Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+@RequiredArgsConstructor
+public class BudgetSpendRepository {
+
+    // Spend is recorded only for categories that have a budget; the bucket follows that budget's period
+    private static final String ADD_SPENT_SQL =
+            "INSERT INTO budget_spend (user_id, category, period_start, spent) " +
+            "SELECT b.user_id, LOWER(b.category), " + BudgetPeriod.sqlStartOf("b.period", ":day") + ", :amount " +
+            "FROM budgets b WHERE b.user_id = :userId AND LOWER(b.category) = LOWER(:category) " +
+            "ORDER BY b.category LIMIT 1 " +
+            "ON CONFLICT (user_id, category, period_start) DO UPDATE SET spent = spent + excluded.spent";
+
+    private static final String RETURNING_STATUS =
+            " RETURNING period_start, spent, (SELECT b2.limit_amount FROM budgets b2 " +
+            "WHERE b2.user_id = budget_spend.user_id AND LOWER(b2.category) = budget_spend.category " +
+            "ORDER BY b2.category LIMIT 1)";
+
+    private static final String ADD_SPENT_RETURNING_SQL = ADD_SPENT_SQL + RETURNING_STATUS;
+
+    private static final String CURRENT_SPENT_SQL =
+            "SELECT b.category, s.spent FROM budgets b " +
+            "JOIN budget_spend s ON s.user_id = b.user_id AND s.category = LOWER(b.category) " +
+            "AND s.period_start = " + BudgetPeriod.sqlStartOf("b.period", ":today") + " " +
+            "WHERE b.user_id = :userId";
+
+    private static final String GROUP_TOTALS_SQL =
+            "SELECT b.category, SUM(b.limit_amount * gm.share), SUM(COALESCE(s.spent, 0) * gm.share) " +
+            "FROM group_members gm JOIN budgets b ON b.user_id = gm.user_id " +
+            "LEFT JOIN budget_spend s ON s.user_id = b.user_id AND s.category = LOWER(b.category) " +
+            "AND s.period_start = " + BudgetPeriod.sqlStartOf("b.period", ":today") + " " +
+            "WHERE gm.group_id = :groupId " +
+            "GROUP BY b.category ORDER BY b.category";
+
+    // Base-currency expenses are summed; any other currency stays per day to be converted at that day's rate
+    private static final String SEED_EXPENSES_SQL =
+            "SELECT CASE WHEN currency = :base THEN NULL ELSE epoch_day END AS d, currency, SUM(expense) " +
+            "FROM daily_rollups " +
+            "WHERE user_id = :userId AND epoch_day BETWEEN :start AND :end AND LOWER(category) = LOWER(:category) " +
+            "GROUP BY d, currency ORDER BY d";
+
+    private static final String SET_SPENT_SQL =
+            "INSERT INTO budget_spend (user_id, category, period_start, spent) " +
+            "VALUES (:userId, LOWER(:category), :start, :spent) " +
+            "ON CONFLICT (user_id, category, period_start) DO UPDATE SET spent = excluded.spent";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Adds {@code amount} to the bucket of the budget matching {@code category} for the period
+     * containing {@code epochDay}, and returns the bucket's new spent with the budget limit in the
+     * same statement. Returns {@code null} when the category has no budget.
+     */
+    public BudgetStatus addSpent(String userId, String category, long epochDay, double amount) {
+        List<BudgetStatus> rows = jdbc.query(ADD_SPENT_RETURNING_SQL,
+                spendParams(userId, category, epochDay, amount),
+                (rs, i) -> new BudgetStatus(category, rs.getLong(1), rs.getDouble(2), rs.getDouble(3)));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * {@link #addSpent} for every delta. Returns the final status of each bucket touched, once per
+     * budget and period in first-touched order; deltas of categories without a budget add nothing.
+     */
+    public List<BudgetStatus> addSpentAll(String userId, List<SpendDelta> deltas) {
+        Map<String, BudgetStatus> byBucket = new LinkedHashMap<>();
+        for (SpendDelta d : deltas) {
+            BudgetStatus status = addSpent(userId, d.category(), d.epochDay(), d.amount());
+            if (status != null) {
+                byBucket.put(bucketKey(status), status);
+            }
+        }
+        return new ArrayList<>(byBucket.values());
+    }
+
+    /** Identifies the budget_spend row of {@code status}: lower-cased category and period start. */
+    public static String bucketKey(BudgetStatus status) {
+        return status.category().toLowerCase(Locale.ROOT) + '\0' + status.periodStart();
+    }
+
+    /**
+     * Spent in the period containing {@code today}, by budget category. Budgets whose current
+     * period has no spend yet are absent.
+     */
+    public Map<String, Double> currentSpent(String userId, long today) {
+        Map<String, Double> result = new HashMap<>();
+        jdbc.query(CURRENT_SPENT_SQL,
+                new MapSqlParameterSource().addValue("userId", userId).addValue("today", today),
+                rs -> {
+                    result.put(rs.getString(1), rs.getDouble(2));
+                });
+        return result;
+    }
+
+    /**
+     * Share-weighted limit and current-period spent per category over all members of the group.
+     */
+    public List<GroupBudgetItem> groupTotals(String groupId, long today) {
+        return jdbc.query(GROUP_TOTALS_SQL,
+                new MapSqlParameterSource().addValue("groupId", groupId).addValue("today", today),
+                (rs, i) -> new GroupBudgetItem(rs.getString(1), rs.getDouble(2), rs.getDouble(3)));
+    }
+
+    /**
+     * Sets the bucket for {@code [start, end]} to the expenses already recorded in that window,
+     * e.g. when a monthly budget is created mid-month. Expenses in other currencies are converted
+     * with {@code toBase} (a converter into {@link CurrencyCodes#BASE}) at their day's rate.
+     *
+     * @return rollup rows left out because no rate is known for their currency
+     */
+    public int seedFromRollups(String userId, String category, long start, long end, RateConverter toBase) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("category", category)
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("base", CurrencyCodes.BASE);
+        double[] spent = new double[1];
+        int[] unconverted = new int[1];
+        jdbc.query(SEED_EXPENSES_SQL, params, rs -> {
+            long day = rs.getLong(1);
+            double rate = toBase.rate(rs.wasNull() ? RateConverter.NO_DAY : day, rs.getString(2));
+            if (Double.isNaN(rate)) {
+                unconverted[0]++;
+            } else {
+                spent[0] += rs.getDouble(3) * rate;
+            }
+        });
+        jdbc.update(SET_SPENT_SQL, params.addValue("spent", spent[0]));
+        return unconverted[0];
+    }
+
+    public void deleteAll(String userId, String category) {
+        jdbc.update("DELETE FROM budget_spend WHERE user_id = :userId AND category = LOWER(:category)",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("category", category));
+    }
+
+    /** One pending spend change; see {@link #addSpentAll}. */
+    public record SpendDelta(String category, long epochDay, double amount) {
+    }
+
+    private static MapSqlParameterSource spendParams(String userId, String category, long epochDay, double amount) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("category", category)
+                .addValue("day", epochDay)
+                .addValue("amount", amount);
+    }
+}
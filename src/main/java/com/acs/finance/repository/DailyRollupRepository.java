@@ -0,0 +1,223 @@
+package com.acs.finance.repository;
+
+import com.acs.finance.config.ExpectedFullScan;
+import com.acs.finance.config.MetricsConfig;
+import com.acs.finance.entity.Transaction;
+import com.acs.finance.service.rates.RateConverter;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code daily_rollups}: income, expense and count per {@code (user_id, epoch_day, category, currency)}.
+ * Writers apply deltas in the same database transaction as the change to {@code transactions};
+ * {@link #rebuildAll()} recomputes the table from scratch.
+ */
+@Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+@RequiredArgsConstructor
+public class DailyRollupRepository {
+
+    /** Uncategorised transactions are keyed by this value. */
+    public static final String NO_CATEGORY = "";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO daily_rollups (user_id, epoch_day, category, currency, income, expense, tx_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, epoch_day, category, currency) DO UPDATE SET " +
+            "income = income + excluded.income, " +
+            "expense = expense + excluded.expense, " +
+            "tx_count = tx_count + excluded.tx_count";
+
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM daily_rollups WHERE user_id = ? AND epoch_day = ? AND category = ? AND currency = ? " +
+            "AND tx_count <= 0";
+
+    // Nightly rebuild from scratch: reads every transaction by design
+    @ExpectedFullScan
+    private static final String REBUILD_SQL =
+            "INSERT INTO daily_rollups (user_id, epoch_day, category, currency, income, expense, tx_count) " +
+            "SELECT user_id, date_epoch_day, COALESCE(category, ''), currency, " +
+            "SUM(CASE WHEN amount > 0 THEN amount ELSE 0 END), " +
+            "SUM(CASE WHEN amount < 0 THEN -amount ELSE 0 END), " +
+            "COUNT(*) " +
+            "FROM transactions GROUP BY user_id, date_epoch_day, COALESCE(category, ''), currency";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public enum Grouping {
+        /** {@code yyyy-MM} */
+        MONTH("strftime('%Y-%m', epoch_day * 86400, 'unixepoch')"),
+        /** {@code yyyy-MM-dd} */
+        DAY("date(epoch_day * 86400, 'unixepoch')"),
+        CATEGORY("category");
+
+        private final String expression;
+
+        Grouping(String expression) {
+            this.expression = expression;
+        }
+    }
+
+    private record Key(String userId, long epochDay, String category, String currency) {
+    }
+
+    /**
+     * Adds the transaction to its day/category bucket. Joins the caller's transaction.
+     */
+    public void add(Transaction tx) {
+        apply(tx, 1);
+    }
+
+    /**
+     * Removes the transaction from its bucket, dropping the bucket once it is empty.
+     */
+    public void remove(Transaction tx) {
+        apply(tx, -1);
+        jdbcTemplate.update(DELETE_EMPTY_SQL, tx.getUserId(), tx.getDateEpochDay(), keyOf(tx.getCategory()),
+                tx.getCurrency());
+    }
+
+    /**
+     * Adds many transactions, one upsert per distinct bucket.
+     */
+    public void addAll(Collection<Transaction> rows) {
+        Map<Key, double[]> deltas = new LinkedHashMap<>();
+        for (Transaction tx : rows) {
+            double amount = tx.getAmountAsDouble();
+            double[] d = deltas.computeIfAbsent(
+                    new Key(tx.getUserId(), tx.getDateEpochDay(), keyOf(tx.getCategory()), tx.getCurrency()),
+                    k -> new double[3]);
+            if (amount > 0) d[0] += amount;
+            else d[1] -= amount;
+            d[2]++;
+        }
+        if (deltas.isEmpty()) return;
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((k, d) -> args.add(
+                new Object[]{k.userId(), k.epochDay(), k.category(), k.currency(), d[0], d[1], (int) d[2]}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+
+    /**
+     * Replaces the whole table with totals recomputed from {@code transactions}.
+     * Returns the number of buckets written.
+     */
+    public int rebuildAll() {
+        jdbcTemplate.update("DELETE FROM daily_rollups");
+        return jdbcTemplate.update(REBUILD_SQL);
+    }
+
+    /**
+     * Income/expense totals over the rollups of one user, grouped by {@code groupBy} and currency.
+     * Rows already in {@code target} are summed per key ({@link Columns#NO_DAY}); rows in any other
+     * currency stay per day so each can be converted at that day's rate. Ordered by day.
+     */
+    public Columns totals(String userId, Long from, Long to, Grouping groupBy, String target) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(groupBy.expression)
+                .append(" AS k, CASE WHEN currency = ? THEN NULL ELSE epoch_day END AS d, currency, ")
+                .append("SUM(income), SUM(expense) FROM daily_rollups WHERE user_id = ?");
+        List<Object> args = new ArrayList<>(4);
+        args.add(target);
+        args.add(userId);
+        if (from != null) {
+            sql.append(" AND epoch_day >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND epoch_day <= ?");
+            args.add(to);
+        }
+        sql.append(" GROUP BY k, d, currency ORDER BY d, k");
+
+        Columns columns = new Columns();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            long day = rs.getLong(2);
+            columns.add(rs.getString(1), rs.wasNull() ? Columns.NO_DAY : day, rs.getString(3),
+                    rs.getDouble(4), rs.getDouble(5));
+        }, args.toArray());
+        return columns;
+    }
+
+    /**
+     * Column-wise result of {@link #totals}; the arrays are valid up to {@link #size()}.
+     */
+    public static final class Columns {
+
+        public static final long NO_DAY = RateConverter.NO_DAY;
+
+        private int size;
+        private String[] keys = new String[64];
+        private long[] days = new long[64];
+        private String[] currencies = new String[64];
+        private double[] income = new double[64];
+        private double[] expense = new double[64];
+
+        private void add(String key, long day, String currency, double in, double out) {
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                days = Arrays.copyOf(days, capacity);
+                currencies = Arrays.copyOf(currencies, capacity);
+                income = Arrays.copyOf(income, capacity);
+                expense = Arrays.copyOf(expense, capacity);
+            }
+            keys[size] = key;
+            days[size] = day;
+            currencies[size] = currency;
+            income[size] = in;
+            expense[size] = out;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public String[] keys() {
+            return keys;
+        }
+
+        public long[] days() {
+            return days;
+        }
+
+        public String[] currencies() {
+            return currencies;
+        }
+
+        public double[] income() {
+            return income;
+        }
+
+        public double[] expense() {
+            return expense;
+        }
+    }
+
+    public static String keyOf(String category) {
+        return category != null ? category : NO_CATEGORY;
+    }
+
+    private void apply(Transaction tx, int sign) {
+        double amount = tx.getAmountAsDouble();
+        jdbcTemplate.update(UPSERT_SQL,
+                tx.getUserId(),
+                tx.getDateEpochDay(),
+                keyOf(tx.getCategory()),
+                tx.getCurrency(),
+                sign * (amount > 0 ? amount : 0.0),
+                sign * (amount < 0 ? -amount : 0.0),
+                sign);
+    }
+}
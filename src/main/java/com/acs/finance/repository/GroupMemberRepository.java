@@ -26,7 +26,6 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, GroupM
     @Query("DELETE FROM GroupMember gm WHERE gm.id.userId = :userId")
     void deleteByUserId(@Param("userId") String userId);
     
-    @Modifying
     @Query("SELECT COUNT(gm) FROM GroupMember gm WHERE gm.id.groupId = :groupId")
-    int countByGroupId(@Param("groupId") String groupId);
+    long countByGroupId(@Param("groupId") String groupId);
 }
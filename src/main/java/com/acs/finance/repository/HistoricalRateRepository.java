@@ -0,0 +1,57 @@
+package com.acs.finance.repository;
+
+import com.acs.finance.config.MetricsConfig;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code historical_rates}: MDL-based daily rates keyed by {@code (epoch_day, currency)}.
+ */
+@Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+@RequiredArgsConstructor
+public class HistoricalRateRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO historical_rates (epoch_day, currency, rate) VALUES (?, ?, ?) " +
+            "ON CONFLICT (epoch_day, currency) DO UPDATE SET rate = excluded.rate";
+
+    private static final String RANGE_SQL =
+            "SELECT epoch_day, currency, rate FROM historical_rates " +
+            "WHERE epoch_day BETWEEN ? AND ? ORDER BY epoch_day";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void accept(long epochDay, String currency, double rate);
+    }
+
+    /**
+     * Streams every stored rate with {@code fromDay <= epoch_day <= toDay}, in day order.
+     */
+    public void forEachInRange(long fromDay, long toDay, RowHandler handler) {
+        jdbcTemplate.query(RANGE_SQL, rs -> {
+            handler.accept(rs.getLong(1), rs.getString(2), rs.getDouble(3));
+        }, fromDay, toDay);
+    }
+
+    /**
+     * Stores (or overwrites) rates per day and currency in one batch.
+     */
+    public int saveAll(Map<LocalDate, Map<String, Double>> ratesByDay) {
+        List<Object[]> args = new ArrayList<>();
+        ratesByDay.forEach((day, rates) -> rates.forEach((currency, rate) ->
+                args.add(new Object[]{day.toEpochDay(), currency, rate})));
+        if (args.isEmpty()) return 0;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+        return args.size();
+    }
+}
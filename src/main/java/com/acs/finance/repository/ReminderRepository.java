@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,10 +15,13 @@ public interface ReminderRepository extends JpaRepository<Reminder, String> {
     @Query("SELECT r FROM Reminder r WHERE r.userId = :userId ORDER BY r.dueEpochDay")
     List<Reminder> findByUserId(@Param("userId") String userId);
     
-    @Query("SELECT r FROM Reminder r WHERE r.userId = :userId AND r.sent = false AND r.dueEpochDay <= :today")
-    List<Reminder> findDueReminders(@Param("userId") String userId, @Param("today") long today);
+    @Query("SELECT r FROM Reminder r WHERE r.sent = false ORDER BY r.dueEpochDay")
+    List<Reminder> findUnsent();
+
+    @Query("SELECT r FROM Reminder r WHERE r.userId = :userId AND r.sent = false AND r.dueEpochDay <= :day ORDER BY r.dueEpochDay")
+    List<Reminder> findDue(@Param("userId") String userId, @Param("day") long day);
     
     @Modifying
-    @Query("UPDATE Reminder r SET r.sent = true WHERE r.id = :id")
-    void markAsSent(@Param("id") String id);
+    @Query("UPDATE Reminder r SET r.sent = true WHERE r.id IN :ids")
+    int markAllAsSent(@Param("ids") Collection<String> ids);
 }
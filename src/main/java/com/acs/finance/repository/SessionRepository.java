@@ -2,6 +2,9 @@ package com.acs.finance.repository;
 
 import com.acs.finance.entity.Session;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -11,4 +14,12 @@ public interface SessionRepository extends JpaRepository<Session, String> {
     Optional<Session> findBySid(String sid);
     
     void deleteBySid(String sid);
+
+    @Modifying
+    @Query("UPDATE Session s SET s.lastSeenAt = :ts WHERE s.sid = :sid AND (s.lastSeenAt IS NULL OR s.lastSeenAt < :ts)")
+    int touch(@Param("sid") String sid, @Param("ts") long ts);
+
+    @Modifying
+    @Query("DELETE FROM Session s WHERE s.lastSeenAt < :cutoff")
+    int deleteExpired(@Param("cutoff") long cutoff);
 }
@@ -0,0 +1,104 @@
+package com.acs.finance.repository;
+
+import com.acs.finance.config.MetricsConfig;
+import com.acs.finance.entity.Transaction;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain-JDBC access to transactions for paths that must not hydrate JPA entities.
+ */
+@Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+@RequiredArgsConstructor
+public class TransactionJdbcRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (id, user_id, date_epoch_day, category, description, amount, currency) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Date and category filters are appended per call
+    private static final String STREAM_SQL =
+            "SELECT id, date_epoch_day, category, description, amount, currency FROM transactions WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(String id, long dateEpochDay, String category, String description, double amount,
+                    String currency) throws IOException;
+    }
+
+    /**
+     * Walks the filtered rows with a forward-only cursor, handing each one to the consumer
+     * as it is read. Memory use does not depend on the number of rows.
+     */
+    @Transactional(readOnly = true)
+    public void stream(String userId, Long from, Long to, String category, RowConsumer consumer) {
+        StringBuilder sql = new StringBuilder(STREAM_SQL);
+        List<Object> args = new ArrayList<>(4);
+        args.add(userId);
+        if (from != null) {
+            sql.append(" AND date_epoch_day >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND date_epoch_day <= ?");
+            args.add(to);
+        }
+        if (category != null) {
+            sql.append(" AND LOWER(category) = LOWER(?)");
+            args.add(category);
+        }
+        sql.append(" ORDER BY date_epoch_day ASC, id ASC");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                consumer.accept(
+                        rs.getString(1),
+                        rs.getLong(2),
+                        rs.getString(3),
+                        rs.getString(4),
+                        rs.getDouble(5),
+                        rs.getString(6));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Inserts the given transactions as one JDBC batch. Ids must already be assigned.
+     * Joins the caller's transaction.
+     */
+    public void insertBatch(List<Transaction> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, tx) -> {
+            ps.setString(1, tx.getId());
+            ps.setString(2, tx.getUserId());
+            ps.setLong(3, tx.getDateEpochDay());
+            ps.setString(4, tx.getCategory());
+            ps.setString(5, tx.getDescription());
+            ps.setBigDecimal(6, tx.getAmount());
+            ps.setString(7, tx.getCurrency());
+        });
+    }
+}
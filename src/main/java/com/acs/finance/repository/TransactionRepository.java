@@ -1,6 +1,7 @@
 package com.acs.finance.repository;
 
 import com.acs.finance.entity.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,6 +10,18 @@ import java.util.List;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
+
+    /** Row of {@link #groupPeerTotals}. */
+    interface PeerRow {
+        String getUserId();
+        String getUsername();
+        /** Null for a member without transactions in the range. */
+        String getCurrency();
+        /** Null for base-currency rows, which are summed over the whole range. */
+        Long getEpochDay();
+        Double getIncome();
+        Double getExpense();
+    }
     
     List<Transaction> findByUserIdOrderByDateEpochDayAsc(String userId);
     
@@ -24,6 +37,47 @@ public interface TransactionRepository extends JpaRepository<Transaction, String
         @Param("category") String category
     );
     
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId " +
+           "AND (:from IS NULL OR t.dateEpochDay >= :from) " +
+           "AND (:to IS NULL OR t.dateEpochDay <= :to) " +
+           "AND (:category IS NULL OR LOWER(t.category) = LOWER(:category)) " +
+           "AND (:afterDay IS NULL OR t.dateEpochDay > :afterDay " +
+           "     OR (t.dateEpochDay = :afterDay AND t.id > :afterId)) " +
+           "ORDER BY t.dateEpochDay ASC, t.id ASC")
+    List<Transaction> findPage(
+        @Param("userId") String userId,
+        @Param("from") Long from,
+        @Param("to") Long to,
+        @Param("category") String category,
+        @Param("afterDay") Long afterDay,
+        @Param("afterId") String afterId,
+        Limit limit
+    );
+    
+    /**
+     * Income/expense per group member and currency over a date range, with the member's username.
+     * Base-currency (MDL) rows are summed per member; rows in any other currency stay per day so
+     * each can be converted at that day's rate. Members without transactions get one row with a
+     * null currency and zero totals. Both bounds are required so the join stays an index range on
+     * (user_id, date_epoch_day); pass {@link Long#MIN_VALUE}/{@link Long#MAX_VALUE} for an open end.
+     */
+    @Query(value = "SELECT gm.user_id AS userId, u.username AS username, t.currency AS currency, " +
+           "CASE WHEN t.currency = 'MDL' THEN NULL ELSE t.date_epoch_day END AS epochDay, " +
+           "COALESCE(SUM(CASE WHEN t.amount > 0 THEN t.amount ELSE 0 END), 0) AS income, " +
+           "COALESCE(SUM(CASE WHEN t.amount < 0 THEN -t.amount ELSE 0 END), 0) AS expense " +
+           "FROM group_members gm " +
+           "LEFT JOIN users u ON u.id = gm.user_id " +
+           "LEFT JOIN transactions t ON t.user_id = gm.user_id " +
+           "AND t.date_epoch_day >= :fromDay AND t.date_epoch_day <= :toDay " +
+           "WHERE gm.group_id = :groupId " +
+           "GROUP BY gm.user_id, u.username, t.currency, epochDay " +
+           "ORDER BY u.username, gm.user_id, epochDay", nativeQuery = true)
+    List<PeerRow> groupPeerTotals(
+        @Param("groupId") String groupId,
+        @Param("fromDay") long fromDay,
+        @Param("toDay") long toDay
+    );
+    
     void deleteByIdAndUserId(String id, String userId);
     
     boolean existsByIdAndUserId(String id, String userId);
@@ -0,0 +1,28 @@
+package com.acs.finance.scheduler;
+
+import com.acs.finance.service.CurrencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the latest currency rates warm. Only starts the fetch; the HTTP call completes on the
+ * client's own threads, so the shared scheduler thread is never held by the network.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateRefreshJob {
+
+    private final CurrencyService currencyService;
+
+    @Scheduled(fixedDelayString = "${fintrack.rates.check-interval-ms:60000}")
+    public void refresh() {
+        try {
+            currencyService.refreshIfDue();
+        } catch (Exception e) {
+            log.error("Currency rates refresh could not be started", e);
+        }
+    }
+}
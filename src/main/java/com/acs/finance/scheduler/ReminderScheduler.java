@@ -1,54 +1,216 @@
 package com.acs.finance.scheduler;
 
 import com.acs.finance.entity.Reminder;
-import com.acs.finance.entity.User;
-import com.acs.finance.service.AuthService;
+import com.acs.finance.repository.ReminderRepository;
 import com.acs.finance.service.FinanceService;
 import com.acs.finance.service.SseService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Delivers reminders when they become due, without polling.
+ * <p>
+ * Unsent reminders are loaded once at startup into a priority queue ordered by due day; new ones
+ * are added after their insert commits. A single timer is armed for the earliest due day. When it
+ * fires, due reminders are pushed to their owners' open SSE sessions and marked sent with one
+ * UPDATE. Reminders of users who are offline are not kept in memory: they stay unsent in the
+ * database and are read back (by user, due day) when the user next connects.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ReminderScheduler {
 
-    private final AuthService authService;
-    private final FinanceService financeService;
+    private static final int MARK_CHUNK = 500;
+
+    private record Pending(String id, String userId, long dueEpochDay, String message, Double amount) {
+
+        static Pending of(Reminder r) {
+            return new Pending(r.getId(), r.getUserId(), r.getDueEpochDay(), r.getMessage(), r.getAmountAsDouble());
+        }
+    }
+
+    private final ReminderRepository reminderRepository;
     private final SseService sseService;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer tickTimer;
+    private final Counter remindersSent;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Pending> upcoming =
+            new PriorityQueue<>(Comparator.comparingLong(Pending::dueEpochDay));
+    // Ids in the upcoming queue or being delivered; a reminder is never pushed twice concurrently
+    private final Set<String> known = new HashSet<>();
+    private ScheduledFuture<?> timer;
+    private long timerDay = Long.MAX_VALUE;
+
+    public ReminderScheduler(ReminderRepository reminderRepository,
+                             SseService sseService,
+                             TaskScheduler taskScheduler,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.reminderRepository = reminderRepository;
+        this.sseService = sseService;
+        this.taskScheduler = taskScheduler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tickTimer = Timer.builder("fintrack.reminders.tick")
+                .description("Time to move due reminders to inboxes and deliver them")
+                .register(meterRegistry);
+        this.remindersSent = meterRegistry.counter("fintrack.reminders.sent");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Reminder> unsent = reminderRepository.findUnsent();
+        lock.lock();
+        try {
+            unsent.forEach(r -> enqueue(Pending.of(r)));
+            armTimer();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Reminder index loaded: {} unsent reminders", unsent.size());
+    }
+
+    /**
+     * Published by {@link FinanceService#addReminder}; runs only once the insert has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReminderAdded(Reminder reminder) {
+        lock.lock();
+        try {
+            enqueue(Pending.of(reminder));
+            armTimer();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onConnected(SseService.Connected event) {
+        String userId = event.userId();
+        List<Reminder> due = reminderRepository.findDue(userId, LocalDate.now().toEpochDay());
+        if (due.isEmpty()) return;
+
+        List<Pending> claimed = new ArrayList<>(due.size());
+        lock.lock();
+        try {
+            for (Reminder r : due) {
+                if (known.add(r.getId())) claimed.add(Pending.of(r));
+            }
+        } finally {
+            lock.unlock();
+        }
+        deliver(userId, claimed);
+    }
+
+    private void fire() {
+        tickTimer.record(this::fireDue);
+    }
 
-    @Scheduled(fixedRate = 10000) // Every 10 seconds
-    public void checkReminders() {
+    private void fireDue() {
         long today = LocalDate.now().toEpochDay();
-        int remindersSent = 0;
-        
-        Set<String> sessions = sseService.sessionIds();
-        for (String sid : sessions) {
-            User user = authService.getUserBySession(sid);
-            if (user == null) continue;
-            
-            List<Reminder> dueReminders = financeService.consumeDueReminders(user.getId(), today);
+        Map<String, List<Pending>> dueByUser = new HashMap<>();
+        lock.lock();
+        try {
+            timer = null;
+            timerDay = Long.MAX_VALUE;
+            while (!upcoming.isEmpty() && upcoming.peek().dueEpochDay() <= today) {
+                Pending p = upcoming.poll();
+                dueByUser.computeIfAbsent(p.userId(), k -> new ArrayList<>()).add(p);
+            }
+            armTimer();
+        } finally {
+            lock.unlock();
+        }
+
+        dueByUser.forEach(this::deliver);
+    }
+
+    // The reminders are claimed in known; they are released whether delivered or not
+    private void deliver(String userId, List<Pending> due) {
+        if (due.isEmpty()) return;
+        Set<String> sessions = sseService.sessionIdsOfUser(userId);
+        if (sessions.isEmpty()) {
+            // Still unsent in the database: onConnected reads them back
+            release(due);
+            return;
+        }
+
+        for (Pending p : due) {
+            String msg = p.message();
+            if (p.amount() != null) {
+                msg += " (" + FinanceService.round2(p.amount()) + ")";
+            }
             
-            for (Reminder r : dueReminders) {
-                String msg = r.getMessage();
-                if (r.getAmountAsDouble() != null) {
-                    msg += " (" + FinanceService.round2(r.getAmountAsDouble()) + ")";
+            String escapedMsg = msg.replace("\\", "\\\\").replace("\"", "\\\"");
+            sseService.broadcast(sessions, "{\"type\":\"reminder\",\"message\":\"" + escapedMsg + "\"}");
+        }
+
+        List<String> ids = due.stream().map(Pending::id).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < ids.size(); i += MARK_CHUNK) {
+                    reminderRepository.markAllAsSent(ids.subList(i, Math.min(ids.size(), i + MARK_CHUNK)));
                 }
-                
-                String escapedMsg = msg.replace("\\", "\\\\").replace("\"", "\\\"");
-                sseService.send(sid, "{\"type\":\"reminder\",\"message\":\"" + escapedMsg + "\"}");
-                remindersSent++;
-            }
+            });
+        } catch (Exception e) {
+            log.error("Failed to mark {} reminders as sent", ids.size(), e);
+        } finally {
+            release(due);
+        }
+        remindersSent.increment(due.size());
+        log.info("Reminders sent: user={}, count={}", userId, due.size());
+    }
+
+    private void release(List<Pending> due) {
+        lock.lock();
+        try {
+            due.forEach(p -> known.remove(p.id()));
+        } finally {
+            lock.unlock();
         }
-        
-        if (remindersSent > 0) {
-            log.info("Reminders tick: {} reminders sent", remindersSent);
+    }
+
+    // Callers hold the lock
+    private void enqueue(Pending p) {
+        if (!known.add(p.id())) return;
+        upcoming.add(p);
+    }
+
+    // Callers hold the lock
+    private void armTimer() {
+        Pending head = upcoming.peek();
+        if (head == null || head.dueEpochDay() >= timerDay) return;
+
+        if (timer != null) {
+            timer.cancel(false);
         }
+        timerDay = head.dueEpochDay();
+        Instant at = LocalDate.ofEpochDay(timerDay).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        timer = taskScheduler.schedule(this::fire, at);
     }
 }
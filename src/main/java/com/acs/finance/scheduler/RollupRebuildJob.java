@@ -0,0 +1,28 @@
+package com.acs.finance.scheduler;
+
+import com.acs.finance.service.SummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly recomputation of {@code daily_rollups}. Rollups are maintained incrementally on every
+ * write; the rebuild only removes floating-point drift and repairs rows changed outside the app.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RollupRebuildJob {
+
+    private final SummaryService summaryService;
+
+    @Scheduled(cron = "${fintrack.rollup.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        try {
+            summaryService.rebuild();
+        } catch (Exception e) {
+            log.error("Daily rollup rebuild failed", e);
+        }
+    }
+}
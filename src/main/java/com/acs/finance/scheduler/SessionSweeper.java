@@ -0,0 +1,28 @@
+package com.acs.finance.scheduler;
+
+import com.acs.finance.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionSweeper {
+
+    private final AuthService authService;
+
+    @Scheduled(fixedDelayString = "${fintrack.session.sweep-interval-ms:60000}")
+    public void sweep() {
+        try {
+            int touched = authService.flushSessionTouches();
+            int deleted = authService.purgeExpiredSessions();
+            if (deleted > 0) {
+                log.info("Session sweep: {} touched, {} expired sessions deleted", touched, deleted);
+            }
+        } catch (Exception e) {
+            log.error("Session sweep failed", e);
+        }
+    }
+}
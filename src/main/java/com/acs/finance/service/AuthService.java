@@ -4,31 +4,97 @@ import com.acs.finance.entity.Session;
 import com.acs.finance.entity.User;
 import com.acs.finance.repository.SessionRepository;
 import com.acs.finance.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuthService {
 
+    /** Cached session; {@code touchedAt} is the last activity already queued for the database. */
+    private record CachedSession(String username, long touchedAt) {
+    }
+
+    private static final int SID_LENGTH = 32;
+
     private final UserRepository userRepository;
     private final SessionRepository sessionRepository;
-    
-    // In-memory cache for quick session lookups
-    private final Map<String, User> userCache = new ConcurrentHashMap<>();
-    private final Map<String, String> sessionCache = new ConcurrentHashMap<>(); // sid -> username
+    private final long sessionTtlMillis;
+    private final long touchIntervalMillis;
+
+    // Bounded caches with sliding expiry; users are keyed by id with a username -> id index
+    private final Cache<String, User> usersById;
+    private final Cache<String, String> userIdsByUsername;
+    private final Cache<String, CachedSession> sessionCache; // sid -> username
+    // SIDs recently proven invalid (unknown, expired, logged out): repeat lookups skip the database
+    private final Cache<String, Boolean> invalidSids;
+
+    // Session activity not yet written to sessions.last_seen_at (flushed by SessionSweeper)
+    private final Map<String, Long> pendingTouches = new ConcurrentHashMap<>();
+
+    public AuthService(UserRepository userRepository,
+                       SessionRepository sessionRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${fintrack.session.ttl:30d}") Duration sessionTtl,
+                       @Value("${fintrack.session.touch-interval:5m}") Duration touchInterval,
+                       @Value("${fintrack.session.cache-max-size:100000}") long maxSessions,
+                       @Value("${fintrack.user.cache-max-size:50000}") long maxUsers,
+                       @Value("${fintrack.session.invalid-cache-max-size:100000}") long maxInvalidSids,
+                       @Value("${fintrack.session.invalid-cache-ttl:10m}") Duration invalidSidTtl) {
+        this.userRepository = userRepository;
+        this.sessionRepository = sessionRepository;
+        this.sessionTtlMillis = sessionTtl.toMillis();
+        this.touchIntervalMillis = touchInterval.toMillis();
+
+        this.sessionCache = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfterAccess(sessionTtl)
+                .recordStats()
+                .build();
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofHours(1))
+                .recordStats()
+                .build();
+        this.userIdsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+        this.invalidSids = Caffeine.newBuilder()
+                .maximumSize(maxInvalidSids)
+                .expireAfterWrite(invalidSidTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, sessionCache, "fintrack.sessions");
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "fintrack.users");
+        CaffeineCacheMetrics.monitor(meterRegistry, invalidSids, "fintrack.sessions.invalid");
+        // cache.gets{result=hit|miss} gives the rate over any window; this is the ratio since start
+        Gauge.builder("fintrack.auth.cache.hit.ratio", sessionCache, c -> c.stats().hitRate())
+                .tag("cache", "fintrack.sessions")
+                .register(meterRegistry);
+        Gauge.builder("fintrack.auth.cache.hit.ratio", usersById, c -> c.stats().hitRate())
+                .tag("cache", "fintrack.users")
+                .register(meterRegistry);
+    }
 
     @Transactional
     public User register(String username, String password) {
@@ -49,7 +115,7 @@ public class AuthService {
             user.setShare(1.0);
             
             user = userRepository.save(user);
-            userCache.put(username, user);
+            cacheUser(user);
             
             log.info("User successfully registered: {}", username);
             return user;
@@ -59,16 +125,9 @@ public class AuthService {
         }
     }
 
+    @Transactional(readOnly = true)
     public User login(String username, String password) {
-        User user = userCache.get(username);
-        
-        if (user == null) {
-            Optional<User> found = userRepository.findByUsername(username);
-            if (found.isPresent()) {
-                user = found.get();
-                userCache.put(username, user);
-            }
-        }
+        User user = getUserByUsername(username);
         
         if (user == null) {
             log.warn("Login failed: user not found: {}", username);
@@ -86,13 +145,16 @@ public class AuthService {
     @Transactional
     public String createSession(String username) {
         String sid = generateToken();
-        sessionCache.put(sid, username);
+        Instant now = Instant.now();
+        sessionCache.put(sid, new CachedSession(username, now.toEpochMilli()));
+        invalidSids.invalidate(sid);
         
         try {
             Session session = new Session();
             session.setSid(sid);
             session.setUsername(username);
-            session.setCreatedAt(Instant.now());
+            session.setCreatedAt(now);
+            session.setLastSeenAt(now.toEpochMilli());
             sessionRepository.save(session);
         } catch (Exception e) {
             log.error("Failed to create session in database: {}", username, e);
@@ -104,7 +166,11 @@ public class AuthService {
     @Transactional
     public void destroySession(String sid) {
         if (sid != null) {
-            sessionCache.remove(sid);
+            sessionCache.invalidate(sid);
+            pendingTouches.remove(sid);
+            if (isWellFormedSid(sid)) {
+                invalidSids.put(sid, Boolean.TRUE);
+            }
             try {
                 sessionRepository.deleteById(sid);
             } catch (Exception e) {
@@ -113,44 +179,51 @@ public class AuthService {
         }
     }
 
+    /**
+     * Resolves the session owner. Activity slides the expiry; the database copy of
+     * {@code last_seen_at} is refreshed at most once per touch interval, in the background.
+     * Malformed SIDs and SIDs recently found invalid are rejected without a database read.
+     */
+    @Transactional(readOnly = true)
     public User getUserBySession(String sid) {
-        if (sid == null) return null;
+        if (!isWellFormedSid(sid)) return null;
         
-        String username = sessionCache.get(sid);
-        if (username == null) {
+        long now = System.currentTimeMillis();
+        CachedSession cached = sessionCache.getIfPresent(sid);
+        if (cached == null) {
+            if (invalidSids.getIfPresent(sid) != null) return null;
             try {
                 Optional<Session> session = sessionRepository.findBySid(sid);
-                if (session.isPresent()) {
-                    username = session.get().getUsername();
-                    sessionCache.put(sid, username);
+                Long lastSeen = session.map(Session::getLastSeenAt).orElse(null);
+                if (session.isEmpty() || lastSeen != null && now - lastSeen > sessionTtlMillis) {
+                    // Unknown or expired (the sweeper deletes the row)
+                    invalidSids.put(sid, Boolean.TRUE);
+                    return null;
                 }
+                cached = new CachedSession(session.get().getUsername(), lastSeen != null ? lastSeen : now);
+                sessionCache.put(sid, cached);
             } catch (Exception e) {
                 log.error("Failed to get session from database", e);
             }
         }
         
-        if (username == null) return null;
-        
-        User user = userCache.get(username);
-        if (user == null) {
-            Optional<User> found = userRepository.findByUsername(username);
-            if (found.isPresent()) {
-                user = found.get();
-                userCache.put(username, user);
-            }
+        if (cached == null) return null;
+
+        if (now - cached.touchedAt() >= touchIntervalMillis) {
+            sessionCache.put(sid, new CachedSession(cached.username(), now));
+            pendingTouches.merge(sid, now, Math::max);
         }
         
-        return user;
+        return getUserByUsername(cached.username());
     }
 
+    @Transactional(readOnly = true)
     public User getUserById(String userId) {
         if (userId == null || userId.isEmpty()) return null;
         
-        // Check cache first
-        for (User u : userCache.values()) {
-            if (u.getId().equals(userId)) {
-                return u;
-            }
+        User cached = usersById.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
         }
         
         // Check database
@@ -158,7 +231,7 @@ public class AuthService {
             Optional<User> found = userRepository.findById(userId);
             if (found.isPresent()) {
                 User user = found.get();
-                userCache.put(user.getUsername(), user);
+                cacheUser(user);
                 return user;
             } else {
                 log.warn("User not found in DB: id={}", userId);
@@ -170,6 +243,52 @@ public class AuthService {
         return null;
     }
 
+    /**
+     * Writes queued session activity to {@code sessions.last_seen_at}.
+     */
+    @Transactional
+    public int flushSessionTouches() {
+        if (pendingTouches.isEmpty()) return 0;
+
+        Map<String, Long> batch = new HashMap<>();
+        for (String sid : pendingTouches.keySet()) {
+            Long ts = pendingTouches.remove(sid);
+            if (ts != null) batch.put(sid, ts);
+        }
+        int updated = 0;
+        for (Map.Entry<String, Long> e : batch.entrySet()) {
+            updated += sessionRepository.touch(e.getKey(), e.getValue());
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes sessions idle for longer than the TTL (indexed on {@code last_seen_at}).
+     */
+    @Transactional
+    public int purgeExpiredSessions() {
+        return sessionRepository.deleteExpired(System.currentTimeMillis() - sessionTtlMillis);
+    }
+
+    private User getUserByUsername(String username) {
+        String userId = userIdsByUsername.getIfPresent(username);
+        User user = userId != null ? usersById.getIfPresent(userId) : null;
+        
+        if (user == null) {
+            Optional<User> found = userRepository.findByUsername(username);
+            if (found.isPresent()) {
+                user = found.get();
+                cacheUser(user);
+            }
+        }
+        return user;
+    }
+
+    private void cacheUser(User user) {
+        usersById.put(user.getId(), user);
+        userIdsByUsername.put(user.getUsername(), user.getId());
+    }
+
     private static String hashPassword(String pwd) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -184,6 +303,18 @@ public class AuthService {
         return hashPassword(pwd).equals(hash);
     }
 
+    /** Shape of {@link #generateToken()}: 24 random bytes, URL-safe Base64 without padding. */
+    private static boolean isWellFormedSid(String sid) {
+        if (sid == null || sid.length() != SID_LENGTH) return false;
+        for (int i = 0; i < SID_LENGTH; i++) {
+            char c = sid.charAt(i);
+            boolean ok = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+            if (!ok) return false;
+        }
+        return true;
+    }
+
     private static String generateToken() {
         byte[] b = new byte[24];
         new SecureRandom().nextBytes(b);
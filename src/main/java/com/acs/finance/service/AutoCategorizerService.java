@@ -2,52 +2,81 @@ package com.acs.finance.service;
 
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class AutoCategorizerService {
 
-    private final Map<String, String> keywordToCategory = new ConcurrentHashMap<>();
+    // Source of truth for rules; guarded by "this", insertion order kept for stable rebuilds
+    private final Map<String, KeywordAutomaton.Rule> rules = new LinkedHashMap<>();
+    // Compiled matcher, replaced as a whole on every rule change
+    private volatile KeywordAutomaton automaton = KeywordAutomaton.EMPTY;
 
     public AutoCategorizerService() {
-        // Simple defaults (ru/ro/en keywords)
-        addRule("еда", "Питание");
-        addRule("ресторан", "Питание");
-        addRule("кафе", "Питание");
-        addRule("market", "Питание");
-        addRule("supermarket", "Питание");
-        addRule("alimentara", "Питание");
-        addRule("такси", "Транспорт");
-        addRule("transport", "Транспорт");
-        addRule("bus", "Транспорт");
-        addRule("аренда", "Жильё");
-        addRule("квартира", "Жильё");
-        addRule("rent", "Жильё");
-        addRule("зарплата", "Доход");
-        addRule("salary", "Доход");
-        addRule("аптека", "Здоровье");
-        addRule("pharmacy", "Здоровье");
+        // Simple defaults (ru/ro/en keywords), kept in declaration order
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("еда", "Питание");
+        defaults.put("ресторан", "Питание");
+        defaults.put("кафе", "Питание");
+        defaults.put("market", "Питание");
+        defaults.put("supermarket", "Питание");
+        defaults.put("alimentara", "Питание");
+        defaults.put("такси", "Транспорт");
+        defaults.put("transport", "Транспорт");
+        defaults.put("bus", "Транспорт");
+        defaults.put("аренда", "Жильё");
+        defaults.put("квартира", "Жильё");
+        defaults.put("rent", "Жильё");
+        defaults.put("зарплата", "Доход");
+        defaults.put("salary", "Доход");
+        defaults.put("аптека", "Здоровье");
+        defaults.put("pharmacy", "Здоровье");
+        addRules(defaults);
     }
 
     public void addRule(String keyword, String category) {
-        if (keyword == null || keyword.isBlank() || category == null || category.isBlank()) {
-            return;
+        addRule(keyword, category, 0);
+    }
+
+    /**
+     * Adds or replaces a rule. When several keywords match a description, the highest
+     * priority wins, then the longest keyword, then the earliest occurrence.
+     */
+    public synchronized void addRule(String keyword, String category, int priority) {
+        if (putRule(keyword, category, priority)) {
+            automaton = KeywordAutomaton.compile(rules.values());
+        }
+    }
+
+    /**
+     * Adds several rules with default priority and recompiles the matcher once.
+     */
+    public synchronized void addRules(Map<String, String> keywordToCategory) {
+        boolean changed = false;
+        for (Map.Entry<String, String> e : keywordToCategory.entrySet()) {
+            changed |= putRule(e.getKey(), e.getValue(), 0);
+        }
+        if (changed) {
+            automaton = KeywordAutomaton.compile(rules.values());
         }
-        keywordToCategory.put(keyword.toLowerCase(Locale.ROOT).trim(), category.trim());
     }
 
     public String categorize(String description) {
         if (description == null || description.isBlank()) {
             return null;
         }
-        String d = description.toLowerCase(Locale.ROOT);
-        for (Map.Entry<String, String> e : keywordToCategory.entrySet()) {
-            if (d.contains(e.getKey())) {
-                return e.getValue();
-            }
+        KeywordAutomaton.Rule rule = automaton.match(description);
+        return rule != null ? rule.category() : null;
+    }
+
+    private boolean putRule(String keyword, String category, int priority) {
+        if (keyword == null || keyword.isBlank() || category == null || category.isBlank()) {
+            return false;
         }
-        return null;
+        String k = keyword.toLowerCase(Locale.ROOT).trim();
+        rules.put(k, new KeywordAutomaton.Rule(k, category.trim(), priority));
+        return true;
     }
 }
@@ -1,199 +1,260 @@
 package com.acs.finance.service;
 
-import com.acs.finance.model.CurrencyRates;
+import com.acs.finance.service.rates.CurrencyCodes;
+import com.acs.finance.service.rates.HistoricalRateStore;
+import com.acs.finance.service.rates.RateConverter;
+import com.acs.finance.service.rates.RateProvider;
+import com.acs.finance.service.rates.RatesSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+/**
+ * Exchange rates served from memory; the network is only touched in the background.
+ * <p>
+ * Latest rates are refreshed by {@code RateRefreshJob} (and opportunistically when a request sees
+ * them older than {@code refresh-after}). Concurrent refreshes collapse into one provider call.
+ * Until a refresh succeeds the previous rates keep being served, up to {@code max-staleness};
+ * past that, or before the first successful fetch, the built-in fallback rates are returned.
+ */
 @Service
 @Slf4j
 public class CurrencyService {
 
-    private volatile CurrencyRates cache;
-    private volatile long cacheAt;
-    private final Object cacheLock = new Object();
-    private final ConcurrentHashMap<String, Object[]> histCache = new ConcurrentHashMap<>();
-    
-    private static final long TTL_LATEST_MS = 60 * 60 * 1000L; // 1 hour
-    private static final long TTL_HISTORY_MS = 6 * 60 * 60 * 1000L; // 6 hours
+    public static final String BASE = CurrencyCodes.BASE;
 
-    public CurrencyRates getRates() {
-        long now = System.currentTimeMillis();
-        
-        // Fast path: check cache without locking
-        CurrencyRates currentCache = cache;
-        if (currentCache != null && (now - cacheAt) < TTL_LATEST_MS) {
-            return currentCache;
-        }
-        
-        // Slow path: synchronize cache update
-        synchronized (cacheLock) {
-            currentCache = cache;
-            if (currentCache != null && (now - cacheAt) < TTL_LATEST_MS) {
-                return currentCache;
-            }
-            
-            try {
-                CurrencyRates r = fetch();
-                if (r != null) {
-                    cache = r;
-                    cacheAt = now;
-                    log.info("Currency rates updated successfully: base={}, currencies={}", r.getBase(), r.getRates().size());
-                    return r;
-                }
-            } catch (Exception e) {
-                log.error("Failed to fetch currency rates from external API", e);
-            }
-            
-            // Fallback stub
-            log.warn("Using fallback currency rates (stub data)");
-            Map<String, Double> stub = new HashMap<>();
-            stub.put("USD", 0.057);
-            stub.put("EUR", 0.053);
-            stub.put("RUB", 5.2);
-            CurrencyRates fallback = new CurrencyRates("MDL", stub, now);
-            cache = fallback;
-            cacheAt = now;
+    private final RateProvider rateProvider;
+    private final HistoricalRateStore historicalRates;
+    private final List<String> symbols;
+    private final long refreshAfterMs;
+    private final long maxStalenessMs;
+    private final long retryAfterMs;
+    private final RatesSnapshot fallback;
+
+    /** Last successfully fetched latest rates; null until the first refresh succeeds. */
+    private volatile RatesSnapshot current;
+    private volatile long lastAttemptAt;
+    private final AtomicReference<CompletableFuture<RatesSnapshot>> inFlight = new AtomicReference<>();
+
+    private final Timer refreshSuccess;
+    private final Timer refreshFailure;
+    private final Counter servedFresh;
+    private final Counter servedStale;
+    private final Counter servedFallback;
+
+    public CurrencyService(RateProvider rateProvider,
+                           HistoricalRateStore historicalRates,
+                           MeterRegistry meterRegistry,
+                           @Value("${fintrack.rates.symbols:USD,EUR,RUB}") String symbols,
+                           @Value("${fintrack.rates.refresh-after:1h}") Duration refreshAfter,
+                           @Value("${fintrack.rates.max-staleness:24h}") Duration maxStaleness,
+                           @Value("${fintrack.rates.retry-after:1m}") Duration retryAfter) {
+        this.rateProvider = rateProvider;
+        this.historicalRates = historicalRates;
+        this.symbols = symbols == null ? List.of() : Arrays.stream(symbols.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+        this.refreshAfterMs = refreshAfter != null ? refreshAfter.toMillis() : 0;
+        this.maxStalenessMs = maxStaleness != null ? maxStaleness.toMillis() : 0;
+        this.retryAfterMs = retryAfter != null ? retryAfter.toMillis() : 0;
+
+        Map<String, Double> stub = new HashMap<>();
+        stub.put("USD", 0.057);
+        stub.put("EUR", 0.053);
+        stub.put("RUB", 5.2);
+        this.fallback = RatesSnapshot.of(stub, 0L);
+
+        this.refreshSuccess = Timer.builder("fintrack.rates.refresh")
+                .description("Latest rates fetches from the provider")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.refreshFailure = Timer.builder("fintrack.rates.refresh")
+                .description("Latest rates fetches from the provider")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        this.servedFresh = lookups(meterRegistry, "fresh");
+        this.servedStale = lookups(meterRegistry, "stale");
+        this.servedFallback = lookups(meterRegistry, "fallback");
+        Gauge.builder("fintrack.rates.age", this, s -> s.ageSeconds())
+                .baseUnit("seconds")
+                .description("Age of the latest rates being served")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String served) {
+        return Counter.builder("fintrack.rates.lookups")
+                .description("Latest rates lookups by what was served")
+                .tag("served", served)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Latest rates without waiting on the network; see the class comment for what is served when.
+     */
+    public RatesSnapshot snapshot() {
+        refreshIfDue();
+        RatesSnapshot r = current;
+        long age = r != null ? System.currentTimeMillis() - r.getTimestamp() : Long.MAX_VALUE;
+        if (age > maxStalenessMs) {
+            servedFallback.increment();
             return fallback;
         }
+        (age < refreshAfterMs ? servedFresh : servedStale).increment();
+        return r;
     }
 
-    public double convert(String from, String to, double amount, String date) {
-        if (from == null || to == null) return Double.NaN;
-        from = from.toUpperCase();
-        to = to.toUpperCase();
-        
-        Map<String, Double> mdlMap = new HashMap<>(getRates().getRates());
-        mdlMap.put("MDL", 1.0);
-        
-        if (date != null && !date.isBlank()) {
-            Map<String, Double> histRates = historyOnDate("MDL", List.of(from, to), date);
-            if (histRates != null && histRates.containsKey(from) && histRates.containsKey(to)) {
-                mdlMap = new HashMap<>(histRates);
-                mdlMap.put("MDL", 1.0);
-            }
+    /**
+     * Whether {@code rates} are within {@code refresh-after}, i.e. not being served stale.
+     */
+    public boolean isFresh(RatesSnapshot rates) {
+        return rates != fallback && System.currentTimeMillis() - rates.getTimestamp() < refreshAfterMs;
+    }
+
+    /**
+     * Starts a refresh when the rates are older than {@code refresh-after} (or missing) and the
+     * last attempt is at least {@code retry-after} ago. Returns immediately.
+     */
+    public void refreshIfDue() {
+        long now = System.currentTimeMillis();
+        RatesSnapshot r = current;
+        boolean due = r == null || now - r.getTimestamp() >= refreshAfterMs;
+        if (due && now - lastAttemptAt >= retryAfterMs) {
+            refresh();
         }
-        
-        Double rf = mdlMap.get(from);
-        Double rt = mdlMap.get(to);
-        if (rf == null || rt == null || rf == 0.0) return Double.NaN;
-        
-        double rate;
-        if (from.equals("MDL")) rate = rt;
-        else if (to.equals("MDL")) rate = 1.0 / rf;
-        else rate = rt / rf;
-        
-        return amount * rate;
     }
 
-    public Map<String, Double> historyOnDate(String base, List<String> symbols, String date) {
-        try {
-            String sym = String.join(",", symbols);
-            String url = "https://api.exchangerate.host/" + date + "?base=" + encode(base) + "&symbols=" + encode(sym);
-            String key = "d:" + url;
-            
-            Object[] cached = histCache.get(key);
-            long now = System.currentTimeMillis();
-            if (cached != null && now - (long) cached[0] < TTL_HISTORY_MS) {
-                @SuppressWarnings("unchecked")
-                Map<String, Double> m = (Map<String, Double>) cached[1];
-                return m;
+    /**
+     * Single-flight refresh of the latest rates: callers arriving while a fetch is running get
+     * the same future.
+     */
+    public CompletableFuture<RatesSnapshot> refresh() {
+        while (true) {
+            CompletableFuture<RatesSnapshot> running = inFlight.get();
+            if (running != null) {
+                return running;
             }
-            
-            Map<String, Double> map = fetchRatesObject(url);
-            if (map != null) {
-                histCache.put(key, new Object[]{now, map});
-            } else {
-                log.warn("Failed to fetch currency history: date={}", date);
+            CompletableFuture<RatesSnapshot> mine = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, mine)) {
+                lastAttemptAt = System.currentTimeMillis();
+                long started = System.nanoTime();
+                call(() -> rateProvider.latest(BASE, symbols)).whenComplete((map, err) -> {
+                    RatesSnapshot updated = null;
+                    if (err == null && map != null && !map.isEmpty()) {
+                        // Built once here; readers only ever see a complete snapshot
+                        updated = RatesSnapshot.of(map, System.currentTimeMillis());
+                        current = updated;
+                        refreshSuccess.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                        log.info("Currency rates updated: base={}, currencies={}", BASE, map.size());
+                    } else {
+                        refreshFailure.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                        log.warn("Currency rates refresh failed, serving previous rates: {}", describe(err));
+                    }
+                    inFlight.set(null);
+                    if (updated != null) {
+                        mine.complete(updated);
+                    } else {
+                        mine.completeExceptionally(err != null ? err : new IllegalStateException("empty rates"));
+                    }
+                });
+                return mine;
             }
-            return map;
-        } catch (Exception e) {
-            log.error("Error fetching currency history: date={}", date, e);
-            return null;
         }
     }
 
-    private CurrencyRates fetch() {
-        try {
-            String url = "https://api.exchangerate.host/latest?base=MDL&symbols=USD,EUR,RUB";
-            Map<String, Double> map = fetchRatesObject(url);
-            if (map != null) {
-                return new CurrencyRates("MDL", map, System.currentTimeMillis());
-            }
-        } catch (Exception e) {
-            log.error("Failed to fetch currency rates", e);
+    /**
+     * Converts via MDL cross rates. With a date, historical rates are used once they are available
+     * locally (see {@link HistoricalRateStore}); until then the latest rates are used.
+     */
+    public double convert(String from, String to, double amount, String date) {
+        return amount * rate(from, to, date);
+    }
+
+    /**
+     * Converts every amount in place with one rate lookup; returns false (leaving the array
+     * untouched) when the pair cannot be converted.
+     */
+    public boolean convertAll(String from, String to, String date, double[] amounts) {
+        double rate = rate(from, to, date);
+        if (Double.isNaN(rate)) return false;
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = FinanceService.round2(amounts[i] * rate);
         }
-        return null;
+        return true;
     }
 
-    private Map<String, Double> fetchRatesObject(String urlStr) {
-        try {
-            URL url = new URL(urlStr);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-            
-            if (conn.getResponseCode() != 200) {
-                return null;
-            }
-            
-            StringBuilder sb = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    sb.append(line);
+    /**
+     * Units of {@code to} per one {@code from} on {@code date} (latest when blank or not yet
+     * available), NaN for unknown currencies.
+     */
+    public double rate(String from, String to, String date) {
+        if (from == null || to == null) return Double.NaN;
+
+        if (date != null && !date.isBlank()) {
+            try {
+                double rate = historicalRates.crossRate(LocalDate.parse(date).toEpochDay(), from, to);
+                if (!Double.isNaN(rate)) {
+                    return rate;
                 }
+            } catch (DateTimeParseException e) {
+                log.warn("Bad currency history date: {}", date);
             }
-            
-            return parseRatesFromJson(sb.toString());
-        } catch (Exception e) {
-            log.error("HTTP request failed: {}", urlStr, e);
-            return null;
         }
+
+        RatesSnapshot snapshot = snapshot();
+        return snapshot.rate(snapshot.slot(from), snapshot.slot(to));
+    }
+
+    /**
+     * Converter into {@code currency} for one report, or null if the currency is unknown.
+     */
+    public RateConverter converterTo(String currency) {
+        int id = CurrencyCodes.find(currency);
+        if (id < 0) return null;
+        return new RateConverter(historicalRates, snapshot(), CurrencyCodes.codeOf(id));
+    }
+
+    /**
+     * Loads historical rates for {@code from..to} so later conversions in that range stay local.
+     */
+    public CompletableFuture<Void> prefetchHistory(LocalDate from, LocalDate to) {
+        return historicalRates.prefetch(from, to);
+    }
+
+    private double ageSeconds() {
+        RatesSnapshot r = current;
+        return r != null ? (System.currentTimeMillis() - r.getTimestamp()) / 1000.0 : Double.NaN;
     }
 
-    private Map<String, Double> parseRatesFromJson(String json) {
-        // Simple JSON parsing without external dependencies
-        Map<String, Double> result = new HashMap<>();
+    /** Provider calls that throw synchronously are turned into failed futures. */
+    private static <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> supplier) {
         try {
-            int ratesStart = json.indexOf("\"rates\"");
-            if (ratesStart < 0) return null;
-            
-            int braceStart = json.indexOf("{", ratesStart);
-            int braceEnd = json.indexOf("}", braceStart);
-            if (braceStart < 0 || braceEnd < 0) return null;
-            
-            String ratesStr = json.substring(braceStart + 1, braceEnd);
-            String[] pairs = ratesStr.split(",");
-            
-            for (String pair : pairs) {
-                String[] kv = pair.split(":");
-                if (kv.length == 2) {
-                    String key = kv[0].trim().replace("\"", "");
-                    double value = Double.parseDouble(kv[1].trim());
-                    result.put(key, value);
-                }
-            }
-            
-            return result.isEmpty() ? null : result;
-        } catch (Exception e) {
-            log.error("Failed to parse currency rates JSON", e);
-            return null;
+            return supplier.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    private static String encode(String s) {
-        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    private static String describe(Throwable err) {
+        if (err == null) return "empty response";
+        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        return cause.toString();
     }
 }
@@ -0,0 +1,76 @@
+package com.acs.finance.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic data versions for conditional GETs: one per user (transactions, budgets, reminders)
+ * and one per group (group budget). Read endpoints turn them into ETags before reading anything,
+ * so an unchanged {@code If-None-Match} is answered with 304 without touching the database.
+ * <p>
+ * Versions live in memory only; the boot id in every tag makes tags from a previous run mismatch.
+ * A version is bumped only after the writing transaction commits, and readers take the tag before
+ * reading, so a tag is never paired with data older than it.
+ */
+@Service
+public class DataVersionService {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    // One sequence for all keys: an entry that was never bumped (0) cannot repeat a later value
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> groups = new ConcurrentHashMap<>();
+
+    /**
+     * The user's transactions, budgets or reminders changed; takes effect after the current
+     * transaction commits (immediately outside one).
+     */
+    public void userChanged(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            users.put(userId, sequence.incrementAndGet());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                users.put(userId, sequence.incrementAndGet());
+            }
+        });
+    }
+
+    /**
+     * The group's budget totals changed. Takes effect immediately: {@link GroupBudgetService}
+     * calls it from its own after-commit eviction.
+     */
+    public void groupCommitted(String groupId) {
+        groups.put(groupId, sequence.incrementAndGet());
+    }
+
+    public String userTag(String userId) {
+        return tag("u", users.getOrDefault(userId, 0L), null);
+    }
+
+    /** For data that also depends on the current budget period, which rolls over by day. */
+    public String userTag(String userId, LocalDate day) {
+        return tag("u", users.getOrDefault(userId, 0L), day);
+    }
+
+    public String groupTag(String groupId, LocalDate day) {
+        return tag("g", groups.getOrDefault(groupId, 0L), day);
+    }
+
+    private String tag(String kind, long version, LocalDate day) {
+        // Weak: the same version may be sent gzip-compressed or not
+        StringBuilder sb = new StringBuilder(40).append("W/\"").append(bootId).append('-').append(kind).append(version);
+        if (day != null) {
+            sb.append('-').append(day.toEpochDay());
+        }
+        return sb.append('"').toString();
+    }
+}
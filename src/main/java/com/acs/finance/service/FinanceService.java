@@ -2,55 +2,103 @@ package com.acs.finance.service;
 
 import com.acs.finance.entity.Budget;
 import com.acs.finance.entity.BudgetId;
+import com.acs.finance.entity.BudgetPeriod;
 import com.acs.finance.entity.Reminder;
 import com.acs.finance.entity.Transaction;
+import com.acs.finance.model.BudgetStatus;
+import com.acs.finance.model.PeerTotal;
+import com.acs.finance.model.TransactionAdded;
+import com.acs.finance.model.TransactionCursor;
+import com.acs.finance.model.TransactionPage;
 import com.acs.finance.repository.BudgetRepository;
+import com.acs.finance.repository.BudgetSpendRepository;
+import com.acs.finance.repository.DailyRollupRepository;
 import com.acs.finance.repository.ReminderRepository;
+import com.acs.finance.repository.TransactionJdbcRepository;
 import com.acs.finance.repository.TransactionRepository;
+import com.acs.finance.service.rates.CurrencyCodes;
+import com.acs.finance.service.rates.RateConverter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FinanceService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z]{3}");
+
     private final TransactionRepository transactionRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final DailyRollupRepository dailyRollupRepository;
     private final BudgetRepository budgetRepository;
+    private final BudgetSpendRepository budgetSpendRepository;
     private final ReminderRepository reminderRepository;
+    private final GroupCommitWriter groupCommitWriter;
+    private final GroupBudgetService groupBudgetService;
+    private final DataVersionService dataVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrencyService currencyService;
 
-    @Transactional
-    public Transaction addTransaction(String userId, LocalDate date, String category, String description, double amount) {
-        Transaction transaction = Transaction.builder()
-                .userId(userId)
-                .dateEpochDay(date.toEpochDay())
-                .category(category)
-                .description(description)
-                .amount(BigDecimal.valueOf(amount))
-                .build();
-        
-        transaction = transactionRepository.save(transaction);
-        
-        // Update budget spent if expense with category
-        if (category != null && amount < 0) {
-            try {
-                budgetRepository.addSpent(userId, category, BigDecimal.valueOf(-amount));
-            } catch (Exception e) {
-                log.error("Failed to update budget spent", e);
+    /**
+     * Inserts the transaction and updates budget spent; with write-behind enabled the insert
+     * shares a commit with concurrent writes (see {@link GroupCommitWriter}). For an expense in a
+     * budgeted category the result carries the budget's spent/limit for the transaction's period.
+     * Budgets are kept in the base currency: other currencies count at the transaction date's rate.
+     */
+    public TransactionAdded addTransaction(String userId, LocalDate date, String category, String description,
+                                           double amount, String currency) {
+        String code = normalizeCurrency(currency);
+        // Converted before the writer thread picks it up; a rate lookup never waits on the network
+        double spend = category != null && amount < 0 ? toBase(date.toEpochDay(), code, -amount) : Double.NaN;
+        return groupCommitWriter.execute(() -> {
+            Transaction transaction = Transaction.builder()
+                    .userId(userId)
+                    .dateEpochDay(date.toEpochDay())
+                    .category(category)
+                    .description(description)
+                    .amount(BigDecimal.valueOf(amount))
+                    .currency(code)
+                    .build();
+
+            transaction = transactionRepository.save(transaction);
+            dailyRollupRepository.add(transaction);
+            dataVersions.userChanged(userId);
+
+            // Update budget spent if expense with category
+            BudgetStatus budget = null;
+            if (!Double.isNaN(spend)) {
+                try {
+                    budget = budgetSpendRepository.addSpent(userId, category, transaction.getDateEpochDay(), spend);
+                    if (budget != null) {
+                        groupBudgetService.userChanged(userId);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to update budget spent", e);
+                }
             }
-        }
-        
-        return transaction;
+
+            return new TransactionAdded(transaction, budget);
+        });
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> listTransactions(String userId, LocalDate from, LocalDate to, String category) {
         Long fromEpoch = from != null ? from.toEpochDay() : null;
         Long toEpoch = to != null ? to.toEpochDay() : null;
@@ -59,53 +107,179 @@ public class FinanceService {
         return transactionRepository.findFiltered(userId, fromEpoch, toEpoch, cat);
     }
 
-    @Transactional
-    public boolean deleteTransaction(String userId, String txId) {
-        Optional<Transaction> found = transactionRepository.findById(txId);
-        
-        if (found.isEmpty() || !found.get().getUserId().equals(userId)) {
-            log.warn("Transaction not found for deletion: txId={}, userId={}", txId, userId);
-            return false;
+    /**
+     * Keyset page ordered by {@code (date, id)}, starting strictly after {@code after}.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage listTransactionsPage(String userId, LocalDate from, LocalDate to, String category,
+                                                TransactionCursor after, int limit) {
+        Long fromEpoch = from != null ? from.toEpochDay() : null;
+        Long toEpoch = to != null ? to.toEpochDay() : null;
+        String cat = (category != null && !category.isBlank()) ? category : null;
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // One extra row tells whether another page exists
+        List<Transaction> rows = transactionRepository.findPage(userId, fromEpoch, toEpoch, cat,
+                after != null ? after.dateEpochDay() : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
+
+        if (rows.size() <= size) {
+            return new TransactionPage(rows, null);
         }
-        
-        Transaction tx = found.get();
-        transactionRepository.delete(tx);
-        
-        // Adjust budget if needed
-        if (tx.getAmountAsDouble() < 0 && tx.getCategory() != null) {
-            try {
-                budgetRepository.addSpent(userId, tx.getCategory(), BigDecimal.valueOf(tx.getAmountAsDouble()));
-            } catch (Exception e) {
-                log.error("Failed to update budget after transaction deletion", e);
+        List<Transaction> page = rows.subList(0, size);
+        return new TransactionPage(page, TransactionCursor.after(page.get(size - 1)));
+    }
+
+    /**
+     * Streams matching transactions row by row without loading entities.
+     */
+    @Transactional(readOnly = true)
+    public void streamTransactions(String userId, LocalDate from, LocalDate to, String category,
+                                   TransactionJdbcRepository.RowConsumer consumer) {
+        Long fromEpoch = from != null ? from.toEpochDay() : null;
+        Long toEpoch = to != null ? to.toEpochDay() : null;
+        String cat = (category != null && !category.isBlank()) ? category : null;
+
+        transactionJdbcRepository.stream(userId, fromEpoch, toEpoch, cat, consumer);
+    }
+
+    public boolean deleteTransaction(String userId, String txId) {
+        return groupCommitWriter.execute(() -> {
+            Optional<Transaction> found = transactionRepository.findById(txId);
+
+            if (found.isEmpty() || !found.get().getUserId().equals(userId)) {
+                log.warn("Transaction not found for deletion: txId={}, userId={}", txId, userId);
+                return false;
+            }
+
+            Transaction tx = found.get();
+            transactionRepository.delete(tx);
+            dailyRollupRepository.remove(tx);
+            dataVersions.userChanged(userId);
+
+            // Adjust budget if needed
+            double spend = tx.getAmountAsDouble() < 0 && tx.getCategory() != null
+                    ? toBase(tx.getDateEpochDay(), tx.getCurrency(), tx.getAmountAsDouble()) : Double.NaN;
+            if (!Double.isNaN(spend)) {
+                try {
+                    if (budgetSpendRepository.addSpent(userId, tx.getCategory(), tx.getDateEpochDay(), spend) != null) {
+                        groupBudgetService.userChanged(userId);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to update budget after transaction deletion", e);
+                }
             }
+
+            return true;
+        });
+    }
+
+    /**
+     * Income/expense totals of every member of the group in the base currency, aggregated in the
+     * database; other currencies are converted at each day's rate.
+     */
+    @Transactional(readOnly = true)
+    public List<PeerTotal> groupPeerTotals(String groupId, LocalDate from, LocalDate to) {
+        List<TransactionRepository.PeerRow> rows = transactionRepository.groupPeerTotals(groupId,
+                from != null ? from.toEpochDay() : Long.MIN_VALUE,
+                to != null ? to.toEpochDay() : Long.MAX_VALUE);
+
+        RateConverter toBase = currencyService.converterTo(CurrencyCodes.BASE);
+        Map<String, PeerTotal> totals = new LinkedHashMap<>();
+        int unconverted = 0;
+        for (TransactionRepository.PeerRow row : rows) {
+            double rate = 0.0;
+            if (row.getCurrency() != null) {
+                Long day = row.getEpochDay();
+                rate = toBase.rate(day != null ? day : RateConverter.NO_DAY, row.getCurrency());
+                if (Double.isNaN(rate)) {
+                    unconverted++;
+                    rate = 0.0;
+                }
+            }
+            double income = row.getIncome() * rate;
+            double expense = row.getExpense() * rate;
+            totals.merge(row.getUserId(), new PeerTotal(row.getUserId(), row.getUsername(), income, expense),
+                    (a, b) -> new PeerTotal(a.userId(), a.username(), a.income() + b.income(), a.expense() + b.expense()));
         }
-        
-        return true;
+        if (unconverted > 0) {
+            log.warn("Group peer totals: {} rows without a known rate left out, group={}", unconverted, groupId);
+        }
+        return new ArrayList<>(totals.values());
     }
 
+    /**
+     * Creates or updates a budget. {@code period == null} keeps the current period (ALL_TIME for
+     * new budgets). Whenever an existing budget changes period, and when a new budget starts with
+     * a monthly/weekly period, the current period's bucket is reseeded from expenses already
+     * recorded in it. A new ALL_TIME budget starts from zero, as it always has.
+     */
     @Transactional
-    public Budget setBudget(String userId, String category, double limit) {
+    public Budget setBudget(String userId, String category, double limit, BudgetPeriod period) {
         BudgetId id = new BudgetId(userId, category);
         Optional<Budget> existing = budgetRepository.findById(id);
         
         Budget budget;
+        BudgetPeriod previous = null;
         if (existing.isPresent()) {
             budget = existing.get();
+            previous = budget.getPeriod();
             budget.setLimitAmount(BigDecimal.valueOf(limit));
         } else {
             budget = new Budget(userId, category, limit);
         }
+        if (period != null) {
+            budget.setPeriod(period);
+        }
+        
+        BudgetPeriod current = budget.getPeriod();
+        boolean reseed = previous != null ? current != previous : current != BudgetPeriod.ALL_TIME;
+        if (reseed) {
+            // Back to ALL_TIME this covers [0, Long.MAX_VALUE]: the stale bucket 0 is replaced,
+            // future-dated expenses included
+            long today = LocalDate.now().toEpochDay();
+            int unconverted = budgetSpendRepository.seedFromRollups(userId, category,
+                    current.startOf(today), current.endOf(today), currencyService.converterTo(CurrencyCodes.BASE));
+            if (unconverted > 0) {
+                log.warn("Budget reseed left out {} rollup rows without a known rate: user={}, category={}",
+                        unconverted, userId, category);
+            }
+        }
         
-        return budgetRepository.save(budget);
+        groupBudgetService.userChanged(userId);
+        dataVersions.userChanged(userId);
+        // Flushed so the spent lookup below sees the row
+        budget = budgetRepository.saveAndFlush(budget);
+        fillCurrentSpent(userId, List.of(budget));
+        return budget;
     }
 
+    /**
+     * Budgets with {@code spent} for the current period of each.
+     */
+    @Transactional(readOnly = true)
     public List<Budget> getBudgets(String userId) {
-        return budgetRepository.findByUserId(userId);
+        List<Budget> budgets = budgetRepository.findByUserId(userId);
+        fillCurrentSpent(userId, budgets);
+        return budgets;
     }
 
     @Transactional
     public void deleteBudget(String userId, String category) {
         budgetRepository.deleteByUserIdAndCategory(userId, category);
+        budgetSpendRepository.deleteAll(userId, category);
+        groupBudgetService.userChanged(userId);
+        dataVersions.userChanged(userId);
+    }
+
+    private void fillCurrentSpent(String userId, List<Budget> budgets) {
+        if (budgets.isEmpty()) return;
+        Map<String, Double> spent = budgetSpendRepository.currentSpent(userId, LocalDate.now().toEpochDay());
+        for (Budget b : budgets) {
+            Double value = spent.get(b.getCategory());
+            b.setSpent(BigDecimal.valueOf(value != null ? value : 0.0));
+        }
     }
 
     @Transactional
@@ -118,22 +292,50 @@ public class FinanceService {
                 .sent(false)
                 .build();
         
-        return reminderRepository.save(reminder);
+        reminder = reminderRepository.save(reminder);
+        dataVersions.userChanged(userId);
+        // Picked up by ReminderScheduler after commit
+        eventPublisher.publishEvent(reminder);
+        return reminder;
     }
 
+    @Transactional(readOnly = true)
     public List<Reminder> getReminders(String userId) {
         return reminderRepository.findByUserId(userId);
     }
 
-    @Transactional
-    public List<Reminder> consumeDueReminders(String userId, long todayEpochDay) {
-        List<Reminder> dueReminders = reminderRepository.findDueReminders(userId, todayEpochDay);
-        
-        for (Reminder r : dueReminders) {
-            reminderRepository.markAsSent(r.getId());
+    /**
+     * Upper-case ISO 4217 code; blank means the base currency. Only codes the rate provider has
+     * quoted (registered in {@link CurrencyCodes}) are accepted: a row in any other currency could
+     * never be converted and would silently drop out of converted reports.
+     *
+     * @throws IllegalArgumentException if the value is not a three-letter code or has no known rate
+     */
+    public static String normalizeCurrency(String currency) {
+        if (currency == null || currency.isBlank()) return CurrencyCodes.BASE;
+        String code = currency.trim().toUpperCase(Locale.ROOT);
+        if (!CURRENCY_CODE.matcher(code).matches()) {
+            throw new IllegalArgumentException("bad_currency");
         }
-        
-        return dueReminders;
+        int id = CurrencyCodes.find(code);
+        if (id < 0) {
+            throw new IllegalArgumentException("bad_currency");
+        }
+        return CurrencyCodes.codeOf(id);
+    }
+
+    /**
+     * {@code amount} in the base currency at {@code epochDay}'s rate, or the latest rate when that
+     * day has none locally; NaN when no rate is known at all.
+     */
+    private double toBase(long epochDay, String currency, double amount) {
+        if (currency == null || CurrencyCodes.BASE.equals(currency)) return amount;
+        double rate = currencyService.converterTo(CurrencyCodes.BASE).rate(epochDay, currency);
+        if (Double.isNaN(rate)) {
+            log.warn("No {} rate for {}, budget spend not updated", currency, LocalDate.ofEpochDay(epochDay));
+            return Double.NaN;
+        }
+        return round2(amount * rate);
     }
 
     public static double round2(double v) {
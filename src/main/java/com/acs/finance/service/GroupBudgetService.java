@@ -0,0 +1,175 @@
+package com.acs.finance.service;
+
+import com.acs.finance.entity.GroupMember;
+import com.acs.finance.model.GroupBudgetItem;
+import com.acs.finance.repository.BudgetSpendRepository;
+import com.acs.finance.repository.GroupMemberRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group budget totals for the current budget periods: one SQL aggregate per group, cached until
+ * something it depends on changes or the day changes.
+ * <p>
+ * Writers report which user's budget or spend changed ({@link #userChanged}) or which group's
+ * membership/shares changed ({@link #groupChanged}); only the affected group is evicted, and only
+ * after the writing transaction commits, so a concurrent reload cannot cache pre-commit data.
+ * Each eviction also bumps the group's {@link DataVersionService} version.
+ */
+@Service
+@Slf4j
+public class GroupBudgetService {
+
+    /** Cached totals; {@code epochDay} is the day they were computed for, since periods roll over. */
+    private record Entry(long epochDay, List<GroupBudgetItem> items) {
+    }
+
+    /** epochDay of an entry whose member mapping may be incomplete: never matches today, so it is reloaded. */
+    private static final long RELOAD = Long.MIN_VALUE;
+
+    private final BudgetSpendRepository budgetSpendRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final DataVersionService dataVersions;
+    private final TransactionTemplate readOnlyTx;
+
+    private final Cache<String, Entry> byGroup;
+    // member -> group, for every group currently cached; overwritten on reload, cleared on leave
+    private final Map<String, String> groupOfMember = new ConcurrentHashMap<>();
+    // Bumped on every leave; a load only maps members who have not left since it started reading
+    private final AtomicLong membershipVersion = new AtomicLong();
+    // member -> membershipVersion of their last leave; one entry per user who left since startup
+    private final Map<String, Long> leftAtVersion = new ConcurrentHashMap<>();
+
+    public GroupBudgetService(BudgetSpendRepository budgetSpendRepository,
+                              GroupMemberRepository groupMemberRepository,
+                              DataVersionService dataVersions,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${fintrack.group-budget.cache-max-size:10000}") long maxGroups) {
+        this.budgetSpendRepository = budgetSpendRepository;
+        this.groupMemberRepository = groupMemberRepository;
+        this.dataVersions = dataVersions;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.byGroup = Caffeine.newBuilder()
+                .maximumSize(maxGroups)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byGroup, "fintrack.group-budgets");
+    }
+
+    public List<GroupBudgetItem> budget(String groupId) {
+        long today = LocalDate.now().toEpochDay();
+        Entry entry = byGroup.get(groupId, id -> load(id, today));
+        if (entry.epochDay() != today) {
+            byGroup.asMap().remove(groupId, entry);
+            entry = byGroup.get(groupId, id -> load(id, today));
+        }
+        return entry.items();
+    }
+
+    /**
+     * A user's budget limits or spend changed.
+     */
+    public void userChanged(String userId) {
+        afterCommit(() -> {
+            String groupId = groupOfMember.get(userId);
+            if (groupId != null) {
+                evict(groupId);
+            }
+        });
+    }
+
+    /**
+     * Membership or a member's share changed.
+     */
+    public void groupChanged(String groupId) {
+        afterCommit(() -> evict(groupId));
+    }
+
+    /**
+     * Group of a member of a group loaded since startup, without a query; null when unknown.
+     */
+    public String knownGroupOf(String userId) {
+        return groupOfMember.get(userId);
+    }
+
+    /**
+     * The user left their group; the group itself is invalidated via {@link #groupChanged}.
+     */
+    public void memberLeft(String userId) {
+        // compute() serialises this with load()'s check-and-put for the same user
+        afterCommit(() -> groupOfMember.compute(userId, (id, groupId) -> {
+            leftAtVersion.put(id, membershipVersion.incrementAndGet());
+            return null;
+        }));
+    }
+
+    private void evict(String groupId) {
+        byGroup.invalidate(groupId);
+        dataVersions.groupCommitted(groupId);
+    }
+
+    private Entry load(String groupId, long today) {
+        // Taken before the member list is read: a leave committed after this is not in that read
+        long version = membershipVersion.get();
+        return readOnlyTx.execute(status -> {
+            boolean complete = true;
+            for (GroupMember m : groupMemberRepository.findByGroupId(groupId)) {
+                if (!mapMember(m.getUserId(), groupId, version)) {
+                    complete = false;
+                }
+            }
+            List<GroupBudgetItem> items = budgetSpendRepository.groupTotals(groupId, today).stream()
+                    .map(t -> new GroupBudgetItem(t.category(),
+                            FinanceService.round2(t.limit()), FinanceService.round2(t.spent())))
+                    .toList();
+            // A member we could not map would not evict this entry on their writes, so reload it next time
+            return new Entry(complete ? today : RELOAD, items);
+        });
+    }
+
+    /**
+     * Maps {@code userId} to {@code groupId} unless they left after {@code version}: the read may
+     * predate that leave, and mapping them would resurrect a membership {@link #memberLeft} cleared.
+     */
+    private boolean mapMember(String userId, String groupId, long version) {
+        boolean[] mapped = {false};
+        groupOfMember.compute(userId, (id, current) -> {
+            if (leftAtVersion.getOrDefault(id, 0L) > version) {
+                return current;
+            }
+            mapped[0] = true;
+            return groupId;
+        });
+        return mapped[0];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
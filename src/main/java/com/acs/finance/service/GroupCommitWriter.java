@@ -0,0 +1,217 @@
+package com.acs.finance.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs write operations inside database transactions, optionally coalescing concurrent callers
+ * into one SQLite transaction (group commit).
+ * <p>
+ * With {@code fintrack.write-behind.enabled=false} (default) every operation gets its own
+ * transaction on the calling thread. When enabled, operations are queued and a single worker
+ * commits up to {@code max-batch-size} of them together, waiting at most {@code max-batch-delay}
+ * after the first one arrives. A caller's future completes only after the batch has committed;
+ * the writer connection then runs with {@code synchronous=FULL} (see {@code DataSourceConfig}),
+ * so that commit has been fsynced.
+ * If a batch fails, its operations are retried one by one so that a single bad write
+ * does not fail its neighbours.
+ */
+@Service
+@Slf4j
+public class GroupCommitWriter {
+
+    private record Op<T>(Supplier<T> work, CompletableFuture<T> future, long enqueuedAt) {
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+    private final BlockingQueue<Op<?>> queue;
+
+    private final Timer commitTimer;
+    private final Timer latencyTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public GroupCommitWriter(PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${fintrack.write-behind.enabled:false}") boolean enabled,
+                             @Value("${fintrack.write-behind.max-batch-size:64}") int maxBatchSize,
+                             @Value("${fintrack.write-behind.max-batch-delay:5ms}") Duration maxBatchDelay,
+                             @Value("${fintrack.write-behind.queue-capacity:4096}") int queueCapacity) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxBatchDelayNanos = maxBatchDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        this.commitTimer = Timer.builder("fintrack.write.commit")
+                .description("Time to execute and commit one write batch")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("fintrack.write.latency")
+                .description("Time from submit until the write is durably committed")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("fintrack.write.batch.size")
+                .description("Operations committed per transaction")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("fintrack.write.batch.fallback")
+                .description("Batches that failed and were retried operation by operation")
+                .register(meterRegistry);
+        meterRegistry.gauge("fintrack.write.queue.depth", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        worker = new Thread(this::runLoop, "group-commit-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Group commit enabled: maxBatchSize={}, maxBatchDelay={}us",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxBatchDelayNanos));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (worker == null) return;
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Runs the operation in a transaction and waits for the commit.
+     */
+    public <T> T execute(Supplier<T> work) {
+        try {
+            return submit(work).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    /**
+     * Queues the operation; the future completes after its transaction has committed.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        // Inline when group commit is off, when called from the worker itself, or when the caller
+        // already has a transaction that the work must join
+        if (!running || Thread.currentThread() == worker
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                return CompletableFuture.completedFuture(transactionTemplate.execute(status -> work.get()));
+            } catch (RuntimeException | Error e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        Op<T> op = new Op<>(work, new CompletableFuture<>(), System.nanoTime());
+        try {
+            if (!queue.offer(op, 1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("write_queue_full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        }
+        return op.future();
+    }
+
+    private void runLoop() {
+        List<Op<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Op<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                long deadline = first.enqueuedAt() + maxBatchDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long wait = deadline - System.nanoTime();
+                    Op<?> next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Throwable t) {
+                log.error("Group commit worker error", t);
+                batch.forEach(op -> op.future().completeExceptionally(t));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Op<?>> batch) {
+        Object[] results = new Object[batch.size()];
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    results[i] = batch.get(i).work().get();
+                }
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                complete(batch.get(0), null, e);
+                return;
+            }
+            fallbacks.increment();
+            log.warn("Write batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (Op<?> op : batch) {
+                try {
+                    complete(op, transactionTemplate.execute(status -> op.work().get()), null);
+                } catch (RuntimeException single) {
+                    complete(op, null, single);
+                }
+            }
+            return;
+        }
+
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), results[i], null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void complete(Op<T> op, Object result, Throwable error) {
+        latencyTimer.record(System.nanoTime() - op.enqueuedAt(), TimeUnit.NANOSECONDS);
+        if (error != null) {
+            op.future().completeExceptionally(error);
+        } else {
+            op.future().complete((T) result);
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class GroupService {
 
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
+    private final GroupBudgetService groupBudgetService;
 
     @Transactional
     public Group create(String name) {
@@ -55,18 +56,22 @@ public class GroupService {
         member.setId(memberId);
         member.setShare(BigDecimal.valueOf(clampedShare));
         groupMemberRepository.save(member);
+        groupBudgetService.groupChanged(groupId);
         
         return group;
     }
 
+    @Transactional(readOnly = true)
     public String userGroupId(String userId) {
         return groupMemberRepository.findGroupIdByUserId(userId).orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public Group get(String id) {
         return groupRepository.findById(id).orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Double> members(String groupId) {
         List<GroupMember> members = groupMemberRepository.findByGroupId(groupId);
         Map<String, Double> result = new LinkedHashMap<>();
@@ -84,8 +89,10 @@ public class GroupService {
         }
         
         groupMemberRepository.deleteByUserId(userId);
+        groupBudgetService.memberLeft(userId);
+        groupBudgetService.groupChanged(groupId);
         
-        int count = groupMemberRepository.countByGroupId(groupId);
+        long count = groupMemberRepository.countByGroupId(groupId);
         if (count == 0) {
             try {
                 groupRepository.deleteById(groupId);
@@ -95,11 +102,13 @@ public class GroupService {
         }
     }
 
+    @Transactional(readOnly = true)
     public Double myShare(String userId) {
         Optional<GroupMember> member = groupMemberRepository.findByUserId(userId);
         return member.map(GroupMember::getShareAsDouble).orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public String getName(String groupId) {
         Optional<Group> group = groupRepository.findById(groupId);
         return group.map(Group::getName).orElse(null);
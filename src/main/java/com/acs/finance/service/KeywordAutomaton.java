@@ -0,0 +1,165 @@
+package com.acs.finance.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho-Corasick automaton over categorizer keywords.
+ * <p>
+ * Text is scanned once, case-insensitively. When several keywords occur, the winner is the one
+ * with the highest priority, then the longest keyword, then the earliest occurrence.
+ * Instances are never mutated after {@link #compile}, so they can be shared between threads
+ * and swapped atomically.
+ */
+final class KeywordAutomaton {
+
+    record Rule(String keyword, String category, int priority) {
+    }
+
+    static final KeywordAutomaton EMPTY = compile(List.of());
+
+    private static final int NO_RULE = -1;
+
+    private final Rule[] rules;
+    // Per state: sorted outgoing edge labels and their target states
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // Per state: best rule ending here (including suffixes reachable through fail links)
+    private final int[] best;
+
+    private KeywordAutomaton(Rule[] rules, char[][] edgeChars, int[][] edgeTargets, int[] fail, int[] best) {
+        this.rules = rules;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.best = best;
+    }
+
+    static KeywordAutomaton compile(Collection<Rule> input) {
+        Rule[] rules = input.toArray(new Rule[0]);
+
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminal.add(NO_RULE);
+
+        for (int r = 0; r < rules.length; r++) {
+            String keyword = rules[r].keyword();
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = Character.toLowerCase(keyword.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    terminal.add(NO_RULE);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminal.set(state, r);
+        }
+
+        int size = trie.size();
+        char[][] edgeChars = new char[size][];
+        int[][] edgeTargets = new int[size][];
+        for (int s = 0; s < size; s++) {
+            Map<Character, Integer> edges = trie.get(s);
+            char[] cs = new char[edges.size()];
+            int[] ts = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> e : edges.entrySet()) {
+                cs[i] = e.getKey();
+                ts[i] = e.getValue();
+                i++;
+            }
+            edgeChars[s] = cs;
+            edgeTargets[s] = ts;
+        }
+
+        int[] fail = new int[size];
+        int[] best = new int[size];
+        best[0] = NO_RULE;
+
+        // BFS guarantees fail[s] is finalized before any child of s is visited
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int t : edgeTargets[0]) {
+            fail[t] = 0;
+            best[t] = terminal.get(t);
+            queue.add(t);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            char[] cs = edgeChars[s];
+            int[] ts = edgeTargets[s];
+            for (int i = 0; i < cs.length; i++) {
+                int t = ts[i];
+                int f = fail[s];
+                int next;
+                while ((next = step(edgeChars, edgeTargets, f, cs[i])) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[t] = next >= 0 ? next : 0;
+                best[t] = better(rules, terminal.get(t), best[fail[t]]);
+                queue.add(t);
+            }
+        }
+
+        return new KeywordAutomaton(rules, edgeChars, edgeTargets, fail, best);
+    }
+
+    /**
+     * Returns the winning rule for the given text, or {@code null} if no keyword occurs.
+     */
+    Rule match(CharSequence text) {
+        int state = 0;
+        int winner = NO_RULE;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next;
+            while ((next = step(edgeChars, edgeTargets, state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = next >= 0 ? next : 0;
+            int candidate = best[state];
+            // Strictly better only: on a full tie the earlier occurrence wins
+            if (candidate != NO_RULE && winner != candidate && better(rules, candidate, winner) == candidate) {
+                winner = candidate;
+            }
+        }
+        return winner == NO_RULE ? null : rules[winner];
+    }
+
+    int size() {
+        return rules.length;
+    }
+
+    private static int step(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+        char[] cs = edgeChars[state];
+        int lo = 0, hi = cs.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = cs[mid];
+            if (m < c) lo = mid + 1;
+            else if (m > c) hi = mid - 1;
+            else return edgeTargets[state][mid];
+        }
+        return -1;
+    }
+
+    private static int better(Rule[] rules, int a, int b) {
+        if (a == NO_RULE) return b;
+        if (b == NO_RULE) return a;
+        Rule ra = rules[a], rb = rules[b];
+        if (ra.priority() != rb.priority()) return ra.priority() > rb.priority() ? a : b;
+        if (ra.keyword().length() != rb.keyword().length()) {
+            return ra.keyword().length() > rb.keyword().length() ? a : b;
+        }
+        return b;
+    }
+}
@@ -1,71 +1,236 @@
 package com.acs.finance.service;
 
+import com.acs.finance.model.api.RefreshEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Server-sent events fan-out.
+ * <p>
+ * A session may hold several connections (one per tab). {@link #send} never writes on the
+ * caller's thread: the event is appended to each connection's bounded queue and a small writer
+ * pool drains it, flushing everything pending in a single write. {@link #refresh} requests that
+ * reach a connection before its previous refresh was written are merged into that one event;
+ * every other event (reminders, alerts) is delivered as sent. A connection whose queue is full is
+ * handled by the drop policy.
+ * <p>
+ * A write that blocks longer than the send timeout (a client that stopped reading) gets its
+ * connection dropped from the fan-out, and the pool gets a temporary extra thread while the stuck
+ * one waits for the container's write timeout, so one slow client cannot starve the others.
+ * With virtual threads enabled each drain runs on its own virtual thread instead of the pool.
+ */
 @Service
 @Slf4j
 public class SseService {
 
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    public enum DropPolicy {
+        /** Discard the oldest queued event and keep the connection. */
+        DROP_OLDEST,
+        /** Close the connection; the browser's EventSource reconnects and reloads state. */
+        DISCONNECT
+    }
+
+    /** What a client reloads on a {@code refresh} event. */
+    public enum Refresh {
+        TRANSACTIONS,
+        BUDGETS
+    }
+
+    /** Published when a connection opens, so per-user backlogs can be flushed to it. */
+    public record Connected(String sessionId, String userId) {
+    }
+
+    /** Entries of a connection's queue. */
+    private sealed interface Outbound permits Data, Heartbeat, PendingRefresh {
+    }
+
+    /** An event written as is, never merged with another. */
+    private record Data(String json) implements Outbound {
+    }
+
+    /** An SSE comment that keeps the connection alive. */
+    private record Heartbeat() implements Outbound {
+        static final Heartbeat INSTANCE = new Heartbeat();
+    }
+
+    /** The connection's refresh that has not been written yet; later refreshes merge into it. */
+    private static final class PendingRefresh implements Outbound {
+        final Set<Refresh> what = EnumSet.noneOf(Refresh.class);
+        final List<String> alerts = new ArrayList<>();
+
+        void merge(Set<Refresh> more, List<String> moreAlerts) {
+            what.addAll(more);
+            alerts.addAll(moreAlerts);
+        }
+    }
+
+    private final Map<String, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Executor writers;
+    private final int writerThreads;
+    private final int maxWriterThreads;
+    private final long sendTimeoutNanos;
+    // Writers blocked past the send timeout; each one is replaced by an extra pool thread
+    private final AtomicInteger stalledWriters = new AtomicInteger();
+    private final int queueCapacity;
+    private final DropPolicy dropPolicy;
+
+    private final Counter eventsSent;
+    private final Counter eventsCoalesced;
+    private final Counter eventsDropped;
+    private final Counter slowDisconnects;
+    private final Counter stalledDisconnects;
+    private final Counter sendFailures;
 
-    public SseEmitter register(String sessionId) {
+    public SseService(ApplicationEventPublisher eventPublisher,
+                      ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry,
+                      Environment environment,
+                      @Value("${fintrack.sse.writer-threads:4}") int writerThreads,
+                      @Value("${fintrack.sse.writer-max-threads:16}") int maxWriterThreads,
+                      @Value("${fintrack.sse.send-timeout-ms:10000}") long sendTimeoutMs,
+                      @Value("${fintrack.sse.queue-capacity:64}") int queueCapacity,
+                      @Value("${fintrack.sse.drop-policy:DISCONNECT}") DropPolicy dropPolicy) {
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.writerThreads = Math.max(1, writerThreads);
+        this.maxWriterThreads = Math.max(this.writerThreads, maxWriterThreads);
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.writers = new VirtualThreadTaskExecutor("sse-writer-");
+        } else {
+            AtomicInteger threadNo = new AtomicInteger();
+            this.writers = new ThreadPoolExecutor(this.writerThreads, this.writerThreads,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "sse-writer-" + threadNo.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.dropPolicy = dropPolicy;
+
+        this.eventsSent = meterRegistry.counter("fintrack.sse.events.sent");
+        this.eventsCoalesced = meterRegistry.counter("fintrack.sse.events.coalesced");
+        this.eventsDropped = meterRegistry.counter("fintrack.sse.events.dropped");
+        this.slowDisconnects = meterRegistry.counter("fintrack.sse.disconnects.slow");
+        this.stalledDisconnects = meterRegistry.counter("fintrack.sse.disconnects.stalled");
+        this.sendFailures = meterRegistry.counter("fintrack.sse.send.failures");
+        Gauge.builder("fintrack.sse.connections", this, SseService::connectionCount)
+                .description("Open SSE connections")
+                .register(meterRegistry);
+        Gauge.builder("fintrack.sse.queue.depth", this, SseService::queuedEvents)
+                .description("Events waiting in all connection queues")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (writers instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    public SseEmitter register(String sessionId, String userId) {
         SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
+        Connection connection = new Connection(sessionId, userId, emitter);
         
         emitter.onCompletion(() -> {
-            emitters.remove(sessionId);
+            remove(connection);
             log.debug("SSE connection completed: {}", sessionId);
         });
         
         emitter.onTimeout(() -> {
-            emitters.remove(sessionId);
+            remove(connection);
             log.debug("SSE connection timeout: {}", sessionId);
         });
         
         emitter.onError(e -> {
-            emitters.remove(sessionId);
+            remove(connection);
             log.debug("SSE connection error: {}", sessionId);
         });
         
-        emitters.put(sessionId, emitter);
+        connections.computeIfAbsent(sessionId, k -> new CopyOnWriteArraySet<>()).add(connection);
         
         // Send initial ping
-        send(sessionId, "{\"type\":\"hello\"}");
+        connection.enqueue(new Data("{\"type\":\"hello\"}"));
+        eventPublisher.publishEvent(new Connected(sessionId, userId));
         
         return emitter;
     }
 
     public void unregister(String sessionId) {
-        SseEmitter emitter = emitters.remove(sessionId);
-        if (emitter != null) {
-            try {
-                emitter.complete();
-            } catch (Exception ignored) {
-            }
+        Set<Connection> removed = connections.remove(sessionId);
+        if (removed != null) {
+            removed.forEach(Connection::close);
         }
     }
 
+    /**
+     * Delivers {@code json} as is to every connection of the session.
+     */
     public void send(String sessionId, String json) {
-        SseEmitter emitter = emitters.get(sessionId);
-        if (emitter == null) {
+        if (sessionId == null) return;
+        Set<Connection> targets = connections.get(sessionId);
+        if (targets == null) {
             return;
         }
-        
-        try {
-            emitter.send(SseEmitter.event().data(json));
-        } catch (IOException e) {
-            emitters.remove(sessionId);
-            try {
-                emitter.completeWithError(e);
-            } catch (Exception ignored) {
-            }
+        Data event = new Data(json);
+        for (Connection c : targets) {
+            c.enqueue(event);
+        }
+    }
+
+    public void refresh(String sessionId, Set<Refresh> what) {
+        refresh(sessionId, what, List.of());
+    }
+
+    /**
+     * Tells the session's clients to reload {@code what} and show {@code alerts}, as one
+     * {@link RefreshEvent}. A refresh still waiting in a connection's queue absorbs this one.
+     */
+    public void refresh(String sessionId, Set<Refresh> what, List<String> alerts) {
+        if (sessionId == null) return;
+        Set<Connection> targets = connections.get(sessionId);
+        if (targets == null) {
+            return;
+        }
+        for (Connection c : targets) {
+            c.enqueueRefresh(what, alerts);
         }
     }
 
@@ -76,6 +241,337 @@ public class SseService {
     }
 
     public Set<String> sessionIds() {
-        return new CopyOnWriteArraySet<>(emitters.keySet());
+        return Set.copyOf(connections.keySet());
+    }
+
+    /**
+     * Sessions of the user that currently have an open connection.
+     */
+    public Set<String> sessionIdsOfUser(String userId) {
+        Set<String> result = new HashSet<>();
+        for (Map.Entry<String, Set<Connection>> e : connections.entrySet()) {
+            for (Connection c : e.getValue()) {
+                if (c.userId.equals(userId)) {
+                    result.add(e.getKey());
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects dead clients.
+     */
+    @Scheduled(fixedDelayString = "${fintrack.sse.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        for (Set<Connection> set : connections.values()) {
+            for (Connection c : set) {
+                c.enqueueHeartbeat();
+            }
+        }
+    }
+
+    /**
+     * Drops connections whose write has been blocked longer than the send timeout. Runs every
+     * send timeout, so a stuck write is detected within one to two timeouts.
+     */
+    @Scheduled(fixedDelayString = "${fintrack.sse.send-timeout-ms:10000}")
+    public void dropStalledSends() {
+        long deadline = System.nanoTime() - sendTimeoutNanos;
+        for (Set<Connection> set : connections.values()) {
+            for (Connection c : set) {
+                if (c.stallIfSendingSince(deadline)) {
+                    stalledDisconnects.increment();
+                    log.debug("SSE write blocked for over {}ms, dropping connection: {}",
+                            TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos), c.sessionId);
+                    stalledWriters.incrementAndGet();
+                    resizeWriters();
+                }
+            }
+        }
+    }
+
+    /** Pool size = configured threads + one per stalled writer, capped at writer-max-threads. */
+    private synchronized void resizeWriters() {
+        if (!(writers instanceof ThreadPoolExecutor pool)) return;
+        int target = Math.min(writerThreads + stalledWriters.get(), maxWriterThreads);
+        // The maximum may never drop below the core size, so the order depends on the direction
+        if (target > pool.getCorePoolSize()) {
+            pool.setMaximumPoolSize(target);
+            pool.setCorePoolSize(target);
+        } else if (target < pool.getCorePoolSize()) {
+            pool.setCorePoolSize(target);
+            pool.setMaximumPoolSize(target);
+        }
+    }
+
+    private int connectionCount() {
+        int n = 0;
+        for (Set<Connection> set : connections.values()) {
+            n += set.size();
+        }
+        return n;
+    }
+
+    private int queuedEvents() {
+        int n = 0;
+        for (Set<Connection> set : connections.values()) {
+            for (Connection c : set) {
+                n += c.depth();
+            }
+        }
+        return n;
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.sessionId, (k, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private String json(PendingRefresh refresh) {
+        try {
+            return objectMapper.writeValueAsString(RefreshEvent.of(
+                    refresh.what.contains(Refresh.TRANSACTIONS),
+                    refresh.what.contains(Refresh.BUDGETS),
+                    refresh.alerts));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One emitter with its outbound queue. At most one writer drains a connection at a time.
+     */
+    private final class Connection {
+
+        private final String sessionId;
+        private final String userId;
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Outbound> queue = new ArrayDeque<>();
+        // The refresh in queue, if any; guarded by lock
+        private PendingRefresh pendingRefresh;
+        private boolean draining;
+        private boolean closed;
+        // Set while emitter.send runs; guarded by lock
+        private boolean sending;
+        private long sendingSince;
+        // The send outlived the send timeout and the connection was dropped
+        private boolean stalled;
+
+        Connection(String sessionId, String userId, SseEmitter emitter) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Outbound item) {
+            boolean schedule;
+            lock.lock();
+            try {
+                schedule = offerLocked(item);
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) {
+                schedule();
+            }
+        }
+
+        void enqueueRefresh(Set<Refresh> what, List<String> alerts) {
+            boolean schedule;
+            lock.lock();
+            try {
+                if (closed) return;
+                if (pendingRefresh != null) {
+                    // Not written yet: the client reloads once for both changes
+                    pendingRefresh.merge(what, alerts);
+                    eventsCoalesced.increment();
+                    return;
+                }
+                PendingRefresh refresh = new PendingRefresh();
+                refresh.merge(what, alerts);
+                schedule = offerLocked(refresh);
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) {
+                schedule();
+            }
+        }
+
+        void enqueueHeartbeat() {
+            boolean schedule;
+            lock.lock();
+            try {
+                // Pending events already prove liveness
+                if (closed || !queue.isEmpty()) return;
+                schedule = offerLocked(Heartbeat.INSTANCE);
+            } finally {
+                lock.unlock();
+            }
+            if (schedule) {
+                schedule();
+            }
+        }
+
+        /** Appends the item; returns whether a drain has to be scheduled. */
+        private boolean offerLocked(Outbound item) {
+            if (closed) return false;
+            if (queue.size() >= queueCapacity) {
+                eventsDropped.increment();
+                if (dropPolicy == DropPolicy.DISCONNECT) {
+                    slowDisconnects.increment();
+                    log.debug("SSE consumer too slow, disconnecting: {}", sessionId);
+                    closeLocked();
+                    return false;
+                }
+                if (queue.pollFirst() == pendingRefresh) {
+                    pendingRefresh = null;
+                }
+            }
+            queue.addLast(item);
+            if (item instanceof PendingRefresh refresh) {
+                pendingRefresh = refresh;
+            }
+            boolean schedule = !draining;
+            draining = true;
+            return schedule;
+        }
+        int depth() {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closeLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void closeLocked() {
+            if (closed) return;
+            closed = true;
+            queue.clear();
+            pendingRefresh = null;
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+            }
+        }
+
+        /** Drops the connection if its current send started before {@code deadline}. */
+        boolean stallIfSendingSince(long deadline) {
+            lock.lock();
+            try {
+                if (!sending || stalled || sendingSince - deadline > 0) return false;
+                stalled = true;
+                closed = true;
+                queue.clear();
+                pendingRefresh = null;
+            } finally {
+                lock.unlock();
+            }
+            // The emitter is completed by the writer once send returns: it is busy until then
+            remove(this);
+            return true;
+        }
+
+        private void schedule() {
+            try {
+                writers.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        private void drain() {
+            List<Outbound> batch;
+            lock.lock();
+            try {
+                batch = new ArrayList<>(queue);
+                queue.clear();
+                // Taken out of the queue: new refreshes start a new event
+                pendingRefresh = null;
+                if (closed || batch.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                sending = true;
+                sendingSince = System.nanoTime();
+            } finally {
+                lock.unlock();
+            }
+
+            Set<ResponseBodyEmitter.DataWithMediaType> payload = new LinkedHashSet<>();
+            for (Outbound item : batch) {
+                SseEmitter.SseEventBuilder event;
+                if (item instanceof Data data) {
+                    event = SseEmitter.event().data(data.json());
+                } else if (item instanceof PendingRefresh refresh) {
+                    event = SseEmitter.event().data(json(refresh));
+                } else {
+                    event = SseEmitter.event().comment("hb");
+                }
+                payload.addAll(event.build());
+            }
+
+            Exception failure = null;
+            try {
+                emitter.send(payload);
+                eventsSent.increment(batch.size());
+            } catch (Exception e) {
+                sendFailures.increment();
+                failure = e;
+            }
+
+            boolean wasStalled;
+            boolean again;
+            lock.lock();
+            try {
+                sending = false;
+                wasStalled = stalled;
+                if (failure != null) {
+                    closed = true;
+                    queue.clear();
+                    pendingRefresh = null;
+                }
+                again = !closed && !queue.isEmpty();
+                draining = again;
+            } finally {
+                lock.unlock();
+            }
+            if (wasStalled) {
+                // This thread is free again: give back the extra one
+                stalledWriters.decrementAndGet();
+                resizeWriters();
+            }
+            if (failure != null || wasStalled) {
+                remove(this);
+                try {
+                    if (failure != null) {
+                        emitter.completeWithError(failure);
+                    } else {
+                        emitter.complete();
+                    }
+                } catch (Exception ignored) {
+                }
+                return;
+            }
+            if (again) {
+                schedule();
+            }
+        }
     }
 }
@@ -0,0 +1,180 @@
+package com.acs.finance.service;
+
+import com.acs.finance.entity.Transaction;
+import com.acs.finance.model.BudgetStatus;
+import com.acs.finance.model.ImportResult;
+import com.acs.finance.repository.BudgetSpendRepository;
+import com.acs.finance.repository.DailyRollupRepository;
+import com.acs.finance.repository.TransactionJdbcRepository;
+import com.acs.finance.service.importer.StatementFormat;
+import com.acs.finance.service.importer.StatementFormatException;
+import com.acs.finance.service.importer.StatementReader;
+import com.acs.finance.service.importer.StatementRow;
+import com.acs.finance.service.rates.CurrencyCodes;
+import com.acs.finance.service.rates.RateConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bulk import of bank statements. Rows are parsed incrementally, categorised, and written in
+ * chunks: each chunk is one JDBC batch insert, its daily rollup upserts and one budget update per
+ * category and day, in a single database transaction. A chunk that fails is rolled back; earlier chunks
+ * stay committed: the import then stops and reports what was committed instead of failing, so the
+ * caller can refresh clients and a retry does not need to guess what landed. Rows keep the
+ * statement's currency (MDL when it names none); their budget spend is converted to MDL at each
+ * row's date. The result carries each touched budget bucket's final status, so alerts cover past
+ * periods too.
+ */
+@Service
+@Slf4j
+public class StatementImportService {
+
+    static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final DailyRollupRepository dailyRollupRepository;
+    private final BudgetSpendRepository budgetSpendRepository;
+    private final AutoCategorizerService categorizer;
+    private final GroupBudgetService groupBudgetService;
+    private final DataVersionService dataVersions;
+    private final CurrencyService currencyService;
+    private final TransactionTemplate transactionTemplate;
+
+    public StatementImportService(TransactionJdbcRepository transactionJdbcRepository,
+                                  DailyRollupRepository dailyRollupRepository,
+                                  BudgetSpendRepository budgetSpendRepository,
+                                  AutoCategorizerService categorizer,
+                                  GroupBudgetService groupBudgetService,
+                                  DataVersionService dataVersions,
+                                  CurrencyService currencyService,
+                                  PlatformTransactionManager transactionManager) {
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.dailyRollupRepository = dailyRollupRepository;
+        this.budgetSpendRepository = budgetSpendRepository;
+        this.categorizer = categorizer;
+        this.groupBudgetService = groupBudgetService;
+        this.dataVersions = dataVersions;
+        this.currencyService = currencyService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportResult importStatement(String userId, Reader source, StatementFormat format) throws IOException {
+        long started = System.currentTimeMillis();
+        List<Transaction> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<String> errors = new ArrayList<>();
+        Map<String, BudgetStatus> budgets = new LinkedHashMap<>();
+        // One converter per import: rows mostly come in date order, so each day costs one rate lookup
+        RateConverter toBase = currencyService.converterTo(CurrencyCodes.BASE);
+        int imported = 0;
+        int skipped = 0;
+
+        try (StatementReader reader = format.open(source)) {
+            while (true) {
+                Transaction tx;
+                try {
+                    StatementRow row = reader.next();
+                    if (row == null) break;
+                    tx = toTransaction(userId, row);
+                } catch (StatementFormatException e) {
+                    skipped++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) errors.add(e.getMessage());
+                    continue;
+                }
+
+                chunk.add(tx);
+                if (chunk.size() == CHUNK_SIZE) {
+                    imported += flush(userId, chunk, toBase, budgets);
+                    chunk.clear();
+                }
+            }
+            imported += flush(userId, chunk, toBase, budgets);
+        } catch (IOException | RuntimeException e) {
+            // Nothing committed yet: fail as a whole, the client can simply retry
+            if (imported == 0) throw e;
+            log.error("Statement import stopped after {} committed rows: user={}", imported, userId, e);
+            skipped += chunk.size();
+            errors.add("import stopped after " + imported + " rows; the rest of the file was not imported");
+        }
+
+        log.info("Statement imported: user={}, format={}, rows={}, skipped={}, took={}ms",
+                userId, format, imported, skipped, System.currentTimeMillis() - started);
+        return new ImportResult(imported, skipped, errors, new ArrayList<>(budgets.values()));
+    }
+
+    private Transaction toTransaction(String userId, StatementRow row) {
+        String currency;
+        try {
+            currency = FinanceService.normalizeCurrency(row.currency());
+        } catch (IllegalArgumentException e) {
+            throw new StatementFormatException(row.date() + " " + row.amount() + ": unsupported currency '"
+                    + row.currency() + "'");
+        }
+        String description = row.description();
+        String category = row.category();
+        if (category == null || category.isBlank()) {
+            category = categorizer.categorize(description);
+        }
+        return Transaction.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(userId)
+                .dateEpochDay(row.date().toEpochDay())
+                .category(category)
+                .description(description)
+                .amount(BigDecimal.valueOf(row.amount()))
+                .currency(currency)
+                .build();
+    }
+
+    private int flush(String userId, List<Transaction> rows, RateConverter toBase, Map<String, BudgetStatus> budgets) {
+        if (rows.isEmpty()) return 0;
+
+        // One spent delta (in MDL) per category and day; the bucket depends on each budget's period
+        Map<String, Map<Long, Double>> spent = new LinkedHashMap<>();
+        int unconverted = 0;
+        for (Transaction tx : rows) {
+            if (tx.getCategory() == null || tx.getAmount().signum() >= 0) continue;
+            double rate = toBase.rate(tx.getDateEpochDay(), tx.getCurrency());
+            if (Double.isNaN(rate)) {
+                unconverted++;
+                continue;
+            }
+            spent.computeIfAbsent(tx.getCategory(), k -> new LinkedHashMap<>())
+                    .merge(tx.getDateEpochDay(), -tx.getAmountAsDouble() * rate, Double::sum);
+        }
+        if (unconverted > 0) {
+            log.warn("Statement import: {} expenses without a known rate left out of budgets, user={}", unconverted, userId);
+        }
+        List<BudgetSpendRepository.SpendDelta> deltas = new ArrayList<>();
+        spent.forEach((category, byDay) -> byDay.forEach((day, amount) ->
+                deltas.add(new BudgetSpendRepository.SpendDelta(category, day, amount))));
+
+        List<BudgetStatus> touched = transactionTemplate.execute(status -> {
+            transactionJdbcRepository.insertBatch(rows);
+            dailyRollupRepository.addAll(rows);
+            List<BudgetStatus> statuses = budgetSpendRepository.addSpentAll(userId, deltas);
+            dataVersions.userChanged(userId);
+            if (!statuses.isEmpty()) {
+                groupBudgetService.userChanged(userId);
+            }
+            return statuses;
+        });
+
+        // A later chunk's status for the same bucket supersedes the earlier one
+        for (BudgetStatus b : touched) {
+            budgets.put(BudgetSpendRepository.bucketKey(b), b);
+        }
+        return rows.size();
+    }
+}
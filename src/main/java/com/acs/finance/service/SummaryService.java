@@ -0,0 +1,120 @@
+package com.acs.finance.service;
+
+import com.acs.finance.model.SummaryReport;
+import com.acs.finance.model.SummaryTotal;
+import com.acs.finance.repository.DailyRollupRepository;
+import com.acs.finance.repository.DailyRollupRepository.Columns;
+import com.acs.finance.repository.DailyRollupRepository.Grouping;
+import com.acs.finance.service.rates.RateConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dashboard totals read from {@code daily_rollups} only; cost depends on the number of
+ * days/categories in range, not on the number of transactions.
+ * <p>
+ * Totals are reported in one currency. Rollups in other currencies are converted per day at
+ * that day's rate: one rate lookup per distinct date, then a plain multiply over the columns.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SummaryService {
+
+    private final DailyRollupRepository dailyRollupRepository;
+    private final CurrencyService currencyService;
+
+    @Transactional(readOnly = true)
+    public SummaryReport monthly(String userId, LocalDate from, LocalDate to, String currency) {
+        return totals(userId, from, to, Grouping.MONTH, currency);
+    }
+
+    @Transactional(readOnly = true)
+    public SummaryReport daily(String userId, LocalDate from, LocalDate to, String currency) {
+        return totals(userId, from, to, Grouping.DAY, currency);
+    }
+
+    /**
+     * Per-category totals; uncategorised transactions are reported with a {@code null} key.
+     */
+    @Transactional(readOnly = true)
+    public SummaryReport categories(String userId, LocalDate from, LocalDate to, String currency) {
+        SummaryReport report = totals(userId, from, to, Grouping.CATEGORY, currency);
+        List<SummaryTotal> items = report.items().stream()
+                .map(t -> DailyRollupRepository.NO_CATEGORY.equals(t.key())
+                        ? new SummaryTotal(null, t.income(), t.expense())
+                        : t)
+                .toList();
+        return new SummaryReport(report.currency(), items, report.exact());
+    }
+
+    /**
+     * Recomputes every rollup from {@code transactions}, correcting any drift.
+     */
+    @Transactional
+    public int rebuild() {
+        long started = System.currentTimeMillis();
+        int buckets = dailyRollupRepository.rebuildAll();
+        log.info("Daily rollups rebuilt: {} buckets in {} ms", buckets, System.currentTimeMillis() - started);
+        return buckets;
+    }
+
+    private SummaryReport totals(String userId, LocalDate from, LocalDate to, Grouping grouping, String currency) {
+        RateConverter converter = currencyService.converterTo(
+                currency != null && !currency.isBlank() ? currency : CurrencyService.BASE);
+        if (converter == null) {
+            throw new IllegalArgumentException("bad_currency");
+        }
+
+        Columns rows = dailyRollupRepository.totals(userId,
+                from != null ? from.toEpochDay() : null,
+                to != null ? to.toEpochDay() : null,
+                grouping, converter.target());
+        int n = rows.size();
+        long[] days = rows.days();
+        prefetchRates(days, n);
+
+        double[] rate = new double[n];
+        converter.rates(days, rows.currencies(), n, rate);
+        double[] income = rows.income();
+        double[] expense = rows.expense();
+        for (int i = 0; i < n; i++) {
+            income[i] *= rate[i];
+            expense[i] *= rate[i];
+        }
+
+        String[] keys = rows.keys();
+        Map<String, double[]> byKey = new TreeMap<>();
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(rate[i])) continue;
+            double[] acc = byKey.computeIfAbsent(keys[i], k -> new double[2]);
+            acc[0] += income[i];
+            acc[1] += expense[i];
+        }
+        List<SummaryTotal> items = new ArrayList<>(byKey.size());
+        byKey.forEach((key, acc) -> items.add(new SummaryTotal(key, acc[0], acc[1])));
+        return new SummaryReport(converter.target(), items, converter.approximated() == 0);
+    }
+
+    /** Makes the dated rates of the report range local; a no-op once they are cached. */
+    private void prefetchRates(long[] days, int n) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (days[i] == Columns.NO_DAY) continue;
+            min = Math.min(min, days[i]);
+            max = Math.max(max, days[i]);
+        }
+        if (min <= max) {
+            currencyService.prefetchHistory(LocalDate.ofEpochDay(min), LocalDate.ofEpochDay(max));
+        }
+    }
+}
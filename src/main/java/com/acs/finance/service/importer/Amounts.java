@@ -0,0 +1,25 @@
+package com.acs.finance.service.importer;
+
+import java.util.regex.Pattern;
+
+/**
+ * Strict parsing of an amount already normalised to a '.' decimal separator. Unlike
+ * {@link Double#parseDouble} it rejects NaN, Infinity, hex floats, exponents and type suffixes,
+ * which a bank statement never contains and which would not survive {@code BigDecimal.valueOf}.
+ */
+final class Amounts {
+
+    private static final Pattern PLAIN = Pattern.compile("[-+]?(\\d+(\\.\\d*)?|\\.\\d+)");
+
+    private Amounts() {
+    }
+
+    /**
+     * The value of {@code s}, or NaN when it is not a plain finite decimal.
+     */
+    static double parse(String s) {
+        if (!PLAIN.matcher(s).matches()) return Double.NaN;
+        double value = Double.parseDouble(s);
+        return Double.isInfinite(value) ? Double.NaN : value;
+    }
+}
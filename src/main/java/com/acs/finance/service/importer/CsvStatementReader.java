@@ -0,0 +1,270 @@
+package com.acs.finance.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * CSV statement reader. The first line is a header naming at least the date and amount columns,
+ * optionally description, category and currency (en/ru/ro names are recognised); the delimiter
+ * ({@code ,} {@code ;} or tab) is taken from it.
+ * Quoted fields may contain delimiters, doubled quotes and line breaks.
+ * <p>
+ * Amounts may use either decimal separator and group thousands with the other one. An amount
+ * such as {@code 1,234} or {@code 1.234} reads either way; it takes the decimal separator of
+ * earlier unambiguous amounts in the file and is rejected if there were none.
+ */
+class CsvStatementReader implements StatementReader {
+
+    private static final Set<String> DATE_NAMES = Set.of("date", "дата", "data");
+    private static final Set<String> AMOUNT_NAMES = Set.of("amount", "sum", "сумма", "suma");
+    private static final Set<String> DESCRIPTION_NAMES = Set.of("description", "details", "name", "memo",
+            "описание", "назначение", "descriere");
+    private static final Set<String> CATEGORY_NAMES = Set.of("category", "категория", "categorie");
+    private static final Set<String> CURRENCY_NAMES = Set.of("currency", "валюта", "valuta", "moneda");
+
+    // Results of decimalSeparatorOf besides ',' and '.'
+    private static final char NO_SEPARATOR = 0;
+    private static final char AMBIGUOUS = '?';
+
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd.MM.yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy")
+    };
+
+    private final BufferedReader in;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private char delimiter;
+    private int dateCol = -1, amountCol = -1, descriptionCol = -1, categoryCol = -1, currencyCol = -1;
+    private boolean headerRead;
+    private long line;
+    // Decimal separator of the amount column, once an unambiguous amount has shown it
+    private char decimalSeparator = NO_SEPARATOR;
+
+    CsvStatementReader(Reader reader) {
+        this.in = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+        while (readRecord()) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue; // empty line
+            }
+            return toRow();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readHeader() throws IOException {
+        headerRead = true;
+        String header = in.readLine();
+        if (header == null) {
+            throw new StatementFormatException("empty_file");
+        }
+        line++;
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        delimiter = detectDelimiter(header);
+
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT);
+            if (dateCol < 0 && DATE_NAMES.contains(name)) dateCol = i;
+            else if (amountCol < 0 && AMOUNT_NAMES.contains(name)) amountCol = i;
+            else if (descriptionCol < 0 && DESCRIPTION_NAMES.contains(name)) descriptionCol = i;
+            else if (categoryCol < 0 && CATEGORY_NAMES.contains(name)) categoryCol = i;
+            else if (currencyCol < 0 && CURRENCY_NAMES.contains(name)) currencyCol = i;
+        }
+        if (dateCol < 0 || amountCol < 0) {
+            throw new IllegalArgumentException("csv_header_missing_date_or_amount");
+        }
+    }
+
+    private StatementRow toRow() {
+        long at = line;
+        if (fields.size() <= Math.max(dateCol, amountCol)) {
+            throw new StatementFormatException("line " + at + ": too few columns");
+        }
+        LocalDate date = parseDate(fields.get(dateCol).trim(), at);
+        double amount = amount(fields.get(amountCol), at);
+        return new StatementRow(date, amount, column(descriptionCol), column(categoryCol), column(currencyCol));
+    }
+
+    private String column(int idx) {
+        if (idx < 0 || idx >= fields.size()) return null;
+        String v = fields.get(idx).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    /**
+     * Reads one record into {@link #fields}. Returns false at end of input.
+     */
+    private boolean readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        int c = in.read();
+        if (c < 0) return false;
+        line++;
+
+        boolean quoted = false;
+        while (c >= 0) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    in.mark(1);
+                    int n = in.read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (n >= 0) in.reset();
+                    }
+                } else {
+                    if (ch == '\n') line++;
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+            c = in.read();
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    private List<String> split(String header) {
+        List<String> out = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < header.length(); i++) {
+            char ch = header.charAt(i);
+            if (ch == '"') {
+                quoted = !quoted;
+            } else if (ch == delimiter && !quoted) {
+                out.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(ch);
+            }
+        }
+        out.add(sb.toString());
+        return out;
+    }
+
+    private static char detectDelimiter(String header) {
+        int commas = 0, semicolons = 0, tabs = 0;
+        for (int i = 0; i < header.length(); i++) {
+            switch (header.charAt(i)) {
+                case ',' -> commas++;
+                case ';' -> semicolons++;
+                case '\t' -> tabs++;
+                default -> {
+                }
+            }
+        }
+        if (tabs > commas && tabs > semicolons) return '\t';
+        return semicolons > commas ? ';' : ',';
+    }
+
+    private static LocalDate parseDate(String s, long at) {
+        // Tolerate timestamps such as "2024-01-05 10:31:00"
+        String d = s.length() > 10 ? s.substring(0, 10) : s;
+        for (DateTimeFormatter f : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(d, f);
+            } catch (DateTimeParseException ignored) {
+                // try next format
+            }
+        }
+        throw new StatementFormatException("line " + at + ": bad date '" + s + "'");
+    }
+
+    private double amount(String raw, long at) {
+        String s = compact(raw);
+        char separator = decimalSeparatorOf(s);
+        if (separator == AMBIGUOUS) {
+            if (decimalSeparator == NO_SEPARATOR) {
+                throw new StatementFormatException("line " + at + ": ambiguous amount '" + raw.trim()
+                        + "' (thousands or decimal separator?)");
+            }
+            separator = decimalSeparator;
+        } else if (separator != NO_SEPARATOR) {
+            decimalSeparator = separator;
+        }
+        return parseAmount(s, separator, raw, at);
+    }
+
+    private static String compact(String raw) {
+        return raw.trim().replace(" ", "").replace("\u00A0", "");
+    }
+
+    /**
+     * Decimal separator of an amount: the last of two different separators (1.234,56 / 1,234.56),
+     * the other one when a separator repeats (1,234,567), the only one otherwise (12,50), except
+     * that a single separator followed by exactly three digits after a one to three digit
+     * integer part could also be grouping (1,234) and is {@link #AMBIGUOUS}.
+     */
+    static char decimalSeparatorOf(String s) {
+        int commas = 0, dots = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == ',') commas++;
+            else if (ch == '.') dots++;
+        }
+        if (commas > 0 && dots > 0) {
+            return s.lastIndexOf(',') > s.lastIndexOf('.') ? ',' : '.';
+        }
+        if (commas + dots == 0) {
+            return NO_SEPARATOR;
+        }
+        char separator = commas > 0 ? ',' : '.';
+        if (commas + dots > 1) {
+            return separator == ',' ? '.' : ',';
+        }
+        int at = s.indexOf(separator);
+        int start = s.startsWith("-") || s.startsWith("+") ? 1 : 0;
+        int integerDigits = at - start;
+        boolean couldBeGrouping = s.length() - at - 1 == 3
+                && integerDigits >= 1 && integerDigits <= 3 && s.charAt(start) != '0';
+        return couldBeGrouping ? AMBIGUOUS : separator;
+    }
+
+    private static double parseAmount(String s, char decimal, String raw, long at) {
+        String normalized = switch (decimal) {
+            case ',' -> s.replace(".", "").replace(',', '.');
+            case '.' -> s.replace(",", "");
+            default -> s;
+        };
+        double value = Amounts.parse(normalized);
+        if (Double.isNaN(value)) {
+            throw new StatementFormatException("line " + at + ": bad amount '" + raw + "'");
+        }
+        return value;
+    }
+}
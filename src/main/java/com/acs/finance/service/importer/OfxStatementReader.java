@@ -0,0 +1,138 @@
+package com.acs.finance.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * OFX statement reader (both SGML 1.x and XML 2.x flavours). Only {@code <STMTTRN>} blocks
+ * are looked at: DTPOSTED, TRNAMT, NAME, MEMO and the transaction's {@code <CURRENCY>}; rows
+ * without one are in the statement's {@code <CURDEF>}. The stream is tokenised tag by tag.
+ */
+class OfxStatementReader implements StatementReader {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final BufferedReader in;
+    private final StringBuilder buf = new StringBuilder();
+    private int pending = -1;
+    // CURDEF of the statement being read
+    private String defaultCurrency;
+
+    OfxStatementReader(Reader reader) {
+        this.in = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        String tag;
+        // Skip to the next transaction block
+        while ((tag = nextTag()) != null && !tag.equals("STMTTRN")) {
+            // headers, balances, etc.
+            if (tag.equals("CURDEF")) defaultCurrency = value();
+        }
+        if (tag == null) {
+            return null;
+        }
+
+        String posted = null, amount = null, name = null, memo = null, currency = null;
+        // CURSYM of <CURRENCY> is the amount's currency; under <ORIGCURRENCY> the amount is already in CURDEF
+        boolean inCurrency = false;
+        while ((tag = nextTag()) != null && !tag.equals("/STMTTRN")) {
+            switch (tag) {
+                case "DTPOSTED" -> posted = value();
+                case "TRNAMT" -> amount = value();
+                case "NAME" -> name = value();
+                case "MEMO" -> memo = value();
+                case "CURRENCY" -> {
+                    // Either an aggregate (CURRATE, CURSYM) or, in simpler exports, the code itself
+                    String code = value();
+                    if (code != null) currency = code;
+                    else inCurrency = true;
+                }
+                case "/CURRENCY" -> inCurrency = false;
+                case "CURSYM" -> {
+                    String code = value();
+                    if (inCurrency) currency = code;
+                }
+                default -> {
+                }
+            }
+        }
+
+        if (posted == null || amount == null) {
+            throw new StatementFormatException("STMTTRN without DTPOSTED or TRNAMT");
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(posted.substring(0, Math.min(8, posted.length())), OFX_DATE);
+        } catch (DateTimeParseException e) {
+            throw new StatementFormatException("bad DTPOSTED '" + posted + "'");
+        }
+        // OFX amounts have no thousands grouping; the decimal separator may be '.' or ','
+        double value = Amounts.parse(amount.trim().replace(',', '.'));
+        if (Double.isNaN(value)) {
+            throw new StatementFormatException("bad TRNAMT '" + amount + "'");
+        }
+
+        String description = name;
+        if (memo != null && !memo.equals(name)) {
+            description = name != null ? name + " " + memo : memo;
+        }
+        return new StatementRow(date, value, description, null, currency != null ? currency : defaultCurrency);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Advances past the next {@code <TAG>} and returns its upper-cased name (closing tags keep the slash).
+     */
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) >= 0 && c != '<') {
+            // text between tags that nobody asked for
+        }
+        if (c < 0) return null;
+        buf.setLength(0);
+        while ((c = read()) >= 0 && c != '>') {
+            buf.append((char) c);
+        }
+        return buf.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Text after the current tag up to the next {@code <}, which is left unread.
+     */
+    private String value() throws IOException {
+        buf.setLength(0);
+        int c;
+        while ((c = read()) >= 0 && c != '<') {
+            buf.append((char) c);
+        }
+        if (c == '<') pending = c;
+        String v = unescape(buf.toString().trim());
+        return v.isEmpty() ? null : v;
+    }
+
+    private int read() throws IOException {
+        if (pending >= 0) {
+            int c = pending;
+            pending = -1;
+            return c;
+        }
+        return in.read();
+    }
+
+    private static String unescape(String s) {
+        if (s.indexOf('&') < 0) return s;
+        return s.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
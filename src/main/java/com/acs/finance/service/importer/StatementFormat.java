@@ -0,0 +1,35 @@
+package com.acs.finance.service.importer;
+
+import java.io.Reader;
+import java.util.Locale;
+
+public enum StatementFormat {
+    CSV,
+    OFX;
+
+    public StatementReader open(Reader reader) {
+        return switch (this) {
+            case CSV -> new CsvStatementReader(reader);
+            case OFX -> new OfxStatementReader(reader);
+        };
+    }
+
+    /**
+     * Resolves the format from an explicit name or, failing that, from the file name extension.
+     */
+    public static StatementFormat detect(String format, String fileName) {
+        String f = format;
+        if ((f == null || f.isBlank()) && fileName != null) {
+            int dot = fileName.lastIndexOf('.');
+            f = dot >= 0 ? fileName.substring(dot + 1) : null;
+        }
+        if (f == null || f.isBlank()) {
+            return CSV;
+        }
+        return switch (f.trim().toLowerCase(Locale.ROOT)) {
+            case "ofx", "qfx" -> OFX;
+            case "csv", "txt" -> CSV;
+            default -> throw new IllegalArgumentException("unsupported_format");
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package com.acs.finance.service.importer;
+
+/**
+ * A single statement row could not be parsed. Import skips the row and continues.
+ */
+public class StatementFormatException extends RuntimeException {
+    public StatementFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.acs.finance.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull-style reader over a bank statement. Rows are parsed one at a time from the
+ * underlying stream, so memory use does not depend on the statement size.
+ */
+public interface StatementReader extends Closeable {
+
+    /**
+     * Returns the next row, or {@code null} at end of input.
+     *
+     * @throws StatementFormatException if the current row is malformed; the reader stays usable
+     */
+    StatementRow next() throws IOException;
+}
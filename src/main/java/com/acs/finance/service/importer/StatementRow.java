@@ -0,0 +1,10 @@
+package com.acs.finance.service.importer;
+
+import java.time.LocalDate;
+
+/**
+ * One parsed bank statement line. {@code category} is null when the source has none;
+ * {@code currency} is the code as written in the statement, null when it names none.
+ */
+public record StatementRow(LocalDate date, double amount, String description, String category, String currency) {
+}
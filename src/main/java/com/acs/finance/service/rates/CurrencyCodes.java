@@ -0,0 +1,77 @@
+package com.acs.finance.service.rates;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of currency codes. Each code gets a small dense id, so per-day rates can
+ * be held as a {@code double[]} indexed by id, and equal codes share one interned String.
+ * <p>
+ * Only codes seen in provider data are registered ({@link #register}); user input is looked up
+ * with {@link #find}, so arbitrary strings never grow the registry.
+ */
+public final class CurrencyCodes {
+
+    /** Upper bound on distinct codes; ISO 4217 plus provider extras stay well below. */
+    public static final int MAX_CODES = 1024;
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final String[] CODES = new String[MAX_CODES];
+    private static volatile int count;
+
+    /** Currency all stored rates are quoted against (units of currency per 1 MDL). */
+    public static final String BASE = "MDL";
+    public static final int BASE_ID = register(BASE);
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * Id of {@code code}, registering it if new. Returns -1 for blank codes or when the registry is full.
+     */
+    public static int register(String code) {
+        String key = normalize(code);
+        if (key == null) return -1;
+        Integer id = IDS.get(key);
+        if (id != null) return id;
+        synchronized (CODES) {
+            id = IDS.get(key);
+            if (id != null) return id;
+            int next = count;
+            if (next >= MAX_CODES) return -1;
+            CODES[next] = key.intern();
+            count = next + 1;
+            IDS.put(CODES[next], next);
+            return next;
+        }
+    }
+
+    /**
+     * Id of an already registered code, or -1.
+     */
+    public static int find(String code) {
+        if (code == null) return -1;
+        // Exact hit first: canonical codes need no normalising copy
+        Integer exact = IDS.get(code);
+        if (exact != null) return exact;
+        String key = normalize(code);
+        if (key == null) return -1;
+        Integer id = IDS.get(key);
+        return id != null ? id : -1;
+    }
+
+    public static String codeOf(int id) {
+        return id >= 0 && id < count ? CODES[id] : null;
+    }
+
+    /** Number of registered codes; valid ids are {@code 0 .. size() - 1}. */
+    public static int size() {
+        return count;
+    }
+
+    private static String normalize(String code) {
+        if (code == null) return null;
+        String trimmed = code.trim();
+        return trimmed.isEmpty() ? null : trimmed.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,130 @@
+package com.acs.finance.service.rates;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity LRU from epoch day to that day's rates ({@code double[]} indexed by
+ * {@link CurrencyCodes} id). Keys stay primitive: an open-addressed {@code int[]} table points into
+ * parallel entry arrays linked in recency order, so lookups allocate nothing.
+ */
+public final class DayRateCache {
+
+    private final int capacity;
+    private final int mask;
+    /** Hash slot -> entry index, -1 when free; linear probing. */
+    private final int[] table;
+    private final long[] keys;
+    private final double[][] values;
+    private final int[] prev;
+    private final int[] next;
+    private int head = -1;
+    private int tail = -1;
+    private int size;
+
+    public DayRateCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        int tableSize = 2;
+        while (tableSize < capacity * 2) tableSize <<= 1;
+        this.mask = tableSize - 1;
+        this.table = new int[tableSize];
+        Arrays.fill(table, -1);
+        this.keys = new long[capacity];
+        this.values = new double[capacity][];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+    }
+
+    public synchronized double[] get(long day) {
+        int e = find(day);
+        if (e < 0) return null;
+        moveToFront(e);
+        return values[e];
+    }
+
+    /**
+     * Inserts or replaces the rates of {@code day}, evicting the least recently used day when full.
+     */
+    public synchronized void put(long day, double[] rates) {
+        int e = find(day);
+        if (e >= 0) {
+            values[e] = rates;
+            moveToFront(e);
+            return;
+        }
+        if (size == capacity) {
+            e = tail;
+            unlink(e);
+            removeSlot(keys[e]);
+        } else {
+            e = size++;
+        }
+        keys[e] = day;
+        values[e] = rates;
+        insertSlot(day, e);
+        linkFront(e);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private int find(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int e = table[i];
+            if (e < 0) return -1;
+            if (keys[e] == key) return e;
+        }
+    }
+
+    private void insertSlot(long key, int e) {
+        int i = slot(key);
+        while (table[i] >= 0) i = (i + 1) & mask;
+        table[i] = e;
+    }
+
+    /** Backward-shift deletion keeps probe chains intact without tombstones. */
+    private void removeSlot(long key) {
+        int i = slot(key);
+        while (keys[table[i]] != key) i = (i + 1) & mask;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            int e = table[j];
+            if (e < 0) break;
+            int home = slot(keys[e]);
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (stays) continue;
+            table[i] = e;
+            i = j;
+        }
+        table[i] = -1;
+    }
+
+    private void unlink(int e) {
+        int p = prev[e];
+        int n = next[e];
+        if (p >= 0) next[p] = n;
+        else head = n;
+        if (n >= 0) prev[n] = p;
+        else tail = p;
+    }
+
+    private void linkFront(int e) {
+        prev[e] = -1;
+        next[e] = head;
+        if (head >= 0) prev[head] = e;
+        head = e;
+        if (tail < 0) tail = e;
+    }
+
+    private void moveToFront(int e) {
+        if (head == e) return;
+        unlink(e);
+        linkFront(e);
+    }
+}
@@ -0,0 +1,311 @@
+package com.acs.finance.service.rates;
+
+import com.acs.finance.repository.HistoricalRateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily MDL-based rates: {@link DayRateCache} in memory, {@code historical_rates} on disk, and the
+ * provider's timeseries endpoint behind both. Lookups never wait on the network: a day that is
+ * not available locally starts a background fetch of its whole block and reads as unavailable.
+ * {@link #prefetch} loads a date range up front with one provider call per {@code max-span-days}.
+ * <p>
+ * After a failed fetch, or a fetch that came back without some recent days, the affected blocks
+ * are neither re-read nor re-fetched for {@code retry-after}. Days the provider has no rates for
+ * are remembered as such only once they are older than {@code publication-lag-days}; a recent gap
+ * is usually a rate that has not been published yet.
+ */
+@Component
+@Slf4j
+public class HistoricalRateStore {
+
+    /** Cached marker for a settled day (older than the publication lag) the provider has no rates for. */
+    private static final double[] NO_DATA = new double[0];
+
+    private final RateProvider rateProvider;
+    private final HistoricalRateRepository repository;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate writeTx;
+    private final DayRateCache cache;
+    private final int blockDays;
+    private final int maxSpanDays;
+    private final int publicationLagDays;
+    private final long retryAfterMs;
+
+    private final ConcurrentHashMap<Range, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    /** Block start -> time (ms) before which the block is not looked up again. */
+    private final ConcurrentHashMap<Long, Long> retryAt = new ConcurrentHashMap<>();
+
+    private final Counter memoryHits;
+    private final Counter storeLoads;
+    private final Counter misses;
+    private final Counter fetches;
+
+    public HistoricalRateStore(RateProvider rateProvider,
+                               HistoricalRateRepository repository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${fintrack.rates.history.cache-days:1100}") int cacheDays,
+                               @Value("${fintrack.rates.history.block-days:31}") int blockDays,
+                               @Value("${fintrack.rates.history.max-span-days:365}") int maxSpanDays,
+                               @Value("${fintrack.rates.history.publication-lag-days:3}") int publicationLagDays,
+                               @Value("${fintrack.rates.retry-after:1m}") Duration retryAfter) {
+        this.rateProvider = rateProvider;
+        this.repository = repository;
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.cache = new DayRateCache(cacheDays);
+        this.blockDays = Math.max(1, blockDays);
+        this.maxSpanDays = Math.max(1, maxSpanDays);
+        this.publicationLagDays = Math.max(0, publicationLagDays);
+        this.retryAfterMs = retryAfter != null ? retryAfter.toMillis() : 0;
+
+        this.memoryHits = Counter.builder("fintrack.rates.history.lookups").tag("source", "memory").register(meterRegistry);
+        this.storeLoads = Counter.builder("fintrack.rates.history.lookups").tag("source", "store").register(meterRegistry);
+        this.misses = Counter.builder("fintrack.rates.history.lookups").tag("source", "missing").register(meterRegistry);
+        this.fetches = Counter.builder("fintrack.rates.history.fetches").register(meterRegistry);
+    }
+
+    /**
+     * Rate to convert {@code from} into {@code to} on {@code epochDay}, or NaN when that day's
+     * rates are not available locally (yet) or either currency is unknown.
+     */
+    public double crossRate(long epochDay, String from, String to) {
+        int f = CurrencyCodes.find(from);
+        int t = CurrencyCodes.find(to);
+        if (f < 0 || t < 0) return Double.NaN;
+        double[] rates = ratesOn(epochDay);
+        return rates != null ? crossRate(rates, f, t) : Double.NaN;
+    }
+
+    /**
+     * Cross rate between two {@link CurrencyCodes} ids within one day's rates, NaN if undefined.
+     */
+    public static double crossRate(double[] rates, int from, int to) {
+        if (from < 0 || to < 0) return Double.NaN;
+        double rf = rateAt(rates, from);
+        double rt = rateAt(rates, to);
+        if (Double.isNaN(rf) || Double.isNaN(rt) || rf == 0.0) return Double.NaN;
+        return rt / rf;
+    }
+
+    /**
+     * Rates on {@code epochDay} indexed by {@link CurrencyCodes} id (NaN where unknown), or null.
+     */
+    public double[] ratesOn(long epochDay) {
+        double[] rates = cache.get(epochDay);
+        if (rates != null) {
+            memoryHits.increment();
+            return rates.length == 0 ? null : rates;
+        }
+
+        long from = blockOf(epochDay);
+        long to = Math.min(from + blockDays - 1, LocalDate.now().toEpochDay());
+        if (from > to) return null;
+        if (backingOff(from)) {
+            misses.increment();
+            return null;
+        }
+        if (!fetching(epochDay)) {
+            storeLoads.increment();
+            loadFromStore(from, to);
+            rates = cache.get(epochDay);
+            if (rates != null) return rates.length == 0 ? null : rates;
+        }
+        if (!fetching(epochDay)) fetch(from, to);
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Makes {@code from..to} (clamped to today) available locally: days already stored are loaded
+     * into memory, the missing span is fetched with one provider call per {@code max-span-days}.
+     */
+    public CompletableFuture<Void> prefetch(LocalDate from, LocalDate to) {
+        long start = from.toEpochDay();
+        long end = Math.min(to.toEpochDay(), LocalDate.now().toEpochDay());
+        if (start > end) return CompletableFuture.completedFuture(null);
+
+        if (cached(start, end)) return CompletableFuture.completedFuture(null);
+
+        BitSet present = loadFromStore(start, end);
+        long first = start + present.nextClearBit(0);
+        if (first > end) return CompletableFuture.completedFuture(null);
+        long last = end;
+        while (last > first && present.get((int) (last - start))) last--;
+
+        CompletableFuture<?>[] parts = new CompletableFuture<?>[(int) ((last - first) / maxSpanDays + 1)];
+        for (int i = 0; i < parts.length; i++) {
+            long chunkFrom = first + (long) i * maxSpanDays;
+            parts[i] = fetch(chunkFrom, Math.min(chunkFrom + maxSpanDays - 1, last));
+        }
+        return CompletableFuture.allOf(parts);
+    }
+
+    private boolean cached(long from, long to) {
+        for (long day = from; day <= to; day++) {
+            if (cache.get(day) == null) return false;
+        }
+        return true;
+    }
+
+    /** Whether a running fetch covers {@code day}; its result will land in the cache. */
+    private boolean fetching(long day) {
+        for (Range range : inFlight.keySet()) {
+            if (range.from() <= day && day <= range.to()) return true;
+        }
+        return false;
+    }
+
+    private long blockOf(long day) {
+        return Math.floorDiv(day, blockDays) * blockDays;
+    }
+
+    private boolean backingOff(long block) {
+        Long until = retryAt.get(block);
+        if (until == null) return false;
+        if (System.currentTimeMillis() < until) return true;
+        retryAt.remove(block, until);
+        return false;
+    }
+
+    /** Holds off lookups of every block overlapping {@code from..to} for {@code retry-after}. */
+    private void backOff(long from, long to) {
+        long until = System.currentTimeMillis() + retryAfterMs;
+        for (long block = blockOf(from); block <= to; block += blockDays) {
+            retryAt.put(block, until);
+        }
+    }
+
+    /** Loads stored days of the range into memory; returns which days (offset from {@code from}) exist. */
+    private BitSet loadFromStore(long from, long to) {
+        DayAssembler assembler = new DayAssembler(from);
+        readTx.executeWithoutResult(status -> repository.forEachInRange(from, to, assembler));
+        assembler.flush();
+        return assembler.present;
+    }
+
+    /** Single-flight timeseries fetch of {@code from..to}; stores and caches the result. */
+    private CompletableFuture<Void> fetch(long from, long to) {
+        Range key = new Range(from, to);
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) return running;
+
+        fetches.increment();
+        CompletableFuture<Map<LocalDate, Map<String, Double>>> call;
+        try {
+            call = rateProvider.timeseries(LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to), CurrencyCodes.BASE);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((byDay, err) -> {
+            try {
+                if (err != null) {
+                    Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+                    log.warn("Historical rates fetch failed: {}..{}: {}", LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to), cause.toString());
+                    backOff(from, to);
+                    return;
+                }
+                writeTx.executeWithoutResult(status -> repository.saveAll(byDay));
+                for (long block = blockOf(from); block <= to; block += blockDays) {
+                    retryAt.remove(block);
+                }
+                long settled = LocalDate.now().toEpochDay() - publicationLagDays;
+                long firstUnpublished = Long.MAX_VALUE;
+                for (long day = from; day <= to; day++) {
+                    Map<String, Double> rates = byDay.get(LocalDate.ofEpochDay(day));
+                    if (rates != null) {
+                        cache.put(day, toArray(rates));
+                    } else if (day <= settled) {
+                        cache.put(day, NO_DATA);
+                    } else {
+                        firstUnpublished = Math.min(firstUnpublished, day);
+                    }
+                }
+                // Not cached: asked for again once retry-after has passed
+                if (firstUnpublished <= to) backOff(firstUnpublished, to);
+                log.info("Historical rates stored: {}..{}, {} days", LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to), byDay.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to store historical rates: {}..{}", LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to), e);
+            } finally {
+                inFlight.remove(key);
+                mine.complete(null);
+            }
+        });
+        return mine;
+    }
+
+    private static double rateAt(double[] rates, int id) {
+        if (id == CurrencyCodes.BASE_ID) return 1.0;
+        return id < rates.length ? rates[id] : Double.NaN;
+    }
+
+    private static double[] toArray(Map<String, Double> rates) {
+        double[] scratch = new double[CurrencyCodes.MAX_CODES];
+        Arrays.fill(scratch, Double.NaN);
+        int max = -1;
+        for (Map.Entry<String, Double> e : rates.entrySet()) {
+            int id = CurrencyCodes.register(e.getKey());
+            if (id < 0) continue;
+            scratch[id] = e.getValue();
+            max = Math.max(max, id);
+        }
+        return Arrays.copyOf(scratch, max + 1);
+    }
+
+    private record Range(long from, long to) {
+    }
+
+    /** Groups day-ordered rows into one array per day and puts them in the cache. */
+    private final class DayAssembler implements HistoricalRateRepository.RowHandler {
+        private final long origin;
+        private final BitSet present = new BitSet();
+        private final double[] scratch = new double[CurrencyCodes.MAX_CODES];
+        private long day = Long.MIN_VALUE;
+        private int max = -1;
+
+        DayAssembler(long origin) {
+            this.origin = origin;
+            Arrays.fill(scratch, Double.NaN);
+        }
+
+        @Override
+        public void accept(long epochDay, String currency, double rate) {
+            if (epochDay != day) {
+                flush();
+                day = epochDay;
+            }
+            int id = CurrencyCodes.register(currency);
+            if (id < 0) return;
+            scratch[id] = rate;
+            max = Math.max(max, id);
+        }
+
+        void flush() {
+            if (day == Long.MIN_VALUE) return;
+            if (max >= 0) {
+                cache.put(day, Arrays.copyOf(scratch, max + 1));
+                present.set((int) (day - origin));
+                Arrays.fill(scratch, 0, max + 1, Double.NaN);
+            }
+            max = -1;
+            day = Long.MIN_VALUE;
+        }
+    }
+}
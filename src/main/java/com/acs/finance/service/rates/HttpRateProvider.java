@@ -0,0 +1,135 @@
+package com.acs.finance.service.rates;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * exchangerate.host-compatible API over {@link HttpClient#sendAsync}: {@code GET {base-url}/latest}
+ * with {@code base} and {@code symbols}, and {@code GET {base-url}/timeseries} with {@code start_date},
+ * {@code end_date} and {@code base}.
+ * Point {@code fintrack.rates.base-url} at a local stub server to run without the real API.
+ * With virtual threads enabled the client's callbacks (parsing, storing fetched history) run on
+ * virtual threads rather than the client's default cached pool.
+ */
+@Component
+@Slf4j
+public class HttpRateProvider implements RateProvider {
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    public HttpRateProvider(ObjectMapper objectMapper,
+                            Environment environment,
+                            @Value("${fintrack.rates.base-url:https://api.exchangerate.host}") String baseUrl,
+                            @Value("${fintrack.rates.connect-timeout:5s}") Duration connectTimeout,
+                            @Value("${fintrack.rates.request-timeout:5s}") Duration requestTimeout) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            builder.executor(new VirtualThreadTaskExecutor("rates-http-"));
+        }
+        this.client = builder.build();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Double>> latest(String base, List<String> symbols) {
+        return get("/latest", base, symbols);
+    }
+
+    @Override
+    public CompletableFuture<Map<LocalDate, Map<String, Double>>> timeseries(LocalDate from, LocalDate to, String base) {
+        return get("/timeseries?start_date=" + from + "&end_date=" + to + "&base=" + encode(base))
+                .thenApply(rates -> {
+                    Map<LocalDate, Map<String, Double>> result = new HashMap<>();
+                    for (Iterator<Map.Entry<String, JsonNode>> it = rates.fields(); it.hasNext(); ) {
+                        Map.Entry<String, JsonNode> day = it.next();
+                        LocalDate date;
+                        try {
+                            date = LocalDate.parse(day.getKey());
+                        } catch (DateTimeParseException e) {
+                            throw new RateProviderException("Bad date in timeseries: " + day.getKey(), e);
+                        }
+                        Map<String, Double> dayRates = toRates(day.getValue());
+                        if (!dayRates.isEmpty()) {
+                            result.put(date, dayRates);
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    private CompletableFuture<Map<String, Double>> get(String path, String base, List<String> symbols) {
+        return get(path + "?base=" + encode(base) + "&symbols=" + encode(String.join(",", symbols)))
+                .thenApply(HttpRateProvider::toRates);
+    }
+
+    /** Completes with the {@code rates} object of the response. */
+    private CompletableFuture<JsonNode> get(String pathAndQuery) {
+        URI uri = URI.create(baseUrl + pathAndQuery);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new RateProviderException("HTTP " + response.statusCode() + " from " + uri);
+                    }
+                    JsonNode root;
+                    try {
+                        root = objectMapper.readTree(response.body());
+                    } catch (IOException e) {
+                        throw new RateProviderException("Malformed JSON from " + uri, e);
+                    }
+                    JsonNode rates = root.path("rates");
+                    if (!rates.isObject() || rates.isEmpty()) {
+                        throw new RateProviderException("No rates in response from " + uri);
+                    }
+                    return rates;
+                });
+    }
+
+    private static Map<String, Double> toRates(JsonNode rates) {
+        Map<String, Double> result = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = rates.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> e = it.next();
+            if (e.getValue().isNumber()) {
+                result.put(e.getKey(), e.getValue().doubleValue());
+            }
+        }
+        return result;
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+package com.acs.finance.service.rates;
+
+/**
+ * Converts amounts dated by epoch day into one target currency. Meant for one report: feed rows
+ * ordered by day and each distinct day costs a single {@link HistoricalRateStore#ratesOn} lookup;
+ * the per-row work is an array read. Days without local historical rates use the latest rates
+ * and are counted in {@link #approximated()}.
+ */
+public final class RateConverter {
+
+    /** Day value for rows that need no dated rate. */
+    public static final long NO_DAY = Long.MIN_VALUE;
+
+    private final HistoricalRateStore history;
+    private final RatesSnapshot latest;
+    private final String target;
+    private final int targetId;
+    private final int targetSlot;
+
+    private long day = NO_DAY;
+    private double[] dayRates;
+    private int approximated;
+
+    public RateConverter(HistoricalRateStore history, RatesSnapshot latest, String target) {
+        this.history = history;
+        this.latest = latest;
+        this.target = target;
+        this.targetId = CurrencyCodes.find(target);
+        this.targetSlot = latest.slot(target);
+    }
+
+    public String target() {
+        return target;
+    }
+
+    /**
+     * Units of the target per one {@code currency} on {@code epochDay}; NaN if no rate is known.
+     */
+    public double rate(long epochDay, String currency) {
+        if (currency == null || currency.equals(target)) return 1.0;
+        if (epochDay != NO_DAY && history != null) {
+            if (epochDay != day) {
+                day = epochDay;
+                dayRates = history.ratesOn(epochDay);
+            }
+            if (dayRates != null) {
+                double rate = HistoricalRateStore.crossRate(dayRates, CurrencyCodes.find(currency), targetId);
+                if (!Double.isNaN(rate)) return rate;
+            }
+        }
+        approximated++;
+        return latest.rate(latest.slot(currency), targetSlot);
+    }
+
+    /**
+     * Fills {@code out[i]} with the rate of row {@code i}, for {@code i < n}.
+     */
+    public void rates(long[] days, String[] currencies, int n, double[] out) {
+        for (int i = 0; i < n; i++) {
+            out[i] = rate(days[i], currencies[i]);
+        }
+    }
+
+    /** Rows converted with latest instead of historical rates so far. */
+    public int approximated() {
+        return approximated;
+    }
+}
@@ -0,0 +1,22 @@
+package com.acs.finance.service.rates;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of exchange rates. Calls never block: the result completes when the remote answer
+ * arrives and completes exceptionally on network, HTTP or format errors.
+ * Rates are quoted as units of {@code symbol} per one unit of {@code base}.
+ */
+public interface RateProvider {
+
+    CompletableFuture<Map<String, Double>> latest(String base, List<String> symbols);
+
+    /**
+     * Daily rates of every currency the source knows for {@code from..to} inclusive, in one call.
+     * Days the source has no data for are absent from the result.
+     */
+    CompletableFuture<Map<LocalDate, Map<String, Double>>> timeseries(LocalDate from, LocalDate to, String base);
+}
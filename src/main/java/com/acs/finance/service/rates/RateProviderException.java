@@ -0,0 +1,15 @@
+package com.acs.finance.service.rates;
+
+/**
+ * The rate source answered, but not with usable rates (non-200 status, malformed body).
+ */
+public class RateProviderException extends RuntimeException {
+
+    public RateProviderException(String message) {
+        super(message);
+    }
+
+    public RateProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,86 @@
+package com.acs.finance.service.rates;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable set of latest rates with every cross rate precomputed. Currencies are addressed by a
+ * dense slot ({@link #slot}); {@code cross[from][to]} is the number of {@code to} units per one
+ * {@code from}, NaN where undefined. Lookups and conversions allocate nothing.
+ */
+public final class RatesSnapshot {
+
+    private final long timestamp;
+    private final String[] codes;
+    /** {@link CurrencyCodes} id -> slot, -1 when the currency is not in this snapshot. */
+    private final int[] slotOf;
+    private final double[][] cross;
+
+    private RatesSnapshot(long timestamp, String[] codes, int[] slotOf, double[][] cross) {
+        this.timestamp = timestamp;
+        this.codes = codes;
+        this.slotOf = slotOf;
+        this.cross = cross;
+    }
+
+    /**
+     * Builds a snapshot from units-per-{@link CurrencyCodes#BASE} rates; the base itself is implied.
+     */
+    public static RatesSnapshot of(Map<String, Double> perBase, long timestamp) {
+        int n = 1;
+        int[] ids = new int[perBase.size() + 1];
+        double[] toBase = new double[perBase.size() + 1];
+        ids[0] = CurrencyCodes.BASE_ID;
+        toBase[0] = 1.0;
+        for (Map.Entry<String, Double> e : perBase.entrySet()) {
+            int id = CurrencyCodes.register(e.getKey());
+            if (id < 0 || id == CurrencyCodes.BASE_ID || e.getValue() == null) continue;
+            ids[n] = id;
+            toBase[n] = e.getValue();
+            n++;
+        }
+
+        int maxId = 0;
+        for (int i = 0; i < n; i++) maxId = Math.max(maxId, ids[i]);
+        int[] slotOf = new int[maxId + 1];
+        Arrays.fill(slotOf, -1);
+        String[] codes = new String[n];
+        for (int i = 0; i < n; i++) {
+            slotOf[ids[i]] = i;
+            codes[i] = CurrencyCodes.codeOf(ids[i]);
+        }
+
+        double[][] cross = new double[n][n];
+        for (int f = 0; f < n; f++) {
+            for (int t = 0; t < n; t++) {
+                double rf = toBase[f];
+                cross[f][t] = rf == 0.0 || Double.isNaN(rf) ? Double.NaN : toBase[t] / rf;
+            }
+        }
+        return new RatesSnapshot(timestamp, codes, slotOf, cross);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /** Number of currencies; valid slots are {@code 0 .. size() - 1}. */
+    public int size() {
+        return codes.length;
+    }
+
+    /** Slot of {@code code} (case-insensitive), or -1. */
+    public int slot(String code) {
+        int id = CurrencyCodes.find(code);
+        return id >= 0 && id < slotOf.length ? slotOf[id] : -1;
+    }
+
+    public String code(int slot) {
+        return codes[slot];
+    }
+
+    /** Units of {@code to} per one {@code from}; NaN if either slot is -1. */
+    public double rate(int from, int to) {
+        return from < 0 || to < 0 ? Double.NaN : cross[from][to];
+    }
+}
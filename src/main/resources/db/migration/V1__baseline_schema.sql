@@ -0,0 +1,54 @@
+-- Baseline schema, equivalent to what hibernate.ddl-auto=update used to create.
+-- IF NOT EXISTS keeps this a no-op on databases that predate migrations.
+
+CREATE TABLE IF NOT EXISTS users (
+    id            VARCHAR(36)  NOT NULL PRIMARY KEY,
+    username      VARCHAR(255) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    group_id      VARCHAR(36),
+    share         FLOAT
+);
+
+CREATE TABLE IF NOT EXISTS sessions (
+    sid        VARCHAR(64)  NOT NULL PRIMARY KEY,
+    username   VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id             VARCHAR(36)    NOT NULL PRIMARY KEY,
+    user_id        VARCHAR(36)    NOT NULL,
+    date_epoch_day BIGINT         NOT NULL,
+    category       VARCHAR(255),
+    description    VARCHAR(255),
+    amount         NUMERIC(14, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    user_id      VARCHAR(36)    NOT NULL,
+    category     VARCHAR(100)   NOT NULL,
+    limit_amount NUMERIC(14, 2) NOT NULL,
+    spent        NUMERIC(14, 2) NOT NULL,
+    PRIMARY KEY (user_id, category)
+);
+
+CREATE TABLE IF NOT EXISTS reminders (
+    id            VARCHAR(36)    NOT NULL PRIMARY KEY,
+    user_id       VARCHAR(36)    NOT NULL,
+    due_epoch_day BIGINT         NOT NULL,
+    message       VARCHAR(255)   NOT NULL,
+    amount        NUMERIC(14, 2),
+    sent          BOOLEAN        NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS "groups" (
+    id   VARCHAR(36)  NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS group_members (
+    group_id VARCHAR(36)   NOT NULL,
+    user_id  VARCHAR(36)   NOT NULL,
+    share    NUMERIC(5, 4) NOT NULL,
+    PRIMARY KEY (group_id, user_id)
+);
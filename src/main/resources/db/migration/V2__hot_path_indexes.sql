@@ -0,0 +1,13 @@
+-- Indexes for the per-user lookups issued on every request.
+
+-- findFiltered / findPage / streaming: user filter, date range, (date, id) keyset order
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date ON transactions (user_id, date_epoch_day, id);
+
+-- findDueReminders: user_id = ? AND sent = 0 AND due_epoch_day <= ?
+CREATE INDEX IF NOT EXISTS idx_reminders_user_sent_due ON reminders (user_id, sent, due_epoch_day);
+
+-- findByUserId / findGroupIdByUserId / deleteByUserId (PK is group_id first)
+CREATE INDEX IF NOT EXISTS idx_group_members_user ON group_members (user_id);
+
+-- Databases created by Hibernate have PRIMARY KEY (category, user_id), which cannot serve user_id lookups
+CREATE INDEX IF NOT EXISTS idx_budgets_user_category ON budgets (user_id, category);
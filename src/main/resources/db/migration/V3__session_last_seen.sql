@@ -0,0 +1,8 @@
+-- Sliding session expiry: last activity in epoch millis, swept by SessionSweeper.
+ALTER TABLE sessions ADD COLUMN last_seen_at BIGINT;
+
+-- Existing sessions start a fresh TTL from the time of the upgrade
+UPDATE sessions SET last_seen_at = CAST(strftime('%s', 'now') AS INTEGER) * 1000 WHERE last_seen_at IS NULL;
+
+-- deleteExpired: last_seen_at < ?
+CREATE INDEX IF NOT EXISTS idx_sessions_last_seen ON sessions (last_seen_at);
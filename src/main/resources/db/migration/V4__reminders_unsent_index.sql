@@ -0,0 +1,2 @@
+-- findUnsent: loads the reminder due index at startup (sent = 0 ORDER BY due_epoch_day)
+CREATE INDEX IF NOT EXISTS idx_reminders_sent_due ON reminders (sent, due_epoch_day);
@@ -0,0 +1,20 @@
+-- Per-user, per-day, per-category totals maintained alongside transactions (see DailyRollupRepository).
+-- Uncategorised transactions use category '' so the key never contains NULL.
+CREATE TABLE IF NOT EXISTS daily_rollups (
+    user_id   VARCHAR(36)  NOT NULL,
+    epoch_day BIGINT       NOT NULL,
+    category  VARCHAR(255) NOT NULL,
+    income    DOUBLE       NOT NULL DEFAULT 0,
+    expense   DOUBLE       NOT NULL DEFAULT 0,
+    tx_count  INTEGER      NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, epoch_day, category)
+);
+
+-- Backfill from existing history
+INSERT INTO daily_rollups (user_id, epoch_day, category, income, expense, tx_count)
+SELECT user_id, date_epoch_day, COALESCE(category, ''),
+       SUM(CASE WHEN amount > 0 THEN amount ELSE 0 END),
+       SUM(CASE WHEN amount < 0 THEN -amount ELSE 0 END),
+       COUNT(*)
+FROM transactions
+GROUP BY user_id, date_epoch_day, COALESCE(category, '');
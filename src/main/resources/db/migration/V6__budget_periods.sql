@@ -0,0 +1,19 @@
+-- Budgets get a period; spend moves from the ever-growing budgets.spent counter into
+-- per-period buckets keyed by the period's first epoch day (0 for ALL_TIME).
+ALTER TABLE budgets ADD COLUMN period VARCHAR(16) NOT NULL DEFAULT 'ALL_TIME';
+
+CREATE TABLE IF NOT EXISTS budget_spend (
+    user_id      VARCHAR(36)    NOT NULL,
+    category     VARCHAR(100)   NOT NULL, -- LOWER(budgets.category)
+    period_start BIGINT         NOT NULL,
+    spent        NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, category, period_start)
+);
+
+-- Existing budgets are ALL_TIME: their counter becomes the single bucket
+INSERT INTO budget_spend (user_id, category, period_start, spent)
+SELECT user_id, LOWER(category), 0, MAX(spent)
+FROM budgets
+GROUP BY user_id, LOWER(category);
+
+ALTER TABLE budgets DROP COLUMN spent;
@@ -0,0 +1,8 @@
+-- Daily exchange rates, units of currency per 1 MDL (see HistoricalRateRepository).
+-- Filled from the rate provider's timeseries endpoint; survives restarts so history is fetched once.
+CREATE TABLE IF NOT EXISTS historical_rates (
+    epoch_day BIGINT     NOT NULL,
+    currency  VARCHAR(8) NOT NULL,
+    rate      DOUBLE     NOT NULL,
+    PRIMARY KEY (epoch_day, currency)
+) WITHOUT ROWID;
@@ -0,0 +1,21 @@
+-- Transactions carry an ISO currency code; existing rows were entered in MDL.
+ALTER TABLE transactions ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'MDL';
+
+-- Rollups are kept per currency so reports can convert each day at that day's rate.
+-- SQLite cannot change a primary key in place: rebuild the table.
+CREATE TABLE daily_rollups_new (
+    user_id   VARCHAR(36)  NOT NULL,
+    epoch_day BIGINT       NOT NULL,
+    category  VARCHAR(255) NOT NULL,
+    currency  VARCHAR(3)   NOT NULL DEFAULT 'MDL',
+    income    DOUBLE       NOT NULL DEFAULT 0,
+    expense   DOUBLE       NOT NULL DEFAULT 0,
+    tx_count  INTEGER      NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, epoch_day, category, currency)
+);
+
+INSERT INTO daily_rollups_new (user_id, epoch_day, category, currency, income, expense, tx_count)
+SELECT user_id, epoch_day, category, 'MDL', income, expense, tx_count FROM daily_rollups;
+
+DROP TABLE daily_rollups;
+ALTER TABLE daily_rollups_new RENAME TO daily_rollups;
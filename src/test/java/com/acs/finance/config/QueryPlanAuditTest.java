@@ -0,0 +1,53 @@
+package com.acs.finance.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application on a fresh SQLite file migrated by Flyway with the plan audit on: every
+ * repository {@code @Query} and every JDBC repository SQL constant is explained at startup, and
+ * none of them may fail to explain or plan a full table or index scan.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "fintrack.db.plan-audit.enabled=true",
+        // Collect every violation and assert below instead of failing the context on the first run
+        "fintrack.db.plan-audit.fail-on-scan=false",
+        // Nothing listens there: the background rate refresh fails fast instead of going online
+        "fintrack.rates.base-url=http://127.0.0.1:9"
+})
+class QueryPlanAuditTest {
+
+    private static final Path DATABASE;
+
+    static {
+        try {
+            DATABASE = Files.createTempDirectory("fintrack-plan-audit").resolve("fintrack.db");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + DATABASE);
+    }
+
+    @Autowired
+    private QueryPlanAuditor auditor;
+
+    @Test
+    void repositoryQueriesDoNotScanWholeTables() {
+        assertThat(auditor.auditedStatements()).isPositive();
+        assertThat(auditor.violations()).isEmpty();
+    }
+}
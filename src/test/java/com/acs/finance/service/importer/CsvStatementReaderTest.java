@@ -0,0 +1,76 @@
+package com.acs.finance.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Decimal separator detection of CSV amounts: unambiguous amounts decide the separator, an
+ * amount that reads either way ({@code 1,234}) is rejected until one of them has.
+ */
+class CsvStatementReaderTest {
+
+    @Test
+    void separatorOfSingleAmounts() {
+        assertThat(CsvStatementReader.decimalSeparatorOf("12,50")).isEqualTo(',');
+        assertThat(CsvStatementReader.decimalSeparatorOf("12.5")).isEqualTo('.');
+        assertThat(CsvStatementReader.decimalSeparatorOf("1.234,56")).isEqualTo(',');
+        assertThat(CsvStatementReader.decimalSeparatorOf("1,234.56")).isEqualTo('.');
+        // A repeated separator can only be grouping
+        assertThat(CsvStatementReader.decimalSeparatorOf("1,234,567")).isEqualTo('.');
+        assertThat(CsvStatementReader.decimalSeparatorOf("-1.234.567")).isEqualTo(',');
+        assertThat(CsvStatementReader.decimalSeparatorOf("1234")).isEqualTo((char) 0);
+    }
+
+    @Test
+    void threeDigitsAfterOneSeparatorAreAmbiguous() {
+        assertThat(CsvStatementReader.decimalSeparatorOf("1,234")).isEqualTo('?');
+        assertThat(CsvStatementReader.decimalSeparatorOf("-123.456")).isEqualTo('?');
+        // A leading zero or four integer digits rule out grouping
+        assertThat(CsvStatementReader.decimalSeparatorOf("0,234")).isEqualTo(',');
+        assertThat(CsvStatementReader.decimalSeparatorOf("1234,567")).isEqualTo(',');
+    }
+
+    @Test
+    void ambiguousAmountIsRejectedUntilTheSeparatorIsKnown() throws IOException {
+        CsvStatementReader reader = reader("1,234", "12,50", "1,234");
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(StatementFormatException.class)
+                .hasMessageContaining("ambiguous amount '1,234'");
+        assertThat(reader.next().amount()).isEqualTo(12.5);
+        // The file uses decimal commas, so the same text now reads as 1.234
+        assertThat(reader.next().amount()).isEqualTo(1.234);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void groupedAmountsTeachTheOtherSeparator() throws IOException {
+        CsvStatementReader reader = reader("1,234,567", "1.234,56", "1,234");
+
+        assertThat(reader.next().amount()).isEqualTo(1234567.0);
+        // An unambiguous amount with the other separator wins: the last one seen is used
+        assertThat(reader.next().amount()).isEqualTo(1234.56);
+        assertThat(reader.next().amount()).isEqualTo(1.234);
+    }
+
+    @Test
+    void dotGroupingIsLearnedToo() throws IOException {
+        CsvStatementReader reader = reader("1,234.56", "-1,234");
+
+        assertThat(reader.next().amount()).isEqualTo(1234.56);
+        assertThat(reader.next().amount()).isEqualTo(-1234.0);
+    }
+
+    private static CsvStatementReader reader(String... amounts) {
+        StringBuilder csv = new StringBuilder("date;amount\n");
+        for (String amount : amounts) {
+            csv.append("2024-01-15;").append(amount).append('\n');
+        }
+        return new CsvStatementReader(new StringReader(csv.toString()));
+    }
+}
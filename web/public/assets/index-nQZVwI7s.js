@@ -19,7 +19,7 @@ var rf=Object.defineProperty;var af=(e,t,n)=>t in e?rf(e,t,{enumerable:!0,config
  * (c) 2025 Eduardo San Martin Morote
  * @license MIT
  */let su;const Ji=e=>su=e,iu=Symbol();function jo(e){return e&&typeof e=="object"&&Object.prototype.toString.call(e)==="[object Object]"&&typeof e.toJSON!="function"}var bs;(function(e){e.direct="direct",e.patchObject="patch object",e.patchFunction="patch function"})(bs||(bs={}));function Ld(){const e=ic(!0),t=e.run(()=>ct({}));let n=[],s=[];const i=yr({install(o){Ji(i),i._a=o,o.provide(iu,i),o.config.globalProperties.$pinia=i,s.forEach(r=>n.push(r)),s=[]},use(o){return this._a?n.push(o):s.push(o),this},_p:n,_a:null,_e:e,_s:new Map,state:t});return i}const ou=()=>{};function wa(e,t,n,s=ou){e.push(t);const i=()=>{const o=e.indexOf(t);o>-1&&(e.splice(o,1),s())};return!n&&oc()&&_f(i),i}function Ln(e,...t){e.slice().forEach(n=>{n(...t)})}const Ed=e=>e(),Ma=Symbol(),bo=Symbol();function Ho(e,t){e instanceof Map&&t instanceof Map?t.forEach((n,s)=>e.set(s,n)):e instanceof Set&&t instanceof Set&&t.forEach(e.add,e);for(const n in t){if(!t.hasOwnProperty(n))continue;const s=t[n],i=e[n];jo(i)&&jo(s)&&e.hasOwnProperty(n)&&!Pt(s)&&!Ze(s)?e[n]=Ho(i,s):e[n]=s}return e}const Fd=Symbol();function $d(e){return!jo(e)||!e.hasOwnProperty(Fd)}const{assign:We}=Object;function Bd(e){return!!(Pt(e)&&e.effect)}function Nd(e,t,n,s){const{state:i,actions:o,getters:r}=t,a=n.state.value[e];let l;function c(){a||(n.state.value[e]=i?i():{});const u=Wf(n.state.value[e]);return We(u,o,Object.keys(r||{}).reduce((f,h)=>(f[h]=yr(kn(()=>{Ji(n);const d=n._s.get(e);return r[h].call(d,d)})),f),{}))}return l=ru(e,c,t,n,s,!0),l}function ru(e,t,n={},s,i,o){let r;const a=We({actions:{}},n),l={deep:!0};let c,u,f=[],h=[],d;const p=s.state.value[e];!o&&!p&&(s.state.value[e]={}),ct({});let g;function m(C){let I;c=u=!1,typeof C=="function"?(C(s.state.value[e]),I={type:bs.patchFunction,storeId:e,events:d}):(Ho(s.state.value[e],C),I={type:bs.patchObject,payload:C,storeId:e,events:d});const z=g=Symbol();xr().then(()=>{g===z&&(c=!0)}),u=!0,Ln(f,I,s.state.value[e])}const y=o?function(){const{state:I}=n,z=I?I():{};this.$patch(U=>{We(U,z)})}:ou;function S(){r.stop(),f=[],h=[],s._s.delete(e)}const w=(C,I="")=>{if(Ma in C)return C[bo]=I,C;const z=function(){Ji(s);const U=Array.from(arguments),L=[],j=[];function G(V){L.push(V)}function q(V){j.push(V)}Ln(h,{args:U,name:z[bo],store:M,after:G,onError:q});let W;try{W=C.apply(this&&this.$id===e?this:M,U)}catch(V){throw Ln(j,V),V}return W instanceof Promise?W.then(V=>(Ln(L,V),V)).catch(V=>(Ln(j,V),Promise.reject(V))):(Ln(L,W),W)};return z[Ma]=!0,z[bo]=I,z},v={_p:s,$id:e,$onAction:wa.bind(null,h),$patch:m,$reset:y,$subscribe(C,I={}){const z=wa(f,C,I.detached,()=>U()),U=r.run(()=>Mn(()=>s.state.value[e],L=>{(I.flush==="sync"?u:c)&&C({storeId:e,type:bs.direct,events:d},L)},We({},l,I)));return z},$dispose:S},M=Ui(v);s._s.set(e,M);const T=(s._a&&s._a.runWithContext||Ed)(()=>s._e.run(()=>(r=ic()).run(()=>t({action:w}))));for(const C in T){const I=T[C];if(Pt(I)&&!Bd(I)||Ze(I))o||(p&&$d(I)&&(Pt(I)?I.value=p[C]:Ho(I,p[C])),s.state.value[e][C]=I);else if(typeof I=="function"){const z=w(I,C);T[C]=z,a.actions[C]=I}}return We(M,T),We(ut(M),T),Object.defineProperty(M,"$state",{get:()=>s.state.value[e],set:C=>{m(I=>{We(I,C)})}}),s._p.forEach(C=>{We(M,r.run(()=>C({store:M,app:s._a,pinia:s,options:a})))}),p&&o&&n.hydrate&&n.hydrate(M.$state,p),c=!0,u=!0,M}/*! #__NO_SIDE_EFFECTS__ */function zd(e,t,n){let s,i;const o=typeof t=="function";s=e,i=o?n:t;function r(a,l){const c=kh();return a=a||(c?gs(iu,null):null),a&&Ji(a),a=su,a._s.has(s)||(o?ru(s,t,i,a):Nd(s,i,a)),a._s.get(s)}return r.$id=s,r}function Vd(e){try{const t=JSON.parse(localStorage.getItem(e)||"[]");return new Set(Array.isArray(t)?t:[])}catch{return new Set}}function jd(e,t){localStorage.setItem(e,JSON.stringify(Array.from(t)))}const kr=zd("app",{state:()=>({user:null,favoritesSet:Vd("favorites.categories"),theme:localStorage.getItem("ui.theme")||"dark",baseCurrency:localStorage.getItem("ui.baseCurrency")||"MDL"}),getters:{favorites:e=>e.favoritesSet},actions:{setUser(e){this.user=e},toggleFavorite(e){this.favoritesSet.has(e)?this.favoritesSet.delete(e):this.favoritesSet.add(e),jd("favorites.categories",this.favoritesSet)},setTheme(e){this.theme=e,localStorage.setItem("ui.theme",e),document.documentElement.dataset.theme=e;try{document.body.dataset.theme=e}catch{}},setBaseCurrency(e){this.baseCurrency=e,localStorage.setItem("ui.baseCurrency",e)}}}),Hd="fintrack-cache",Ce="responses";let Us=null;function Qi(){return Us||(Us=new Promise((e,t)=>{const n=indexedDB.open(Hd,1);n.onupgradeneeded=()=>{const s=n.result;s.objectStoreNames.contains(Ce)||s.createObjectStore(Ce)},n.onsuccess=()=>e(n.result),n.onerror=()=>t(n.error)}),Us)}async function Wd(e){try{const t=await Qi();return await new Promise((n,s)=>{const r=t.transaction(Ce,"readonly").objectStore(Ce).get(e);r.onsuccess=()=>{const a=r.result;if(!a){n(null);return}if(Date.now()-(a.at||0)>Gd){Ud(e),n(null);return}n(a)},r.onerror=()=>s(r.error)})}catch{return null}}async function Ud(e){try{const t=await Qi();await new Promise((n,s)=>{const r=t.transaction(Ce,"readwrite").objectStore(Ce).delete(e);r.onsuccess=()=>n(),r.onerror=()=>s(r.error)})}catch{}}async function Yd(e,t){try{const n=await Qi();await new Promise((s,i)=>{const a=n.transaction(Ce,"readwrite").objectStore(Ce).put(t,e);a.onsuccess=()=>s(),a.onerror=()=>i(a.error)})}catch{}}async function Kd(e){try{const i=(await Qi()).transaction(Ce,"readwrite").objectStore(Ce).openCursor();i.onsuccess=o=>{const r=o.target.result;if(r){const a=r.key;a.startsWith("GET ")&&a.includes(e)&&r.delete(),r.continue()}}}catch{}}function Xd(e){const t=new URLSearchParams;for(const[n,s]of Object.entries(e))s!=null&&t.append(n,String(s));return t.toString()}const Gd=5*60*1e3;async function Ot(e,t={}){const n=t.method??"GET",i={method:n,headers:{"Content-Type":"application/x-www-form-urlencoded"},credentials:"include"};t.form&&(i.body=Xd(t.form)),t.body&&(i.body=t.body);const o=n==="GET"?`GET ${e}`:null;if(n!=="GET"){const r=e.split("?")[0];await Kd(r)}try{const r=await fetch(e,i),a=await r.text(),l=qd(a);return r.ok&&o&&await Yd(o,{json:l,at:Date.now()}),l}catch{if(o){const r=await Wd(o);if(r)return r.json}return{ok:!1,error:"offline"}}}function qd(e){try{return JSON.parse(e)}catch{return{ok:!1,error:"Bad JSON",raw:e}}}function Jd(e){try{const t=new EventSource("/api/events");return t.onmessage=n=>{try{e(JSON.parse(n.data))}catch{}},t.onerror=()=>{},t}catch{return null}}async function Qd(e){return(await Ot("/api/categorizer/suggest?desc="+encodeURIComponent(e))).category||null}function Zd(e){const t=["id","date","category","description","amount"],n=e.map(i=>[i.id,i.date,i.category??"",i.description??"",i.amount]);return[t,...n].map(i=>i.map(o=>`"${String(o).replace(/"/g,'""')}"`).join(",")).join(`\r
-`)}const tp={class:"topbar"},ep={class:"nav"},np={class:"nav-right"},sp={key:0,class:"user-menu-wrapper"},ip={class:"user-badge"},op=ie({__name:"Header",props:{user:{}},emits:["toggle-theme","show-auth","logout"],setup(e){const t=ct(!1);return(n,s)=>(J(),Z("header",tp,[s[11]||(s[11]=x("div",{class:"brand"},"💰 FinTrack",-1)),x("nav",ep,[x("div",np,[e.user?(J(),Z("div",sp,[x("div",{class:"user-trigger",onMouseenter:s[4]||(s[4]=i=>t.value=!0),onMouseleave:s[5]||(s[5]=i=>t.value=!1)},[x("div",ip,[s[7]||(s[7]=pt("👤 ",-1)),x("span",null,lt(e.user.username),1)]),t.value?(J(),Z("div",{key:0,class:"user-dropdown",onMouseenter:s[2]||(s[2]=i=>t.value=!0),onMouseleave:s[3]||(s[3]=i=>t.value=!1)},[x("div",{class:"user-menu-item",onClick:s[0]||(s[0]=i=>n.$emit("toggle-theme"))},[...s[8]||(s[8]=[x("span",{class:"menu-icon"},"🌓",-1),x("span",{class:"menu-text"},"Тема",-1)])]),s[10]||(s[10]=x("div",{class:"user-menu-divider"},null,-1)),x("div",{class:"user-menu-item logout-item",onClick:s[1]||(s[1]=i=>n.$emit("logout"))},[...s[9]||(s[9]=[x("span",{class:"menu-icon"},"🚪",-1),x("span",{class:"menu-text"},"Выйти",-1)])])],32)):re("",!0)],32)])):re("",!0),e.user?re("",!0):(J(),Z("button",{key:1,onClick:s[6]||(s[6]=i=>n.$emit("show-auth"))},"Войти"))])])]))}}),rp={class:"auth"},ap={class:"hint"},lp=ie({__name:"AuthForm",emits:["login","register"],setup(e){const t=ct({username:"",password:""});return(n,s)=>(J(),Z("section",rp,[s[6]||(s[6]=x("h2",null,"Авторизация",-1)),x("form",{onSubmit:s[2]||(s[2]=rn(i=>n.$emit("login",t.value),["prevent"]))},[ce(x("input",{"onUpdate:modelValue":s[0]||(s[0]=i=>t.value.username=i),name:"username",placeholder:"Логин",required:"",minlength:"3"},null,512),[[Se,t.value.username,void 0,{trim:!0}]]),ce(x("input",{"onUpdate:modelValue":s[1]||(s[1]=i=>t.value.password=i),type:"password",name:"password",placeholder:"Пароль",required:"",minlength:"3"},null,512),[[Se,t.value.password,void 0,{trim:!0}]]),s[4]||(s[4]=x("button",{type:"submit"},"Войти",-1))],32),x("div",ap,[s[5]||(s[5]=pt("Нет аккаунта? ",-1)),x("a",{href:"#",onClick:s[3]||(s[3]=rn(i=>n.$emit("register",t.value),["prevent"]))},"Зарегистрироваться")])]))}}),cp={class:"stats-row"},up={class:"stat-card"},fp={class:"stat-value"},hp={class:"stat-card"},dp={class:"stat-value",id:"statExpenses"},pp={class:"stat-card"},gp={class:"stat-value",id:"statIncome"},mp=ie({__name:"StatsCards",props:{stats:{}},setup(e){return(t,n)=>(J(),Z("div",cp,[x("div",up,[n[0]||(n[0]=x("div",{class:"stat-label"},"Всего транзакций",-1)),x("div",fp,lt(e.stats.total),1)]),x("div",hp,[n[1]||(n[1]=x("div",{class:"stat-label"},"Расходы",-1)),x("div",dp,lt(e.stats.expenses),1)]),x("div",pp,[n[2]||(n[2]=x("div",{class:"stat-label"},"Доходы",-1)),x("div",gp,lt(e.stats.income),1)])]))}}),bp={class:"tile tile--accent col-5"},yp={class:"form-grid"},xp=["value"],_p=["value"],vp=["value"],Sp={class:"full",style:{display:"flex",gap:"8px","align-items":"center"}},wp=["value"],Mp=["aria-pressed"],kp=["value"],Cp={class:"full row",style:{"justify-content":"flex-start"}},Pp=["onClick"],Op={class:"full",style:{display:"flex",gap:"8px","align-items":"center"}},Dp=["value"],Tp=["disabled"],Ap={class:"full",style:{display:"flex",gap:"8px","align-items":"center"}},Rp=["disabled"],Ip=["disabled"],Lp=ie({__name:"TransactionForm",props:{txForm:{},templates:{},isFav:{type:Boolean},quickAmounts:{}},emits:["update:txForm","submit","toggle-fav","suggest-category","apply-quick","use-template","save-template","delete-template"],setup(e,{emit:t}){const n=e,s=t,i=ct(""),o=ct("");function r(a,l){s("update:txForm",{...n.txForm,[a]:l})}return(a,l)=>(J(),Z("div",bp,[l[15]||(l[15]=x("h3",null,"Добавить транзакцию",-1)),x("form",{onSubmit:l[11]||(l[11]=rn(c=>a.$emit("submit"),["prevent"]))},[x("div",yp,[x("input",{value:e.txForm.date,onInput:l[0]||(l[0]=c=>r("date",c.target.value)),name:"date",type:"date",required:""},null,40,xp),x("select",{value:e.txForm.type,onChange:l[1]||(l[1]=c=>r("type",c.target.value)),name:"type"},[...l[12]||(l[12]=[x("option",{value:"expense"},"Расход",-1),x("option",{value:"income"},"Доход",-1)])],40,_p),x("input",{value:e.txForm.amount,onInput:l[2]||(l[2]=c=>r("amount",Number(c.target.value))),name:"amount",type:"number",step:"0.01",placeholder:"Сумма",required:""},null,40,vp),x("div",Sp,[x("input",{value:e.txForm.category,onInput:l[3]||(l[3]=c=>r("category",c.target.value)),name:"category",placeholder:"Категория",style:{flex:"1"}},null,40,wp),x("button",{type:"button",title:"Добавить в избранное",onClick:l[4]||(l[4]=c=>a.$emit("toggle-fav")),"aria-pressed":e.isFav},lt(e.isFav?"★":"☆"),9,Mp)]),x("input",{value:e.txForm.description,onInput:l[5]||(l[5]=c=>{r("description",c.target.value),a.$emit("suggest-category")}),name:"description",placeholder:"Описание",class:"full"},null,40,kp),x("div",Cp,[(J(!0),Z(It,null,sn(e.quickAmounts,c=>(J(),Z("button",{type:"button",key:c,onClick:u=>a.$emit("apply-quick",c)},lt(c),9,Pp))),128))]),x("div",Op,[ce(x("select",{"onUpdate:modelValue":l[6]||(l[6]=c=>i.value=c),style:{flex:"1"}},[l[13]||(l[13]=x("option",{value:"",disabled:"",selected:""},"Выбрать шаблон…",-1)),(J(!0),Z(It,null,sn(e.templates,c=>(J(),Z("option",{key:c.name,value:c.name},lt(c.name),9,Dp))),128))],512),[[Cd,i.value]]),x("button",{type:"button",onClick:l[7]||(l[7]=c=>a.$emit("use-template",i.value)),disabled:!i.value},"Подставить",8,Tp)]),x("div",Ap,[ce(x("input",{"onUpdate:modelValue":l[8]||(l[8]=c=>o.value=c),placeholder:"Название шаблона",style:{flex:"1"}},null,512),[[Se,o.value,void 0,{trim:!0}]]),x("button",{type:"button",onClick:l[9]||(l[9]=c=>a.$emit("save-template",o.value)),disabled:!o.value},"Сохранить шаблон",8,Rp),x("button",{type:"button",onClick:l[10]||(l[10]=c=>a.$emit("delete-template",i.value)),disabled:!i.value},"Удалить",8,Ip)]),l[14]||(l[14]=x("button",{type:"submit",class:"full"},"Сохранить",-1))])],32)]))}}),Ep={class:"tile col-7"},Fp={class:"row",style:{"margin-bottom":"8px"}},$p=["value"],Bp=["value"],Np=ie({__name:"ChartView",props:{viewMode:{},chartMode:{}},emits:["update:viewMode","update:chartMode","refresh"],setup(e,{expose:t}){const n=ct(null);return t({chartRef:n}),(s,i)=>(J(),Z("div",Ep,[i[7]||(i[7]=x("h3",null,"Графики",-1)),x("div",Fp,[x("label",null,[i[4]||(i[4]=pt("Режим ",-1)),x("select",{value:e.viewMode,onChange:i[0]||(i[0]=o=>s.$emit("update:viewMode",o.target.value))},[...i[3]||(i[3]=[x("option",{value:"categories"},"Категории",-1),x("option",{value:"group"},"Группа",-1)])],40,$p)]),x("label",null,[i[6]||(i[6]=pt("Показать ",-1)),x("select",{value:e.chartMode,onChange:i[1]||(i[1]=o=>s.$emit("update:chartMode",o.target.value))},[...i[5]||(i[5]=[x("option",{value:"expenses"},"Расходы",-1),x("option",{value:"income"},"Доходы",-1),x("option",{value:"both"},"Вместе",-1)])],40,Bp)]),x("button",{onClick:i[2]||(i[2]=o=>s.$emit("refresh"))},"Обновить")]),x("canvas",{ref_key:"chartRef",ref:n},null,512)]))}}),zp={class:"tile col-5"},Vp={class:"form-grid"},jp={id:"budgetList"},Hp=["onClick"],Wp=ie({__name:"BudgetManager",props:{budgets:{}},emits:["set-budget","delete-budget"],setup(e,{emit:t}){const n=ct({category:"",limit:null}),s=t;function i(){s("set-budget",n.value),n.value={category:"",limit:null}}return(o,r)=>(J(),Z("div",zp,[r[3]||(r[3]=x("h3",null,"Бюджеты",-1)),x("form",{onSubmit:rn(i,["prevent"])},[x("div",Vp,[ce(x("input",{"onUpdate:modelValue":r[0]||(r[0]=a=>n.value.category=a),name:"category",placeholder:"Категория",required:""},null,512),[[Se,n.value.category,void 0,{trim:!0}]]),ce(x("input",{"onUpdate:modelValue":r[1]||(r[1]=a=>n.value.limit=a),name:"limit",type:"number",step:"0.01",placeholder:"Лимит",required:""},null,512),[[Se,n.value.limit,void 0,{number:!0}]]),r[2]||(r[2]=x("button",{type:"submit",class:"full"},"Установить",-1))])],32),x("div",jp,[(J(!0),Z(It,null,sn(e.budgets,a=>(J(),Z("div",{key:a.category},[pt(lt(a.category)+": ",1),x("strong",null,lt(a.spent),1),pt(" / "+lt(a.limit)+" ",1),x("button",{style:{"margin-left":"8px"},title:"Удалить лимит",onClick:l=>o.$emit("delete-budget",a.category)},"🗑",8,Hp)]))),128))])]))}}),Up={class:"tile col-7"},Yp={class:"row"},Kp=["value"],Xp=["value"],Gp=["value"],qp={id:"rateBox"},Jp={key:0},Qp=ie({__name:"CurrencyConverter",props:{currency:{},convert:{}},emits:["update:base","update:symbol","update:amount","convert"],setup(e,{emit:t}){const n=e,s=t;function i(a){return a==null||isNaN(Number(a))?"—":new Intl.NumberFormat("ru-RU",{maximumFractionDigits:2}).format(Number(a))}const o=kn(()=>n.currency.val!=null?`1 ${n.currency.base} = ${i(n.currency.val)} ${n.currency.symbol}`:"—");function r(a){const l=a.target.value,c=l===""?null:Number(l);s("update:amount",isNaN(c)?null:c)}return(a,l)=>(J(),Z("div",Up,[l[9]||(l[9]=x("h3",null,"Курсы валют",-1)),x("div",Yp,[x("label",null,[l[5]||(l[5]=pt("База ",-1)),x("select",{value:e.currency.base,onChange:l[0]||(l[0]=c=>a.$emit("update:base",c.target.value)),id:"baseSelect"},[...l[4]||(l[4]=[x("option",{value:"MDL"},"MDL",-1),x("option",{value:"USD"},"USD",-1),x("option",{value:"EUR"},"EUR",-1),x("option",{value:"RUB"},"RUB",-1)])],40,Kp)]),x("label",null,[l[7]||(l[7]=pt("К валюте ",-1)),x("select",{value:e.currency.symbol,onChange:l[1]||(l[1]=c=>a.$emit("update:symbol",c.target.value)),id:"currencySelect"},[...l[6]||(l[6]=[x("option",{value:"USD"},"USD",-1),x("option",{value:"EUR"},"EUR",-1),x("option",{value:"RUB"},"RUB",-1),x("option",{value:"MDL"},"MDL",-1)])],40,Xp)]),x("label",null,[l[8]||(l[8]=pt("Сумма ",-1)),x("input",{type:"number",step:"0.01",value:e.convert.amount,onInput:l[2]||(l[2]=c=>r(c)),placeholder:"0"},null,40,Gp)]),x("button",{onClick:l[3]||(l[3]=c=>a.$emit("convert"))},"Пересчитать")]),x("div",qp,[pt(lt(o.value),1),e.convert.result!=null?(J(),Z("span",Jp,[pt(" • "+lt(i(e.convert.amount))+" "+lt(e.currency.base)+" = ",1),x("strong",null,lt(i(e.convert.result)),1),pt(" "+lt(e.currency.symbol),1)])):re("",!0)])]))}}),Zp={class:"tile col-12"},tg={class:"row",style:{"margin-bottom":"12px"}},eg=["value"],ng=["value"],sg=["value"],ig=["value"],og=["value"],rg={class:"table-container"},ag={id:"txTable"},lg=["onClick"],cg=ie({__name:"TransactionList",props:{filters:{},filteredTx:{}},emits:["set-quick","update:search","update:onlyFav","update:from","update:to","update:category","apply-filter","export-csv","delete-tx"],setup(e){return(t,n)=>(J(),Z("div",Zp,[n[16]||(n[16]=x("h3",null,"История транзакций",-1)),x("div",tg,[x("button",{onClick:n[0]||(n[0]=s=>t.$emit("set-quick","today"))},"Сегодня"),x("button",{onClick:n[1]||(n[1]=s=>t.$emit("set-quick","week"))},"Неделя"),x("button",{onClick:n[2]||(n[2]=s=>t.$emit("set-quick","month"))},"Месяц"),x("input",{value:e.filters.search,onInput:n[3]||(n[3]=s=>t.$emit("update:search",s.target.value)),placeholder:"Поиск по описанию"},null,40,eg),x("select",{value:e.filters.onlyFav,onChange:n[4]||(n[4]=s=>t.$emit("update:onlyFav",s.target.value==="true"))},[...n[10]||(n[10]=[x("option",{value:!1},"Все категории",-1),x("option",{value:!0},"Избранные",-1)])],40,ng),x("button",{onClick:n[5]||(n[5]=s=>t.$emit("export-csv"))},"Экспорт CSV")]),x("form",{class:"row",onSubmit:n[9]||(n[9]=rn(s=>t.$emit("apply-filter"),["prevent"]))},[x("label",null,[n[11]||(n[11]=pt("От даты ",-1)),x("input",{value:e.filters.from,onInput:n[6]||(n[6]=s=>t.$emit("update:from",s.target.value)),name:"from",type:"date"},null,40,sg)]),x("label",null,[n[12]||(n[12]=pt("До даты ",-1)),x("input",{value:e.filters.to,onInput:n[7]||(n[7]=s=>t.$emit("update:to",s.target.value)),name:"to",type:"date"},null,40,ig)]),x("label",null,[n[13]||(n[13]=pt("Категория ",-1)),x("input",{value:e.filters.category,onInput:n[8]||(n[8]=s=>t.$emit("update:category",s.target.value)),name:"category",placeholder:"Категория"},null,40,og)]),n[14]||(n[14]=x("button",{type:"submit"},"Применить фильтр",-1))],32),x("div",rg,[x("table",ag,[n[15]||(n[15]=x("thead",null,[x("tr",null,[x("th",null,"Дата"),x("th",null,"Категория"),x("th",null,"Описание"),x("th",null,"Сумма"),x("th")])],-1)),x("tbody",null,[(J(!0),Z(It,null,sn(e.filteredTx,s=>(J(),Z("tr",{key:s.id},[x("td",null,lt(s.date),1),x("td",null,lt(s.category??"—"),1),x("td",null,lt(s.description??"—"),1),x("td",null,lt(s.amount),1),x("td",null,[x("button",{onClick:i=>t.$emit("delete-tx",s.id),title:"Удалить"},"🗑",8,lg)])]))),128))])])])]))}}),ug={class:"tile col-5"},fg={class:"row",style:{"margin-bottom":"8px"}},hg={key:0,class:"form-grid",style:{"margin-bottom":"10px"}},dg=["value"],pg=["value"],gg=["value"],mg=["value"],bg=["value"],yg=["value"],xg=["value"],_g={id:"recoList"},vg={key:0},Sg={key:1,style:{color:"var(--muted)","font-size":"0.85em"}},wg={key:0},Mg=ie({__name:"Recommendations",props:{recommendations:{},recOpts:{}},emits:["update:recOpts","save-opts","refresh"],setup(e,{emit:t}){const n=ct(!1),s=e,i=t;function o(r,a){i("update:recOpts",{...s.recOpts,[r]:a})}return(r,a)=>(J(),Z("div",ug,[a[24]||(a[24]=x("h3",null,"Рекомендации",-1)),x("div",fg,[x("button",{onClick:a[0]||(a[0]=l=>n.value=!n.value)},"⚙ Показать настройки"),n.value?(J(),Z("button",{key:0,onClick:a[1]||(a[1]=l=>r.$emit("save-opts"))},"Сохранить настройки")):re("",!0),x("button",{onClick:a[2]||(a[2]=l=>r.$emit("refresh")),style:{"margin-left":"auto"}},"Обновить")]),n.value?(J(),Z("div",hg,[x("label",null,[a[10]||(a[10]=pt("Период анализа (дней) ",-1)),x("input",{type:"number",min:"7",value:e.recOpts.periodDays,onInput:a[3]||(a[3]=l=>o("periodDays",Number(l.target.value)))},null,40,dg),a[11]||(a[11]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Берём операции за последние N дней",-1))]),x("label",null,[a[12]||(a[12]=pt("Окно для подписок (дней) ",-1)),x("input",{type:"number",min:"14",value:e.recOpts.subWindowDays,onInput:a[4]||(a[4]=l=>o("subWindowDays",Number(l.target.value)))},null,40,pg),a[13]||(a[13]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Ищем повторы по описанию в этом окне",-1))]),x("label",null,[a[14]||(a[14]=pt("Повторения подписки (раз) ",-1)),x("input",{type:"number",min:"2",value:e.recOpts.subMinCount,onInput:a[5]||(a[5]=l=>o("subMinCount",Number(l.target.value)))},null,40,gg),a[15]||(a[15]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Сколько одинаковых операций считать подпиской",-1))]),x("label",null,[a[16]||(a[16]=pt("Порог суммы подписки (за период) ",-1)),x("input",{type:"number",min:"0",step:"1",value:e.recOpts.subMinSum,onInput:a[6]||(a[6]=l=>o("subMinSum",Number(l.target.value)))},null,40,mg),a[17]||(a[17]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Минимальная сумма повторов за окно",-1))]),x("label",null,[a[18]||(a[18]=pt("Сократить топ‑категорию на (%) ",-1)),x("input",{type:"number",min:"1",max:"50",value:e.recOpts.top1CutPct,onInput:a[7]||(a[7]=l=>o("top1CutPct",Number(l.target.value)))},null,40,bg),a[19]||(a[19]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Рекомендация для самой затратной категории",-1))]),x("label",null,[a[20]||(a[20]=pt("Сократить вторую категорию на (%) ",-1)),x("input",{type:"number",min:"1",max:"50",value:e.recOpts.top2CutPct,onInput:a[8]||(a[8]=l=>o("top2CutPct",Number(l.target.value)))},null,40,yg),a[21]||(a[21]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Рекомендация для категории №2 по расходам",-1))]),x("label",null,[a[22]||(a[22]=pt("Считать доминирующей, если доля > (%) ",-1)),x("input",{type:"number",min:"10",max:"90",value:e.recOpts.topSharePct,onInput:a[9]||(a[9]=l=>o("topSharePct",Number(l.target.value)))},null,40,xg),a[23]||(a[23]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Порог доли одной категории в расходах",-1))])])):re("",!0),x("div",_g,[(J(!0),Z(It,null,sn(e.recommendations,l=>(J(),Z("div",{key:l.message},[pt("- "+lt(l.message),1),l.potentialSave?(J(),Z("span",vg," (≈ "+lt(l.potentialSave)+")",1)):re("",!0),l.criteria?(J(),Z("div",Sg,"Основание: "+lt(l.criteria),1)):re("",!0)]))),128)),e.recommendations.length===0?(J(),Z("div",wg,"—")):re("",!0)])]))}}),kg={class:"tile col-7"},Cg={id:"reminderList"},Pg={key:0},Og={key:0},Dg=ie({__name:"Reminders",props:{reminders:{}},emits:["add-reminder"],setup(e,{emit:t}){const n=ct({dueDate:new Date().toISOString().split("T")[0],message:"Платёж",amount:null}),s=t;function i(){s("add-reminder",n.value),n.value={dueDate:new Date().toISOString().split("T")[0],message:"Платёж",amount:null}}return(o,r)=>(J(),Z("div",kg,[r[7]||(r[7]=x("h3",null,"Напоминания",-1)),x("form",{class:"row",onSubmit:rn(i,["prevent"])},[x("label",null,[r[3]||(r[3]=pt("Дата ",-1)),ce(x("input",{"onUpdate:modelValue":r[0]||(r[0]=a=>n.value.dueDate=a),type:"date",name:"dueDate",required:""},null,512),[[Se,n.value.dueDate]])]),x("label",null,[r[4]||(r[4]=pt("Сообщение ",-1)),ce(x("input",{"onUpdate:modelValue":r[1]||(r[1]=a=>n.value.message=a),name:"message",placeholder:"Напоминание"},null,512),[[Se,n.value.message,void 0,{trim:!0}]])]),x("label",null,[r[5]||(r[5]=pt("Сумма ",-1)),ce(x("input",{"onUpdate:modelValue":r[2]||(r[2]=a=>n.value.amount=a),type:"number",step:"0.01",name:"amount",placeholder:"Опц."},null,512),[[Se,n.value.amount,void 0,{number:!0}]])]),r[6]||(r[6]=x("button",{type:"submit"},"Добавить",-1))],32),x("div",Cg,[(J(!0),Z(It,null,sn(e.reminders,a=>(J(),Z("div",{key:a.id},[pt(lt(a.date)+": "+lt(a.message),1),a.amount!=null?(J(),Z("span",Pg," ("+lt(a.amount)+")",1)):re("",!0)]))),128)),e.reminders.length===0?(J(),Z("div",Og,"—")):re("",!0)])]))}});function ka(e){return e==null||isNaN(Number(e))?"—":new Intl.NumberFormat("ru-RU",{maximumFractionDigits:2}).format(Number(e))}const Tg={class:"tile col-12"},Ag={class:"row",style:{margin:"8px 0"}},Rg={style:{"margin-top":"16px"}},Ig={class:"row",style:{"margin-bottom":"8px","align-items":"center"}},Lg={key:0},Eg={key:0},Fg={id:"groupPeersTable"},$g={style:{color:"var(--acc)"}},Bg={style:{color:"var(--bad)"}},Ng={key:1,style:{"text-align":"center",padding:"32px",color:"var(--muted)"}},zg={key:1,style:{"text-align":"center",padding:"32px",color:"var(--muted)"}},Vg=ie({__name:"GroupBudget",props:{groupBudget:{},groupPeers:{},myGroup:{}},emits:["create-group","join-group","copy-invite","leave-group","refresh-group-meta"],setup(e,{emit:t}){const n=ct({name:"Семейный бюджет",groupId:""}),s=t;function i(){s("create-group",n.value.name)}function o(){s("join-group",n.value.groupId)}return(r,a)=>(J(),Z("div",Tg,[a[10]||(a[10]=x("h3",null,"Групповой бюджет",-1)),x("form",{class:"row",onSubmit:rn(i,["prevent"])},[ce(x("input",{"onUpdate:modelValue":a[0]||(a[0]=l=>n.value.name=l),name:"name",placeholder:"Название группы"},null,512),[[Se,n.value.name,void 0,{trim:!0}]]),a[5]||(a[5]=x("button",{type:"submit",class:"btn-primary"},"Создать",-1))],32),x("form",{class:"row",onSubmit:rn(o,["prevent"])},[ce(x("input",{"onUpdate:modelValue":a[1]||(a[1]=l=>n.value.groupId=l),name:"groupId",placeholder:"ID группы",required:""},null,512),[[Se,n.value.groupId,void 0,{trim:!0}]]),a[6]||(a[6]=x("button",{type:"submit",class:"btn-primary"},"Присоединиться",-1))],32),x("div",Ag,[x("div",null,[a[7]||(a[7]=pt("Текущая группа: ",-1)),x("strong",null,lt(e.myGroup.groupName||"—"),1)]),x("button",{onClick:a[2]||(a[2]=l=>r.$emit("copy-invite")),class:"btn-primary"},"Скопировать приглашение"),e.myGroup.groupId?(J(),Z("button",{key:0,onClick:a[3]||(a[3]=l=>r.$emit("leave-group")),class:"btn-primary"},"Выйти из группы")):re("",!0)]),x("div",Rg,[x("div",Ig,[a[8]||(a[8]=x("h4",{style:{margin:"0",flex:"1"}},"Участники (Доходы/Расходы)",-1)),x("button",{onClick:a[4]||(a[4]=l=>r.$emit("refresh-group-meta")),class:"btn-primary",style:{"margin-left":"8px"}},"Обновить")]),e.myGroup.groupId?(J(),Z("div",Lg,[e.groupPeers.length>0?(J(),Z("div",Eg,[x("table",Fg,[a[9]||(a[9]=x("thead",null,[x("tr",null,[x("th",null,"Пользователь"),x("th",null,"Доход"),x("th",null,"Расход")])],-1)),x("tbody",null,[(J(!0),Z(It,null,sn(e.groupPeers,l=>(J(),Z("tr",{key:l.userId},[x("td",null,lt(l.username||"Пользователь"),1),x("td",$g,lt(H(ka)(l.income)),1),x("td",Bg,lt(H(ka)(l.expense)),1)]))),128))])])])):(J(),Z("div",Ng,"Нет участников"))])):(J(),Z("div",zg,"Вы не в группе"))])]))}}),jg={class:"tile col-12"},Hg={class:"row",style:{"margin-bottom":"12px"}},Wg=["value"],Ug={class:"table-container"},Yg=ie({__name:"CryptoView",props:{crypto:{},cryptoList:{}},emits:["update:currency","load-crypto"],setup(e){function t(n){return n<.01?n.toFixed(8):n<1?n.toFixed(4):n<100?n.toFixed(2):new Intl.NumberFormat("ru-RU",{maximumFractionDigits:2,minimumFractionDigits:2}).format(n)}return(n,s)=>(J(),Z("div",jg,[s[6]||(s[6]=x("h3",null,"Криптовалюты",-1)),x("div",Hg,[x("label",null,[s[3]||(s[3]=pt("Валюта отображения ",-1)),x("select",{value:e.crypto.currency,onChange:s[0]||(s[0]=i=>n.$emit("update:currency",i.target.value))},[...s[2]||(s[2]=[x("option",{value:"usd"},"USD",-1),x("option",{value:"eur"},"EUR",-1)])],40,Wg)]),x("button",{onClick:s[1]||(s[1]=i=>n.$emit("load-crypto"))},"Обновить")]),x("div",Ug,[x("table",null,[x("thead",null,[x("tr",null,[s[4]||(s[4]=x("th",null,"Монета",-1)),x("th",null,"Цена ("+lt(e.crypto.currency.toUpperCase())+")",1),s[5]||(s[5]=x("th",null,"Изм. 24ч",-1))])]),x("tbody",null,[(J(!0),Z(It,null,sn(e.cryptoList,i=>(J(),Z("tr",{key:i.id},[x("td",null,lt(i.symbol.toUpperCase()),1),x("td",null,lt(t(i.current_price)),1),x("td",{style:ji({color:i.price_change_percentage_24h>=0?"#22c55e":"#ff6b6b"})},lt(i.price_change_percentage_24h.toFixed(2))+"% ",5)]))),128))])])])]))}});function Kg(){const e=ct("");function t(n){e.value=n,setTimeout(()=>e.value="",2500)}return{toastMsg:e,toast:t}}function Xg(e,t,n,s){const i=kr(),o=kn(()=>i.user);async function r(u){const f=await Ot("/api/login",{method:"POST",form:u});f.ok?(i.setUser(f.user),await c(),e("Добро пожаловать, "+f.user.username)):e(f.error||"Ошибка входа")}async function a(u){const f=await Ot("/api/register",{method:"POST",form:u});f.ok?e("Регистрация успешна, войдите"):e(f.error||"Ошибка регистрации")}async function l(){await Ot("/api/logout",{method:"POST"}),i.setUser(null)}async function c(){Jd(u=>{u.type==="budget-update"&&t(),(u.type==="reminder"||u.type==="alert")&&e(u.message||"Уведомление"),u.type==="tx-added"&&n()}),await s()}return{user:o,login:r,register:a,logout:l,afterAuth:c}}function Gg(e,t){const n={current:async()=>{}},s={current:()=>{}},i=kr(),o=kn(()=>i.favorites),r=ct({from:void 0,to:void 0,category:void 0,search:"",onlyFav:!1}),a=ct([]),l=ct({total:0,expenses:"—",income:"—"}),c=kn(()=>{let L=a.value.slice().reverse();if(r.value.search){const j=r.value.search.toLowerCase();L=L.filter(G=>(G.description??"").toLowerCase().includes(j))}return r.value.onlyFav&&(L=L.filter(j=>o.value.has(j.category??""))),L});async function u(){const L=new URLSearchParams;r.value.from&&L.set("from",r.value.from),r.value.to&&L.set("to",r.value.to),r.value.category&&L.set("category",r.value.category);const j=await Ot("/api/transactions?"+L.toString());a.value=j.items||[],l.value.total=a.value.length;const G=a.value.filter(W=>W.amount<0).reduce((W,V)=>W+V.amount,0),q=a.value.filter(W=>W.amount>0).reduce((W,V)=>W+V.amount,0);l.value.expenses=G.toFixed(2),l.value.income=q.toFixed(2)}async function f(L){if(!confirm("Удалить транзакцию?"))return;const j=await Ot("/api/transaction/delete",{method:"POST",form:{id:L}});j&&j.ok?(e("Удалено"),await u(),await n.current(),await t(),s.current()):e(j.error||"Не удалось удалить")}const h=ct({date:new Date().toISOString().split("T")[0],type:"expense",amount:null,category:"",description:""});let d;const p=kn(()=>!!h.value.category&&o.value.has(h.value.category));function g(){h.value.category&&i.toggleFavorite(h.value.category)}const m=["-100","-500","-1000","+100","+500","+1000"];function y(L){const j=Number(L);isNaN(j)||(j<0?(h.value.type="expense",h.value.amount=Math.abs(j)):(h.value.type="income",h.value.amount=j))}const S=ct(w());function w(){try{const L=localStorage.getItem("tx.templates");return L?JSON.parse(L):[]}catch{return[]}}function v(){localStorage.setItem("tx.templates",JSON.stringify(S.value))}function M(L){if(!L.trim())return;const j={name:L.trim(),type:h.value.type,amount:0,category:h.value.category.trim(),description:L.trim()},G=S.value.findIndex(q=>q.name.toLowerCase()===j.name.toLowerCase());G>=0?S.value[G]=j:S.value.push(j),v(),e("Шаблон сохранён")}function R(L){const j=S.value.find(G=>G.name===L);j&&(h.value.type=j.type,h.value.category=j.name)}function T(L){const j=S.value.findIndex(G=>G.name===L);j>=0&&(S.value.splice(j,1),v(),e("Шаблон удалён"))}async function C(){clearTimeout(d),d=setTimeout(async()=>{if(!h.value.category&&h.value.description){const L=await Qd(h.value.description);L&&(h.value.category=L)}},300)}async function I(){const L=(()=>{const q=Number(h.value.amount??0);return h.value.type==="expense"?-Math.abs(q):Math.abs(q)})(),j={date:h.value.date,amount:L,category:h.value.category,description:h.value.description},G=await Ot("/api/transaction/add",{method:"POST",form:j});G.ok?(e("Транзакция добавлена"),await u(),s.current(),h.value={date:new Date().toISOString().split("T")[0],type:"expense",amount:null,category:"",description:""}):e(G.error||"Ошибка")}function z(L){const j=new Date,G=j.toISOString().split("T")[0];let q;if(L==="today")q=G;else if(L==="week"){const W=new Date(j);W.setDate(j.getDate()-6),q=W.toISOString().split("T")[0]}else{const W=new Date(j);W.setDate(1),q=W.toISOString().split("T")[0]}r.value.from=q,r.value.to=G}function U(){const L=Zd(c.value),j=new Blob([L],{type:"text/csv;charset=utf-8"}),G=document.createElement("a");G.href=URL.createObjectURL(j),G.download="transactions.csv",G.click(),URL.revokeObjectURL(G.href)}return{filters:r,transactions:a,stats:l,filteredTx:c,txForm:h,templates:S,isFavTxCat:p,quickAmounts:m,refreshTx:u,deleteTx:f,addTransaction:I,toggleFavForTx:g,applyQuick:y,saveTemplate:M,useTemplate:R,deleteTemplate:T,maybeSuggestCategory:C,setQuick:z,exportCsv:U,setRefreshChart:L=>{n.current=L},setBuildRecommendations:L=>{s.current=L}}}function qg(e){const t=ct([]);async function n(){const o=await Ot("/api/budget");t.value=o.items||[]}async function s(o){const r=await Ot("/api/budget/set",{method:"POST",form:o});r.ok?(e("Бюджет обновлён"),await n()):e(r.error||"Ошибка")}async function i(o){if(!confirm(`Удалить лимит категории "${o}"?`))return;const r=await Ot("/api/budget/delete",{method:"POST",form:{category:o}});r.ok?(e("Лимит удалён"),await n()):e(r.error||"Ошибка")}return{budgets:t,refreshBudget:n,setBudget:s,deleteBudget:i}}/*!
+`)}const tp={class:"topbar"},ep={class:"nav"},np={class:"nav-right"},sp={key:0,class:"user-menu-wrapper"},ip={class:"user-badge"},op=ie({__name:"Header",props:{user:{}},emits:["toggle-theme","show-auth","logout"],setup(e){const t=ct(!1);return(n,s)=>(J(),Z("header",tp,[s[11]||(s[11]=x("div",{class:"brand"},"💰 FinTrack",-1)),x("nav",ep,[x("div",np,[e.user?(J(),Z("div",sp,[x("div",{class:"user-trigger",onMouseenter:s[4]||(s[4]=i=>t.value=!0),onMouseleave:s[5]||(s[5]=i=>t.value=!1)},[x("div",ip,[s[7]||(s[7]=pt("👤 ",-1)),x("span",null,lt(e.user.username),1)]),t.value?(J(),Z("div",{key:0,class:"user-dropdown",onMouseenter:s[2]||(s[2]=i=>t.value=!0),onMouseleave:s[3]||(s[3]=i=>t.value=!1)},[x("div",{class:"user-menu-item",onClick:s[0]||(s[0]=i=>n.$emit("toggle-theme"))},[...s[8]||(s[8]=[x("span",{class:"menu-icon"},"🌓",-1),x("span",{class:"menu-text"},"Тема",-1)])]),s[10]||(s[10]=x("div",{class:"user-menu-divider"},null,-1)),x("div",{class:"user-menu-item logout-item",onClick:s[1]||(s[1]=i=>n.$emit("logout"))},[...s[9]||(s[9]=[x("span",{class:"menu-icon"},"🚪",-1),x("span",{class:"menu-text"},"Выйти",-1)])])],32)):re("",!0)],32)])):re("",!0),e.user?re("",!0):(J(),Z("button",{key:1,onClick:s[6]||(s[6]=i=>n.$emit("show-auth"))},"Войти"))])])]))}}),rp={class:"auth"},ap={class:"hint"},lp=ie({__name:"AuthForm",emits:["login","register"],setup(e){const t=ct({username:"",password:""});return(n,s)=>(J(),Z("section",rp,[s[6]||(s[6]=x("h2",null,"Авторизация",-1)),x("form",{onSubmit:s[2]||(s[2]=rn(i=>n.$emit("login",t.value),["prevent"]))},[ce(x("input",{"onUpdate:modelValue":s[0]||(s[0]=i=>t.value.username=i),name:"username",placeholder:"Логин",required:"",minlength:"3"},null,512),[[Se,t.value.username,void 0,{trim:!0}]]),ce(x("input",{"onUpdate:modelValue":s[1]||(s[1]=i=>t.value.password=i),type:"password",name:"password",placeholder:"Пароль",required:"",minlength:"3"},null,512),[[Se,t.value.password,void 0,{trim:!0}]]),s[4]||(s[4]=x("button",{type:"submit"},"Войти",-1))],32),x("div",ap,[s[5]||(s[5]=pt("Нет аккаунта? ",-1)),x("a",{href:"#",onClick:s[3]||(s[3]=rn(i=>n.$emit("register",t.value),["prevent"]))},"Зарегистрироваться")])]))}}),cp={class:"stats-row"},up={class:"stat-card"},fp={class:"stat-value"},hp={class:"stat-card"},dp={class:"stat-value",id:"statExpenses"},pp={class:"stat-card"},gp={class:"stat-value",id:"statIncome"},mp=ie({__name:"StatsCards",props:{stats:{}},setup(e){return(t,n)=>(J(),Z("div",cp,[x("div",up,[n[0]||(n[0]=x("div",{class:"stat-label"},"Всего транзакций",-1)),x("div",fp,lt(e.stats.total),1)]),x("div",hp,[n[1]||(n[1]=x("div",{class:"stat-label"},"Расходы",-1)),x("div",dp,lt(e.stats.expenses),1)]),x("div",pp,[n[2]||(n[2]=x("div",{class:"stat-label"},"Доходы",-1)),x("div",gp,lt(e.stats.income),1)])]))}}),bp={class:"tile tile--accent col-5"},yp={class:"form-grid"},xp=["value"],_p=["value"],vp=["value"],Sp={class:"full",style:{display:"flex",gap:"8px","align-items":"center"}},wp=["value"],Mp=["aria-pressed"],kp=["value"],Cp={class:"full row",style:{"justify-content":"flex-start"}},Pp=["onClick"],Op={class:"full",style:{display:"flex",gap:"8px","align-items":"center"}},Dp=["value"],Tp=["disabled"],Ap={class:"full",style:{display:"flex",gap:"8px","align-items":"center"}},Rp=["disabled"],Ip=["disabled"],Lp=ie({__name:"TransactionForm",props:{txForm:{},templates:{},isFav:{type:Boolean},quickAmounts:{}},emits:["update:txForm","submit","toggle-fav","suggest-category","apply-quick","use-template","save-template","delete-template"],setup(e,{emit:t}){const n=e,s=t,i=ct(""),o=ct("");function r(a,l){s("update:txForm",{...n.txForm,[a]:l})}return(a,l)=>(J(),Z("div",bp,[l[15]||(l[15]=x("h3",null,"Добавить транзакцию",-1)),x("form",{onSubmit:l[11]||(l[11]=rn(c=>a.$emit("submit"),["prevent"]))},[x("div",yp,[x("input",{value:e.txForm.date,onInput:l[0]||(l[0]=c=>r("date",c.target.value)),name:"date",type:"date",required:""},null,40,xp),x("select",{value:e.txForm.type,onChange:l[1]||(l[1]=c=>r("type",c.target.value)),name:"type"},[...l[12]||(l[12]=[x("option",{value:"expense"},"Расход",-1),x("option",{value:"income"},"Доход",-1)])],40,_p),x("input",{value:e.txForm.amount,onInput:l[2]||(l[2]=c=>r("amount",Number(c.target.value))),name:"amount",type:"number",step:"0.01",placeholder:"Сумма",required:""},null,40,vp),x("div",Sp,[x("input",{value:e.txForm.category,onInput:l[3]||(l[3]=c=>r("category",c.target.value)),name:"category",placeholder:"Категория",style:{flex:"1"}},null,40,wp),x("button",{type:"button",title:"Добавить в избранное",onClick:l[4]||(l[4]=c=>a.$emit("toggle-fav")),"aria-pressed":e.isFav},lt(e.isFav?"★":"☆"),9,Mp)]),x("input",{value:e.txForm.description,onInput:l[5]||(l[5]=c=>{r("description",c.target.value),a.$emit("suggest-category")}),name:"description",placeholder:"Описание",class:"full"},null,40,kp),x("div",Cp,[(J(!0),Z(It,null,sn(e.quickAmounts,c=>(J(),Z("button",{type:"button",key:c,onClick:u=>a.$emit("apply-quick",c)},lt(c),9,Pp))),128))]),x("div",Op,[ce(x("select",{"onUpdate:modelValue":l[6]||(l[6]=c=>i.value=c),style:{flex:"1"}},[l[13]||(l[13]=x("option",{value:"",disabled:"",selected:""},"Выбрать шаблон…",-1)),(J(!0),Z(It,null,sn(e.templates,c=>(J(),Z("option",{key:c.name,value:c.name},lt(c.name),9,Dp))),128))],512),[[Cd,i.value]]),x("button",{type:"button",onClick:l[7]||(l[7]=c=>a.$emit("use-template",i.value)),disabled:!i.value},"Подставить",8,Tp)]),x("div",Ap,[ce(x("input",{"onUpdate:modelValue":l[8]||(l[8]=c=>o.value=c),placeholder:"Название шаблона",style:{flex:"1"}},null,512),[[Se,o.value,void 0,{trim:!0}]]),x("button",{type:"button",onClick:l[9]||(l[9]=c=>a.$emit("save-template",o.value)),disabled:!o.value},"Сохранить шаблон",8,Rp),x("button",{type:"button",onClick:l[10]||(l[10]=c=>a.$emit("delete-template",i.value)),disabled:!i.value},"Удалить",8,Ip)]),l[14]||(l[14]=x("button",{type:"submit",class:"full"},"Сохранить",-1))])],32)]))}}),Ep={class:"tile col-7"},Fp={class:"row",style:{"margin-bottom":"8px"}},$p=["value"],Bp=["value"],Np=ie({__name:"ChartView",props:{viewMode:{},chartMode:{}},emits:["update:viewMode","update:chartMode","refresh"],setup(e,{expose:t}){const n=ct(null);return t({chartRef:n}),(s,i)=>(J(),Z("div",Ep,[i[7]||(i[7]=x("h3",null,"Графики",-1)),x("div",Fp,[x("label",null,[i[4]||(i[4]=pt("Режим ",-1)),x("select",{value:e.viewMode,onChange:i[0]||(i[0]=o=>s.$emit("update:viewMode",o.target.value))},[...i[3]||(i[3]=[x("option",{value:"categories"},"Категории",-1),x("option",{value:"group"},"Группа",-1)])],40,$p)]),x("label",null,[i[6]||(i[6]=pt("Показать ",-1)),x("select",{value:e.chartMode,onChange:i[1]||(i[1]=o=>s.$emit("update:chartMode",o.target.value))},[...i[5]||(i[5]=[x("option",{value:"expenses"},"Расходы",-1),x("option",{value:"income"},"Доходы",-1),x("option",{value:"both"},"Вместе",-1)])],40,Bp)]),x("button",{onClick:i[2]||(i[2]=o=>s.$emit("refresh"))},"Обновить")]),x("canvas",{ref_key:"chartRef",ref:n},null,512)]))}}),zp={class:"tile col-5"},Vp={class:"form-grid"},jp={id:"budgetList"},Hp=["onClick"],Wp=ie({__name:"BudgetManager",props:{budgets:{}},emits:["set-budget","delete-budget"],setup(e,{emit:t}){const n=ct({category:"",limit:null}),s=t;function i(){s("set-budget",n.value),n.value={category:"",limit:null}}return(o,r)=>(J(),Z("div",zp,[r[3]||(r[3]=x("h3",null,"Бюджеты",-1)),x("form",{onSubmit:rn(i,["prevent"])},[x("div",Vp,[ce(x("input",{"onUpdate:modelValue":r[0]||(r[0]=a=>n.value.category=a),name:"category",placeholder:"Категория",required:""},null,512),[[Se,n.value.category,void 0,{trim:!0}]]),ce(x("input",{"onUpdate:modelValue":r[1]||(r[1]=a=>n.value.limit=a),name:"limit",type:"number",step:"0.01",placeholder:"Лимит",required:""},null,512),[[Se,n.value.limit,void 0,{number:!0}]]),r[2]||(r[2]=x("button",{type:"submit",class:"full"},"Установить",-1))])],32),x("div",jp,[(J(!0),Z(It,null,sn(e.budgets,a=>(J(),Z("div",{key:a.category},[pt(lt(a.category)+": ",1),x("strong",null,lt(a.spent),1),pt(" / "+lt(a.limit)+" ",1),x("button",{style:{"margin-left":"8px"},title:"Удалить лимит",onClick:l=>o.$emit("delete-budget",a.category)},"🗑",8,Hp)]))),128))])]))}}),Up={class:"tile col-7"},Yp={class:"row"},Kp=["value"],Xp=["value"],Gp=["value"],qp={id:"rateBox"},Jp={key:0},Qp=ie({__name:"CurrencyConverter",props:{currency:{},convert:{}},emits:["update:base","update:symbol","update:amount","convert"],setup(e,{emit:t}){const n=e,s=t;function i(a){return a==null||isNaN(Number(a))?"—":new Intl.NumberFormat("ru-RU",{maximumFractionDigits:2}).format(Number(a))}const o=kn(()=>n.currency.val!=null?`1 ${n.currency.base} = ${i(n.currency.val)} ${n.currency.symbol}`:"—");function r(a){const l=a.target.value,c=l===""?null:Number(l);s("update:amount",isNaN(c)?null:c)}return(a,l)=>(J(),Z("div",Up,[l[9]||(l[9]=x("h3",null,"Курсы валют",-1)),x("div",Yp,[x("label",null,[l[5]||(l[5]=pt("База ",-1)),x("select",{value:e.currency.base,onChange:l[0]||(l[0]=c=>a.$emit("update:base",c.target.value)),id:"baseSelect"},[...l[4]||(l[4]=[x("option",{value:"MDL"},"MDL",-1),x("option",{value:"USD"},"USD",-1),x("option",{value:"EUR"},"EUR",-1),x("option",{value:"RUB"},"RUB",-1)])],40,Kp)]),x("label",null,[l[7]||(l[7]=pt("К валюте ",-1)),x("select",{value:e.currency.symbol,onChange:l[1]||(l[1]=c=>a.$emit("update:symbol",c.target.value)),id:"currencySelect"},[...l[6]||(l[6]=[x("option",{value:"USD"},"USD",-1),x("option",{value:"EUR"},"EUR",-1),x("option",{value:"RUB"},"RUB",-1),x("option",{value:"MDL"},"MDL",-1)])],40,Xp)]),x("label",null,[l[8]||(l[8]=pt("Сумма ",-1)),x("input",{type:"number",step:"0.01",value:e.convert.amount,onInput:l[2]||(l[2]=c=>r(c)),placeholder:"0"},null,40,Gp)]),x("button",{onClick:l[3]||(l[3]=c=>a.$emit("convert"))},"Пересчитать")]),x("div",qp,[pt(lt(o.value),1),e.convert.result!=null?(J(),Z("span",Jp,[pt(" • "+lt(i(e.convert.amount))+" "+lt(e.currency.base)+" = ",1),x("strong",null,lt(i(e.convert.result)),1),pt(" "+lt(e.currency.symbol),1)])):re("",!0)])]))}}),Zp={class:"tile col-12"},tg={class:"row",style:{"margin-bottom":"12px"}},eg=["value"],ng=["value"],sg=["value"],ig=["value"],og=["value"],rg={class:"table-container"},ag={id:"txTable"},lg=["onClick"],cg=ie({__name:"TransactionList",props:{filters:{},filteredTx:{}},emits:["set-quick","update:search","update:onlyFav","update:from","update:to","update:category","apply-filter","export-csv","delete-tx"],setup(e){return(t,n)=>(J(),Z("div",Zp,[n[16]||(n[16]=x("h3",null,"История транзакций",-1)),x("div",tg,[x("button",{onClick:n[0]||(n[0]=s=>t.$emit("set-quick","today"))},"Сегодня"),x("button",{onClick:n[1]||(n[1]=s=>t.$emit("set-quick","week"))},"Неделя"),x("button",{onClick:n[2]||(n[2]=s=>t.$emit("set-quick","month"))},"Месяц"),x("input",{value:e.filters.search,onInput:n[3]||(n[3]=s=>t.$emit("update:search",s.target.value)),placeholder:"Поиск по описанию"},null,40,eg),x("select",{value:e.filters.onlyFav,onChange:n[4]||(n[4]=s=>t.$emit("update:onlyFav",s.target.value==="true"))},[...n[10]||(n[10]=[x("option",{value:!1},"Все категории",-1),x("option",{value:!0},"Избранные",-1)])],40,ng),x("button",{onClick:n[5]||(n[5]=s=>t.$emit("export-csv"))},"Экспорт CSV")]),x("form",{class:"row",onSubmit:n[9]||(n[9]=rn(s=>t.$emit("apply-filter"),["prevent"]))},[x("label",null,[n[11]||(n[11]=pt("От даты ",-1)),x("input",{value:e.filters.from,onInput:n[6]||(n[6]=s=>t.$emit("update:from",s.target.value)),name:"from",type:"date"},null,40,sg)]),x("label",null,[n[12]||(n[12]=pt("До даты ",-1)),x("input",{value:e.filters.to,onInput:n[7]||(n[7]=s=>t.$emit("update:to",s.target.value)),name:"to",type:"date"},null,40,ig)]),x("label",null,[n[13]||(n[13]=pt("Категория ",-1)),x("input",{value:e.filters.category,onInput:n[8]||(n[8]=s=>t.$emit("update:category",s.target.value)),name:"category",placeholder:"Категория"},null,40,og)]),n[14]||(n[14]=x("button",{type:"submit"},"Применить фильтр",-1))],32),x("div",rg,[x("table",ag,[n[15]||(n[15]=x("thead",null,[x("tr",null,[x("th",null,"Дата"),x("th",null,"Категория"),x("th",null,"Описание"),x("th",null,"Сумма"),x("th")])],-1)),x("tbody",null,[(J(!0),Z(It,null,sn(e.filteredTx,s=>(J(),Z("tr",{key:s.id},[x("td",null,lt(s.date),1),x("td",null,lt(s.category??"—"),1),x("td",null,lt(s.description??"—"),1),x("td",null,lt(s.amount),1),x("td",null,[x("button",{onClick:i=>t.$emit("delete-tx",s.id),title:"Удалить"},"🗑",8,lg)])]))),128))])])])]))}}),ug={class:"tile col-5"},fg={class:"row",style:{"margin-bottom":"8px"}},hg={key:0,class:"form-grid",style:{"margin-bottom":"10px"}},dg=["value"],pg=["value"],gg=["value"],mg=["value"],bg=["value"],yg=["value"],xg=["value"],_g={id:"recoList"},vg={key:0},Sg={key:1,style:{color:"var(--muted)","font-size":"0.85em"}},wg={key:0},Mg=ie({__name:"Recommendations",props:{recommendations:{},recOpts:{}},emits:["update:recOpts","save-opts","refresh"],setup(e,{emit:t}){const n=ct(!1),s=e,i=t;function o(r,a){i("update:recOpts",{...s.recOpts,[r]:a})}return(r,a)=>(J(),Z("div",ug,[a[24]||(a[24]=x("h3",null,"Рекомендации",-1)),x("div",fg,[x("button",{onClick:a[0]||(a[0]=l=>n.value=!n.value)},"⚙ Показать настройки"),n.value?(J(),Z("button",{key:0,onClick:a[1]||(a[1]=l=>r.$emit("save-opts"))},"Сохранить настройки")):re("",!0),x("button",{onClick:a[2]||(a[2]=l=>r.$emit("refresh")),style:{"margin-left":"auto"}},"Обновить")]),n.value?(J(),Z("div",hg,[x("label",null,[a[10]||(a[10]=pt("Период анализа (дней) ",-1)),x("input",{type:"number",min:"7",value:e.recOpts.periodDays,onInput:a[3]||(a[3]=l=>o("periodDays",Number(l.target.value)))},null,40,dg),a[11]||(a[11]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Берём операции за последние N дней",-1))]),x("label",null,[a[12]||(a[12]=pt("Окно для подписок (дней) ",-1)),x("input",{type:"number",min:"14",value:e.recOpts.subWindowDays,onInput:a[4]||(a[4]=l=>o("subWindowDays",Number(l.target.value)))},null,40,pg),a[13]||(a[13]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Ищем повторы по описанию в этом окне",-1))]),x("label",null,[a[14]||(a[14]=pt("Повторения подписки (раз) ",-1)),x("input",{type:"number",min:"2",value:e.recOpts.subMinCount,onInput:a[5]||(a[5]=l=>o("subMinCount",Number(l.target.value)))},null,40,gg),a[15]||(a[15]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Сколько одинаковых операций считать подпиской",-1))]),x("label",null,[a[16]||(a[16]=pt("Порог суммы подписки (за период) ",-1)),x("input",{type:"number",min:"0",step:"1",value:e.recOpts.subMinSum,onInput:a[6]||(a[6]=l=>o("subMinSum",Number(l.target.value)))},null,40,mg),a[17]||(a[17]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Минимальная сумма повторов за окно",-1))]),x("label",null,[a[18]||(a[18]=pt("Сократить топ‑категорию на (%) ",-1)),x("input",{type:"number",min:"1",max:"50",value:e.recOpts.top1CutPct,onInput:a[7]||(a[7]=l=>o("top1CutPct",Number(l.target.value)))},null,40,bg),a[19]||(a[19]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Рекомендация для самой затратной категории",-1))]),x("label",null,[a[20]||(a[20]=pt("Сократить вторую категорию на (%) ",-1)),x("input",{type:"number",min:"1",max:"50",value:e.recOpts.top2CutPct,onInput:a[8]||(a[8]=l=>o("top2CutPct",Number(l.target.value)))},null,40,yg),a[21]||(a[21]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Рекомендация для категории №2 по расходам",-1))]),x("label",null,[a[22]||(a[22]=pt("Считать доминирующей, если доля > (%) ",-1)),x("input",{type:"number",min:"10",max:"90",value:e.recOpts.topSharePct,onInput:a[9]||(a[9]=l=>o("topSharePct",Number(l.target.value)))},null,40,xg),a[23]||(a[23]=x("div",{style:{color:"var(--muted)","font-size":"0.85em"}},"Порог доли одной категории в расходах",-1))])])):re("",!0),x("div",_g,[(J(!0),Z(It,null,sn(e.recommendations,l=>(J(),Z("div",{key:l.message},[pt("- "+lt(l.message),1),l.potentialSave?(J(),Z("span",vg," (≈ "+lt(l.potentialSave)+")",1)):re("",!0),l.criteria?(J(),Z("div",Sg,"Основание: "+lt(l.criteria),1)):re("",!0)]))),128)),e.recommendations.length===0?(J(),Z("div",wg,"—")):re("",!0)])]))}}),kg={class:"tile col-7"},Cg={id:"reminderList"},Pg={key:0},Og={key:0},Dg=ie({__name:"Reminders",props:{reminders:{}},emits:["add-reminder"],setup(e,{emit:t}){const n=ct({dueDate:new Date().toISOString().split("T")[0],message:"Платёж",amount:null}),s=t;function i(){s("add-reminder",n.value),n.value={dueDate:new Date().toISOString().split("T")[0],message:"Платёж",amount:null}}return(o,r)=>(J(),Z("div",kg,[r[7]||(r[7]=x("h3",null,"Напоминания",-1)),x("form",{class:"row",onSubmit:rn(i,["prevent"])},[x("label",null,[r[3]||(r[3]=pt("Дата ",-1)),ce(x("input",{"onUpdate:modelValue":r[0]||(r[0]=a=>n.value.dueDate=a),type:"date",name:"dueDate",required:""},null,512),[[Se,n.value.dueDate]])]),x("label",null,[r[4]||(r[4]=pt("Сообщение ",-1)),ce(x("input",{"onUpdate:modelValue":r[1]||(r[1]=a=>n.value.message=a),name:"message",placeholder:"Напоминание"},null,512),[[Se,n.value.message,void 0,{trim:!0}]])]),x("label",null,[r[5]||(r[5]=pt("Сумма ",-1)),ce(x("input",{"onUpdate:modelValue":r[2]||(r[2]=a=>n.value.amount=a),type:"number",step:"0.01",name:"amount",placeholder:"Опц."},null,512),[[Se,n.value.amount,void 0,{number:!0}]])]),r[6]||(r[6]=x("button",{type:"submit"},"Добавить",-1))],32),x("div",Cg,[(J(!0),Z(It,null,sn(e.reminders,a=>(J(),Z("div",{key:a.id},[pt(lt(a.date)+": "+lt(a.message),1),a.amount!=null?(J(),Z("span",Pg," ("+lt(a.amount)+")",1)):re("",!0)]))),128)),e.reminders.length===0?(J(),Z("div",Og,"—")):re("",!0)])]))}});function ka(e){return e==null||isNaN(Number(e))?"—":new Intl.NumberFormat("ru-RU",{maximumFractionDigits:2}).format(Number(e))}const Tg={class:"tile col-12"},Ag={class:"row",style:{margin:"8px 0"}},Rg={style:{"margin-top":"16px"}},Ig={class:"row",style:{"margin-bottom":"8px","align-items":"center"}},Lg={key:0},Eg={key:0},Fg={id:"groupPeersTable"},$g={style:{color:"var(--acc)"}},Bg={style:{color:"var(--bad)"}},Ng={key:1,style:{"text-align":"center",padding:"32px",color:"var(--muted)"}},zg={key:1,style:{"text-align":"center",padding:"32px",color:"var(--muted)"}},Vg=ie({__name:"GroupBudget",props:{groupBudget:{},groupPeers:{},myGroup:{}},emits:["create-group","join-group","copy-invite","leave-group","refresh-group-meta"],setup(e,{emit:t}){const n=ct({name:"Семейный бюджет",groupId:""}),s=t;function i(){s("create-group",n.value.name)}function o(){s("join-group",n.value.groupId)}return(r,a)=>(J(),Z("div",Tg,[a[10]||(a[10]=x("h3",null,"Групповой бюджет",-1)),x("form",{class:"row",onSubmit:rn(i,["prevent"])},[ce(x("input",{"onUpdate:modelValue":a[0]||(a[0]=l=>n.value.name=l),name:"name",placeholder:"Название группы"},null,512),[[Se,n.value.name,void 0,{trim:!0}]]),a[5]||(a[5]=x("button",{type:"submit",class:"btn-primary"},"Создать",-1))],32),x("form",{class:"row",onSubmit:rn(o,["prevent"])},[ce(x("input",{"onUpdate:modelValue":a[1]||(a[1]=l=>n.value.groupId=l),name:"groupId",placeholder:"ID группы",required:""},null,512),[[Se,n.value.groupId,void 0,{trim:!0}]]),a[6]||(a[6]=x("button",{type:"submit",class:"btn-primary"},"Присоединиться",-1))],32),x("div",Ag,[x("div",null,[a[7]||(a[7]=pt("Текущая группа: ",-1)),x("strong",null,lt(e.myGroup.groupName||"—"),1)]),x("button",{onClick:a[2]||(a[2]=l=>r.$emit("copy-invite")),class:"btn-primary"},"Скопировать приглашение"),e.myGroup.groupId?(J(),Z("button",{key:0,onClick:a[3]||(a[3]=l=>r.$emit("leave-group")),class:"btn-primary"},"Выйти из группы")):re("",!0)]),x("div",Rg,[x("div",Ig,[a[8]||(a[8]=x("h4",{style:{margin:"0",flex:"1"}},"Участники (Доходы/Расходы)",-1)),x("button",{onClick:a[4]||(a[4]=l=>r.$emit("refresh-group-meta")),class:"btn-primary",style:{"margin-left":"8px"}},"Обновить")]),e.myGroup.groupId?(J(),Z("div",Lg,[e.groupPeers.length>0?(J(),Z("div",Eg,[x("table",Fg,[a[9]||(a[9]=x("thead",null,[x("tr",null,[x("th",null,"Пользователь"),x("th",null,"Доход"),x("th",null,"Расход")])],-1)),x("tbody",null,[(J(!0),Z(It,null,sn(e.groupPeers,l=>(J(),Z("tr",{key:l.userId},[x("td",null,lt(l.username||"Пользователь"),1),x("td",$g,lt(H(ka)(l.income)),1),x("td",Bg,lt(H(ka)(l.expense)),1)]))),128))])])])):(J(),Z("div",Ng,"Нет участников"))])):(J(),Z("div",zg,"Вы не в группе"))])]))}}),jg={class:"tile col-12"},Hg={class:"row",style:{"margin-bottom":"12px"}},Wg=["value"],Ug={class:"table-container"},Yg=ie({__name:"CryptoView",props:{crypto:{},cryptoList:{}},emits:["update:currency","load-crypto"],setup(e){function t(n){return n<.01?n.toFixed(8):n<1?n.toFixed(4):n<100?n.toFixed(2):new Intl.NumberFormat("ru-RU",{maximumFractionDigits:2,minimumFractionDigits:2}).format(n)}return(n,s)=>(J(),Z("div",jg,[s[6]||(s[6]=x("h3",null,"Криптовалюты",-1)),x("div",Hg,[x("label",null,[s[3]||(s[3]=pt("Валюта отображения ",-1)),x("select",{value:e.crypto.currency,onChange:s[0]||(s[0]=i=>n.$emit("update:currency",i.target.value))},[...s[2]||(s[2]=[x("option",{value:"usd"},"USD",-1),x("option",{value:"eur"},"EUR",-1)])],40,Wg)]),x("button",{onClick:s[1]||(s[1]=i=>n.$emit("load-crypto"))},"Обновить")]),x("div",Ug,[x("table",null,[x("thead",null,[x("tr",null,[s[4]||(s[4]=x("th",null,"Монета",-1)),x("th",null,"Цена ("+lt(e.crypto.currency.toUpperCase())+")",1),s[5]||(s[5]=x("th",null,"Изм. 24ч",-1))])]),x("tbody",null,[(J(!0),Z(It,null,sn(e.cryptoList,i=>(J(),Z("tr",{key:i.id},[x("td",null,lt(i.symbol.toUpperCase()),1),x("td",null,lt(t(i.current_price)),1),x("td",{style:ji({color:i.price_change_percentage_24h>=0?"#22c55e":"#ff6b6b"})},lt(i.price_change_percentage_24h.toFixed(2))+"% ",5)]))),128))])])])]))}});function Kg(){const e=ct("");function t(n){e.value=n,setTimeout(()=>e.value="",2500)}return{toastMsg:e,toast:t}}function Xg(e,t,n,s){const i=kr(),o=kn(()=>i.user);async function r(u){const f=await Ot("/api/login",{method:"POST",form:u});f.ok?(i.setUser(f.user),await c(),e("Добро пожаловать, "+f.user.username)):e(f.error||"Ошибка входа")}async function a(u){const f=await Ot("/api/register",{method:"POST",form:u});f.ok?e("Регистрация успешна, войдите"):e(f.error||"Ошибка регистрации")}async function l(){await Ot("/api/logout",{method:"POST"}),i.setUser(null)}async function c(){Jd(u=>{u.type==="refresh"&&(u.transactions&&n(),u.budgets&&t(),(u.alerts||[]).forEach(d=>e(d))),(u.type==="reminder"||u.type==="alert")&&e(u.message||"Уведомление")}),await s()}return{user:o,login:r,register:a,logout:l,afterAuth:c}}function Gg(e,t){const n={current:async()=>{}},s={current:()=>{}},i=kr(),o=kn(()=>i.favorites),r=ct({from:void 0,to:void 0,category:void 0,search:"",onlyFav:!1}),a=ct([]),l=ct({total:0,expenses:"—",income:"—"}),c=kn(()=>{let L=a.value.slice().reverse();if(r.value.search){const j=r.value.search.toLowerCase();L=L.filter(G=>(G.description??"").toLowerCase().includes(j))}return r.value.onlyFav&&(L=L.filter(j=>o.value.has(j.category??""))),L});async function u(){const L=new URLSearchParams;r.value.from&&L.set("from",r.value.from),r.value.to&&L.set("to",r.value.to),r.value.category&&L.set("category",r.value.category);const j=await Ot("/api/transactions?"+L.toString());a.value=j.items||[],l.value.total=a.value.length;const G=a.value.filter(W=>W.amount<0).reduce((W,V)=>W+V.amount,0),q=a.value.filter(W=>W.amount>0).reduce((W,V)=>W+V.amount,0);l.value.expenses=G.toFixed(2),l.value.income=q.toFixed(2)}async function f(L){if(!confirm("Удалить транзакцию?"))return;const j=await Ot("/api/transaction/delete",{method:"POST",form:{id:L}});j&&j.ok?(e("Удалено"),await u(),await n.current(),await t(),s.current()):e(j.error||"Не удалось удалить")}const h=ct({date:new Date().toISOString().split("T")[0],type:"expense",amount:null,category:"",description:""});let d;const p=kn(()=>!!h.value.category&&o.value.has(h.value.category));function g(){h.value.category&&i.toggleFavorite(h.value.category)}const m=["-100","-500","-1000","+100","+500","+1000"];function y(L){const j=Number(L);isNaN(j)||(j<0?(h.value.type="expense",h.value.amount=Math.abs(j)):(h.value.type="income",h.value.amount=j))}const S=ct(w());function w(){try{const L=localStorage.getItem("tx.templates");return L?JSON.parse(L):[]}catch{return[]}}function v(){localStorage.setItem("tx.templates",JSON.stringify(S.value))}function M(L){if(!L.trim())return;const j={name:L.trim(),type:h.value.type,amount:0,category:h.value.category.trim(),description:L.trim()},G=S.value.findIndex(q=>q.name.toLowerCase()===j.name.toLowerCase());G>=0?S.value[G]=j:S.value.push(j),v(),e("Шаблон сохранён")}function R(L){const j=S.value.find(G=>G.name===L);j&&(h.value.type=j.type,h.value.category=j.name)}function T(L){const j=S.value.findIndex(G=>G.name===L);j>=0&&(S.value.splice(j,1),v(),e("Шаблон удалён"))}async function C(){clearTimeout(d),d=setTimeout(async()=>{if(!h.value.category&&h.value.description){const L=await Qd(h.value.description);L&&(h.value.category=L)}},300)}async function I(){const L=(()=>{const q=Number(h.value.amount??0);return h.value.type==="expense"?-Math.abs(q):Math.abs(q)})(),j={date:h.value.date,amount:L,category:h.value.category,description:h.value.description},G=await Ot("/api/transaction/add",{method:"POST",form:j});G.ok?(e("Транзакция добавлена"),await u(),s.current(),h.value={date:new Date().toISOString().split("T")[0],type:"expense",amount:null,category:"",description:""}):e(G.error||"Ошибка")}function z(L){const j=new Date,G=j.toISOString().split("T")[0];let q;if(L==="today")q=G;else if(L==="week"){const W=new Date(j);W.setDate(j.getDate()-6),q=W.toISOString().split("T")[0]}else{const W=new Date(j);W.setDate(1),q=W.toISOString().split("T")[0]}r.value.from=q,r.value.to=G}function U(){const L=Zd(c.value),j=new Blob([L],{type:"text/csv;charset=utf-8"}),G=document.createElement("a");G.href=URL.createObjectURL(j),G.download="transactions.csv",G.click(),URL.revokeObjectURL(G.href)}return{filters:r,transactions:a,stats:l,filteredTx:c,txForm:h,templates:S,isFavTxCat:p,quickAmounts:m,refreshTx:u,deleteTx:f,addTransaction:I,toggleFavForTx:g,applyQuick:y,saveTemplate:M,useTemplate:R,deleteTemplate:T,maybeSuggestCategory:C,setQuick:z,exportCsv:U,setRefreshChart:L=>{n.current=L},setBuildRecommendations:L=>{s.current=L}}}function qg(e){const t=ct([]);async function n(){const o=await Ot("/api/budget");t.value=o.items||[]}async function s(o){const r=await Ot("/api/budget/set",{method:"POST",form:o});r.ok?(e("Бюджет обновлён"),await n()):e(r.error||"Ошибка")}async function i(o){if(!confirm(`Удалить лимит категории "${o}"?`))return;const r=await Ot("/api/budget/delete",{method:"POST",form:{category:o}});r.ok?(e("Лимит удалён"),await n()):e(r.error||"Ошибка")}return{budgets:t,refreshBudget:n,setBudget:s,deleteBudget:i}}/*!
  * @kurkle/color v0.3.4
  * https://github.com/kurkle/color#readme
  * (c) 2024 Jukka Kurkela
@@ -0,0 +1,51 @@
+// Writes .br and .gz next to every compressible file in public/assets after `vite build`.
+// The server serves them by Accept-Encoding (EncodedResourceResolver) instead of compressing
+// on each request, so the slow, maximum compression levels are affordable here.
+import { readdir, readFile, stat, unlink, writeFile } from 'node:fs/promises';
+import { join } from 'node:path';
+import { fileURLToPath } from 'node:url';
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib';
+
+const ROOT = fileURLToPath(new URL('../public/assets', import.meta.url));
+const COMPRESSIBLE = /\.(js|mjs|css|html|json|svg|txt|map|wasm)$/;
+const MIN_SIZE = 1024;
+
+async function* files(dir) {
+	for (const entry of await readdir(dir, { withFileTypes: true })) {
+		const path = join(dir, entry.name);
+		if (entry.isDirectory()) yield* files(path);
+		else yield path;
+	}
+}
+
+async function write(path, source, data) {
+	// A variant that is not smaller would only cost a disk read
+	if (data.length < source.length) {
+		await writeFile(path, data);
+		return true;
+	}
+	await unlink(path).catch(() => {});
+	return false;
+}
+
+let count = 0;
+let before = 0;
+let after = 0;
+for await (const file of files(ROOT)) {
+	if (!COMPRESSIBLE.test(file) || (await stat(file)).size < MIN_SIZE) continue;
+	const source = await readFile(file);
+	const br = brotliCompressSync(source, {
+		params: {
+			[constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+			[constants.BROTLI_PARAM_SIZE_HINT]: source.length
+		}
+	});
+	const gz = gzipSync(source, { level: constants.Z_BEST_COMPRESSION });
+	await write(file + '.br', source, br);
+	await write(file + '.gz', source, gz);
+	count++;
+	before += source.length;
+	after += Math.min(br.length, source.length);
+}
+
+console.log(`precompress: ${count} files, ${before} -> ${after} bytes (br)`);
@@ -34,9 +34,13 @@ export function useAuth(
 
 	async function afterAuth() {
 		sseConnect((e) => {
-			if (e.type === 'budget-update') refreshBudget();
+			// One refresh may stand for several changes; reload each list once
+			if (e.type === 'refresh') {
+				if (e.transactions) refreshTx();
+				if (e.budgets) refreshBudget();
+				for (const message of e.alerts || []) toast(message);
+			}
 			if (e.type === 'reminder' || e.type === 'alert') toast(e.message || 'Уведомление');
-			if (e.type === 'tx-added') refreshTx();
 		});
 		await refreshAll();
 	}